@@ -0,0 +1,71 @@
+/* Benchmark.java */
+
+/**
+ * A Benchmark is one timed operation measured by BenchmarkRunner.  The
+ * runner calls setUp() once per parameter combination, then repeatedly
+ * calls setUpIteration() (untimed) followed by run() (timed).
+ *
+ * run() should return a value that depends on the work it did; the runner
+ * folds the results into a sink so the JIT cannot discard the work.
+ */
+
+abstract class Benchmark {
+
+  /** Seed shared by every benchmark, so all runs see the same inputs. */
+  static final long SEED = 61;
+
+  /**
+   * name() returns the name the benchmark is reported and filtered by.
+   */
+  abstract String name();
+
+  /**
+   * setUp() builds the inputs for one parameter combination.
+   *
+   * @param size the number of vertices (or entries, or elements).
+   * @param degree the average number of edges per vertex, for benchmarks
+   *        that build graphs.
+   */
+  abstract void setUp(int size, int degree);
+
+  /**
+   * setUpIteration() prepares state that run() consumes, such as an empty
+   * table to insert into.  It is not timed.  By default it does nothing.
+   */
+  void setUpIteration() {
+  }
+
+  /**
+   * run() performs the measured work once.
+   *
+   * @return a value derived from the work.
+   */
+  abstract int run();
+
+  /**
+   * operations() returns the number of operations one run() performs, so
+   * the runner can report time per operation.
+   */
+  abstract int operations();
+
+  /**
+   * usesDegree() returns true if the benchmark's input depends on the
+   * "degree" parameter.  Benchmarks that don't are run once per size.
+   */
+  boolean usesDegree() {
+    return false;
+  }
+
+  /**
+   * randomPairs() returns "count" random pairs of ints in 0...size-1, as
+   * an array of length 2 * count.
+   */
+  static int[] randomPairs(int size, int count, java.util.Random random) {
+    int[] pairs = new int[2 * count];
+    for (int i = 0; i < pairs.length; i++) {
+      pairs[i] = random.nextInt(size);
+    }
+    return pairs;
+  }
+
+}
@@ -0,0 +1,134 @@
+/* BenchmarkRunner.java */
+
+import java.util.*;
+
+/**
+ * BenchmarkRunner runs every Benchmark over a grid of sizes and degrees and
+ * prints the mean time per operation with its standard deviation.  Each
+ * measurement is preceded by warmup iterations so the JIT has compiled the
+ * code being measured.  Run it through "ant bench", or directly:
+ *
+ *   java BenchmarkRunner [-sizes 1000,100000] [-degrees 4,32]
+ *                        [-warmup 5] [-iterations 10] [-filter Kruskal]
+ *
+ * Only benchmarks whose name contains the filter string are run.
+ */
+
+public class BenchmarkRunner {
+
+  private static final int DEFAULT_WARMUP = 5;
+  private static final int DEFAULT_ITERATIONS = 10;
+  private static final String DEFAULT_SIZES = "1000,10000,100000";
+  private static final String DEFAULT_DEGREES = "4,16";
+
+  /** Folds benchmark results together so no work is optimized away. */
+  static volatile int sink;
+
+  /**
+   * benchmarks() returns every benchmark in the suite.
+   */
+  static Benchmark[] benchmarks() {
+    return new Benchmark[] {
+      new GraphBenchmarks.AddEdge(),
+      new GraphBenchmarks.IsEdge(),
+      new GraphBenchmarks.GetNeighbors(),
+      new DictBenchmarks.Insert(),
+      new DictBenchmarks.Find(),
+      new DictBenchmarks.Remove(),
+      new ListBenchmarks.Scan(ListBenchmarks.DLIST),
+      new ListBenchmarks.Scan(ListBenchmarks.ULIST),
+      new ListBenchmarks.Filter(ListBenchmarks.DLIST),
+      new ListBenchmarks.Filter(ListBenchmarks.ULIST),
+      new DisjointSetsBenchmarks.Union(),
+      new DisjointSetsBenchmarks.Find(),
+      new KruskalBenchmarks.MinSpanTree(KruskalBenchmarks.MIN),
+      new KruskalBenchmarks.MinSpanTree(KruskalBenchmarks.MAX)
+    };
+  }
+
+  public static void main(String[] args) {
+    int warmup = DEFAULT_WARMUP;
+    int iterations = DEFAULT_ITERATIONS;
+    int[] sizes = parseList(DEFAULT_SIZES);
+    int[] degrees = parseList(DEFAULT_DEGREES);
+    String filter = "";
+    for (int i = 0; i < args.length; i += 2) {
+      if (i + 1 == args.length) {
+        System.err.println("Option " + args[i] + " needs a value");
+        return;
+      }
+      if (args[i].equals("-sizes")) {
+        sizes = parseList(args[i + 1]);
+      } else if (args[i].equals("-degrees")) {
+        degrees = parseList(args[i + 1]);
+      } else if (args[i].equals("-warmup")) {
+        warmup = Integer.parseInt(args[i + 1]);
+      } else if (args[i].equals("-iterations")) {
+        iterations = Integer.parseInt(args[i + 1]);
+      } else if (args[i].equals("-filter")) {
+        filter = args[i + 1];
+      } else {
+        System.err.println("Unknown option " + args[i]);
+        return;
+      }
+    }
+
+    System.out.printf("%-28s %10s %7s %12s %10s%n", "benchmark", "size",
+                      "degree", "ns/op", "+-");
+    for (Benchmark b : benchmarks()) {
+      if (!b.name().contains(filter)) {
+        continue;
+      }
+      for (int size : sizes) {
+        int[] benchDegrees = b.usesDegree() ? degrees : new int[] {0};
+        for (int degree : benchDegrees) {
+          measure(b, size, degree, warmup, iterations);
+        }
+      }
+    }
+  }
+
+  /**
+   * measure() times one benchmark for one parameter combination and prints
+   * a line of results.
+   */
+  private static void measure(Benchmark b, int size, int degree, int warmup,
+                              int iterations) {
+    b.setUp(size, degree);
+    for (int i = 0; i < warmup; i++) {
+      b.setUpIteration();
+      sink += b.run();
+    }
+    double[] nanosPerOp = new double[iterations];
+    for (int i = 0; i < iterations; i++) {
+      b.setUpIteration();
+      long start = System.nanoTime();
+      sink += b.run();
+      long elapsed = System.nanoTime() - start;
+      nanosPerOp[i] = (double) elapsed / Math.max(b.operations(), 1);
+    }
+    double mean = 0;
+    for (double t : nanosPerOp) {
+      mean += t;
+    }
+    mean /= iterations;
+    double variance = 0;
+    for (double t : nanosPerOp) {
+      variance += (t - mean) * (t - mean);
+    }
+    double deviation = Math.sqrt(variance / Math.max(iterations - 1, 1));
+    System.out.printf("%-28s %10d %7s %12.1f %10.1f%n", b.name(), size,
+                      b.usesDegree() ? String.valueOf(degree) : "-", mean,
+                      deviation);
+  }
+
+  private static int[] parseList(String list) {
+    String[] parts = list.split(",");
+    int[] values = new int[parts.length];
+    for (int i = 0; i < parts.length; i++) {
+      values[i] = Integer.parseInt(parts[i].trim());
+    }
+    return values;
+  }
+
+}
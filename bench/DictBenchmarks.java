@@ -0,0 +1,119 @@
+/* DictBenchmarks.java */
+
+import dict.*;
+import java.util.Random;
+
+/**
+ * DictBenchmarks measures HashTableChained with "size" Integer keys.  The
+ * tables start at the default size, so insert() includes resizing.
+ */
+
+class DictBenchmarks {
+
+  static Integer[] randomKeys(int size, Random random) {
+    Integer[] keys = new Integer[size];
+    for (int i = 0; i < size; i++) {
+      keys[i] = Integer.valueOf(random.nextInt());
+    }
+    return keys;
+  }
+
+  /** Inserts every key into an empty table. */
+  static class Insert extends Benchmark {
+    private Integer[] keys;
+    private HashTableChained<Integer, Integer> table;
+
+    String name() {
+      return "HashTableChained.insert";
+    }
+
+    void setUp(int size, int degree) {
+      keys = randomKeys(size, new Random(SEED));
+    }
+
+    void setUpIteration() {
+      table = new HashTableChained<Integer, Integer>();
+    }
+
+    int run() {
+      for (int i = 0; i < keys.length; i++) {
+        table.insert(keys[i], keys[i]);
+      }
+      return table.size();
+    }
+
+    int operations() {
+      return keys.length;
+    }
+  }
+
+  /** Finds every key of a full table, then as many absent keys. */
+  static class Find extends Benchmark {
+    private Integer[] queries;
+    private HashTableChained<Integer, Integer> table;
+
+    String name() {
+      return "HashTableChained.find";
+    }
+
+    void setUp(int size, int degree) {
+      Random random = new Random(SEED);
+      Integer[] keys = randomKeys(size, random);
+      table = new HashTableChained<Integer, Integer>();
+      for (int i = 0; i < keys.length; i++) {
+        table.insert(keys[i], keys[i]);
+      }
+      Integer[] misses = randomKeys(size, random);
+      queries = new Integer[2 * size];
+      System.arraycopy(keys, 0, queries, 0, size);
+      System.arraycopy(misses, 0, queries, size, size);
+    }
+
+    int run() {
+      int found = 0;
+      for (int i = 0; i < queries.length; i++) {
+        if (table.find(queries[i]) != null) {
+          found++;
+        }
+      }
+      return found;
+    }
+
+    int operations() {
+      return queries.length;
+    }
+  }
+
+  /** Removes every key from a full table. */
+  static class Remove extends Benchmark {
+    private Integer[] keys;
+    private HashTableChained<Integer, Integer> table;
+
+    String name() {
+      return "HashTableChained.remove";
+    }
+
+    void setUp(int size, int degree) {
+      keys = randomKeys(size, new Random(SEED));
+    }
+
+    void setUpIteration() {
+      table = new HashTableChained<Integer, Integer>(keys.length);
+      for (int i = 0; i < keys.length; i++) {
+        table.insert(keys[i], keys[i]);
+      }
+    }
+
+    int run() {
+      for (int i = 0; i < keys.length; i++) {
+        table.remove(keys[i]);
+      }
+      return table.size();
+    }
+
+    int operations() {
+      return keys.length;
+    }
+  }
+
+}
@@ -0,0 +1,91 @@
+/* DisjointSetsBenchmarks.java */
+
+import set.*;
+import java.util.Random;
+
+/**
+ * DisjointSetsBenchmarks measures DisjointSets on "size" elements.
+ */
+
+class DisjointSetsBenchmarks {
+
+  /** Unites the sets of "size" random pairs, starting from singletons. */
+  static class Union extends Benchmark {
+    private int size;
+    private int[] pairs;
+    private DisjointSets sets;
+
+    String name() {
+      return "DisjointSets.union";
+    }
+
+    void setUp(int size, int degree) {
+      this.size = size;
+      pairs = randomPairs(size, size, new Random(SEED));
+    }
+
+    void setUpIteration() {
+      sets = new DisjointSets(size);
+    }
+
+    int run() {
+      int unions = 0;
+      for (int i = 0; i < pairs.length; i += 2) {
+        int root1 = sets.find(pairs[i]);
+        int root2 = sets.find(pairs[i + 1]);
+        if (root1 != root2) {
+          sets.union(root1, root2);
+          unions++;
+        }
+      }
+      return unions;
+    }
+
+    int operations() {
+      return pairs.length / 2;
+    }
+  }
+
+  /**
+   * Calls find() on every element right after random unions, before any
+   * path has been compressed.
+   */
+  static class Find extends Benchmark {
+    private int size;
+    private int[] pairs;
+    private DisjointSets sets;
+
+    String name() {
+      return "DisjointSets.find";
+    }
+
+    void setUp(int size, int degree) {
+      this.size = size;
+      pairs = randomPairs(size, size, new Random(SEED));
+    }
+
+    void setUpIteration() {
+      sets = new DisjointSets(size);
+      for (int i = 0; i < pairs.length; i += 2) {
+        int root1 = sets.find(pairs[i]);
+        int root2 = sets.find(pairs[i + 1]);
+        if (root1 != root2) {
+          sets.union(root1, root2);
+        }
+      }
+    }
+
+    int run() {
+      int total = 0;
+      for (int i = 0; i < size; i++) {
+        total += sets.find(i);
+      }
+      return total;
+    }
+
+    int operations() {
+      return size;
+    }
+  }
+
+}
@@ -0,0 +1,146 @@
+/* GraphBenchmarks.java */
+
+import graph.*;
+import java.util.Random;
+
+/**
+ * GraphBenchmarks measures the WUGraph operations used on hot paths.
+ * Graphs have "size" vertices and about size * degree / 2 random edges.
+ */
+
+class GraphBenchmarks {
+
+  /**
+   * randomGraph() returns a graph on the vertices of vertArray with an edge
+   * for each pair in "pairs".
+   */
+  static WUGraph<Object> randomGraph(Object[] vertArray, int[] pairs) {
+    WUGraph<Object> g = new WUGraph<Object>();
+    for (int i = 0; i < vertArray.length; i++) {
+      g.addVertex(vertArray[i]);
+    }
+    for (int i = 0; i < pairs.length; i += 2) {
+      g.addEdge(vertArray[pairs[i]], vertArray[pairs[i + 1]], i);
+    }
+    return g;
+  }
+
+  static Object[] vertices(int size) {
+    Object[] vertArray = new Object[size];
+    for (int i = 0; i < size; i++) {
+      vertArray[i] = Integer.valueOf(i);
+    }
+    return vertArray;
+  }
+
+  /** Adds every edge of a random graph to a graph with no edges. */
+  static class AddEdge extends Benchmark {
+    private Object[] vertArray;
+    private int[] pairs;
+    private WUGraph<Object> g;
+
+    String name() {
+      return "WUGraph.addEdge";
+    }
+
+    boolean usesDegree() {
+      return true;
+    }
+
+    void setUp(int size, int degree) {
+      vertArray = vertices(size);
+      pairs = randomPairs(size, size * degree / 2, new Random(SEED));
+    }
+
+    void setUpIteration() {
+      g = randomGraph(vertArray, new int[0]);
+    }
+
+    int run() {
+      for (int i = 0; i < pairs.length; i += 2) {
+        g.addEdge(vertArray[pairs[i]], vertArray[pairs[i + 1]], i);
+      }
+      return g.edgeCount();
+    }
+
+    int operations() {
+      return pairs.length / 2;
+    }
+  }
+
+  /** Looks up random pairs, about half of which are edges. */
+  static class IsEdge extends Benchmark {
+    private Object[] vertArray;
+    private int[] queries;
+    private WUGraph<Object> g;
+
+    String name() {
+      return "WUGraph.isEdge";
+    }
+
+    boolean usesDegree() {
+      return true;
+    }
+
+    void setUp(int size, int degree) {
+      Random random = new Random(SEED);
+      vertArray = vertices(size);
+      int[] pairs = randomPairs(size, size * degree / 2, random);
+      g = randomGraph(vertArray, pairs);
+      int[] misses = randomPairs(size, pairs.length / 2, random);
+      queries = new int[2 * pairs.length];
+      System.arraycopy(pairs, 0, queries, 0, pairs.length);
+      System.arraycopy(misses, 0, queries, pairs.length, misses.length);
+    }
+
+    int run() {
+      int found = 0;
+      for (int i = 0; i < queries.length; i += 2) {
+        if (g.isEdge(vertArray[queries[i]], vertArray[queries[i + 1]])) {
+          found++;
+        }
+      }
+      return found;
+    }
+
+    int operations() {
+      return queries.length / 2;
+    }
+  }
+
+  /** Calls getNeighbors() on every vertex. */
+  static class GetNeighbors extends Benchmark {
+    private Object[] vertArray;
+    private WUGraph<Object> g;
+
+    String name() {
+      return "WUGraph.getNeighbors";
+    }
+
+    boolean usesDegree() {
+      return true;
+    }
+
+    void setUp(int size, int degree) {
+      vertArray = vertices(size);
+      g = randomGraph(vertArray,
+                      randomPairs(size, size * degree / 2, new Random(SEED)));
+    }
+
+    int run() {
+      int total = 0;
+      for (int i = 0; i < vertArray.length; i++) {
+        Neighbors neighbors = g.getNeighbors(vertArray[i]);
+        if (neighbors != null) {
+          total += neighbors.neighborList.length;
+        }
+      }
+      return total;
+    }
+
+    int operations() {
+      return vertArray.length;
+    }
+  }
+
+}
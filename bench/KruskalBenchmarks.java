@@ -0,0 +1,50 @@
+/* KruskalBenchmarks.java */
+
+import graph.*;
+import java.util.Random;
+
+/**
+ * KruskalBenchmarks measures Kruskal.minSpanTree() and maxSpanTree() on
+ * random graphs with "size" vertices and about size * degree / 2 edges.
+ */
+
+class KruskalBenchmarks {
+
+  /** MIN and MAX select the spanning tree a benchmark computes. */
+  static final boolean MIN = false;
+  static final boolean MAX = true;
+
+  /** Computes the minimum or maximum spanning tree of a random graph. */
+  static class MinSpanTree extends Benchmark {
+    private final boolean maximum;
+    private WUGraph<Object> g;
+
+    MinSpanTree(boolean maximum) {
+      this.maximum = maximum;
+    }
+
+    String name() {
+      return maximum ? "Kruskal.maxSpanTree" : "Kruskal.minSpanTree";
+    }
+
+    boolean usesDegree() {
+      return true;
+    }
+
+    void setUp(int size, int degree) {
+      g = GraphBenchmarks.randomGraph(GraphBenchmarks.vertices(size),
+                                      randomPairs(size, size * degree / 2,
+                                                  new Random(SEED)));
+    }
+
+    int run() {
+      return (maximum ? Kruskal.maxSpanTree(g)
+                      : Kruskal.minSpanTree(g)).edgeCount();
+    }
+
+    int operations() {
+      return 1;
+    }
+  }
+
+}
@@ -0,0 +1,111 @@
+/* ListBenchmarks.java */
+
+import list.*;
+import java.util.Iterator;
+
+/**
+ * ListBenchmarks compares DList with UList on long chains holding "size"
+ * items in total.  The items are spread round-robin over CHAINS lists, so
+ * that, as in a long-lived hash table, consecutive nodes of one DList are
+ * not adjacent in memory.
+ */
+
+class ListBenchmarks {
+
+  static final int CHAINS = 16;
+
+  /** DLIST and ULIST select the list a benchmark runs on. */
+  static final boolean DLIST = false;
+  static final boolean ULIST = true;
+
+  static List[] chains(int size, boolean unrolled) {
+    List[] lists = new List[CHAINS];
+    for (int i = 0; i < CHAINS; i++) {
+      lists[i] = unrolled ? new UList() : new DList();
+    }
+    for (int i = 0; i < size; i++) {
+      lists[i % CHAINS].insertBack(Integer.valueOf(i));
+    }
+    return lists;
+  }
+
+  static String kind(boolean unrolled) {
+    return unrolled ? "UList" : "DList";
+  }
+
+  /** Scans every chain with an iterator, as HashTableChained.find() does. */
+  static class Scan extends Benchmark {
+    private final boolean unrolled;
+    private List[] lists;
+    private int size;
+
+    Scan(boolean unrolled) {
+      this.unrolled = unrolled;
+    }
+
+    String name() {
+      return kind(unrolled) + ".scan";
+    }
+
+    void setUp(int size, int degree) {
+      this.size = size;
+      lists = chains(size, unrolled);
+    }
+
+    int run() {
+      int total = 0;
+      for (List list : lists) {
+        for (Object item : list) {
+          total += item.hashCode();
+        }
+      }
+      return total;
+    }
+
+    int operations() {
+      return size;
+    }
+  }
+
+  /** Removes every other item of every chain through an iterator. */
+  static class Filter extends Benchmark {
+    private final boolean unrolled;
+    private List[] lists;
+    private int size;
+
+    Filter(boolean unrolled) {
+      this.unrolled = unrolled;
+    }
+
+    String name() {
+      return kind(unrolled) + ".filter";
+    }
+
+    void setUp(int size, int degree) {
+      this.size = size;
+    }
+
+    void setUpIteration() {
+      lists = chains(size, unrolled);
+    }
+
+    int run() {
+      int remaining = 0;
+      for (List list : lists) {
+        Iterator<Object> it = list.iterator();
+        while (it.hasNext()) {
+          if ((((Integer) it.next()).intValue() & CHAINS) != 0) {
+            it.remove();
+          }
+        }
+        remaining += list.length();
+      }
+      return remaining;
+    }
+
+    int operations() {
+      return size;
+    }
+  }
+
+}
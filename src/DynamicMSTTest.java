@@ -0,0 +1,153 @@
+/* DynamicMSTTest.java */
+
+/**
+ * The DynamicMSTTest class tests the mst.DynamicMST class by applying a
+ * random sequence of graph mutations and comparing the maintained forest
+ * against one recomputed from scratch after every mutation.
+ */
+
+import graph.*;
+import mst.*;
+import java.util.*;
+
+public class DynamicMSTTest {
+
+  private static final int VERTICES = 30;
+  private static final int OPERATIONS = 3000;
+  private static final int MAXINT = 100;
+
+  /**
+   * forestWeight() returns the weight of a minimum spanning forest of g,
+   * computed by Prim's algorithm on each component using only isEdge() and
+   * weight(), so it shares no code with the class under test.
+   */
+  private static long forestWeight(WUGraph<Integer> g,
+                                   Integer[] vertArray) {
+    boolean[] done = new boolean[vertArray.length];
+    int[] best = new int[vertArray.length];
+    long total = 0;
+    for (int root = 0; root < vertArray.length; root++) {
+      if (done[root] || !g.isVertex(vertArray[root])) {
+        continue;
+      }
+      Arrays.fill(best, Integer.MAX_VALUE);
+      best[root] = 0;
+      while (true) {
+        int next = -1;
+        for (int i = 0; i < vertArray.length; i++) {
+          if (!done[i] && best[i] != Integer.MAX_VALUE &&
+              (next < 0 || best[i] < best[next])) {
+            next = i;
+          }
+        }
+        if (next < 0) {
+          break;
+        }
+        done[next] = true;
+        total += best[next];
+        for (int i = 0; i < vertArray.length; i++) {
+          if (!done[i] && g.isEdge(vertArray[next], vertArray[i]) &&
+              g.weight(vertArray[next], vertArray[i]) < best[i]) {
+            best[i] = g.weight(vertArray[next], vertArray[i]);
+          }
+        }
+      }
+    }
+    return total;
+  }
+
+  private static int componentCount(WUGraph<Integer> g,
+                                    Integer[] vertArray) {
+    set.DisjointSets sets = new set.DisjointSets(vertArray.length);
+    int count = 0;
+    for (int i = 0; i < vertArray.length; i++) {
+      if (g.isVertex(vertArray[i])) {
+        count++;
+        for (int j = 0; j < i; j++) {
+          if (g.isEdge(vertArray[i], vertArray[j]) &&
+              sets.find(i) != sets.find(j)) {
+            sets.union(sets.find(i), sets.find(j));
+            count--;
+          }
+        }
+      }
+    }
+    return count;
+  }
+
+  public static void main(String[] args) {
+    Random random = new Random(7);
+    Integer[] vertArray = new Integer[VERTICES];
+    WUGraph<Integer> g = new WUGraph<Integer>();
+    int failures = 0;
+
+    System.out.println("Running dynamic minimum spanning forest test.");
+    for (int i = 0; i < VERTICES; i++) {
+      vertArray[i] = Integer.valueOf(i);
+      g.addVertex(vertArray[i]);
+    }
+    for (int i = 0; i < 2 * VERTICES; i++) {
+      g.addEdge(vertArray[random.nextInt(VERTICES)],
+                vertArray[random.nextInt(VERTICES)], random.nextInt(MAXINT));
+    }
+    DynamicMST dynamic = new DynamicMST(g);
+
+    for (int op = 0; op < OPERATIONS; op++) {
+      Integer u = vertArray[random.nextInt(VERTICES)];
+      Integer v = vertArray[random.nextInt(VERTICES)];
+      int kind = random.nextInt(10);
+      if (kind < 4) {
+        g.addEdge(u, v, random.nextInt(MAXINT));
+      } else if (kind < 8) {
+        g.removeEdge(u, v);
+      } else if (kind < 9) {
+        g.removeVertex(u);
+      } else {
+        g.addVertex(u);
+      }
+
+      long expected = forestWeight(g, vertArray);
+      int expectedEdges = g.vertexCount() - componentCount(g, vertArray);
+      if (dynamic.totalWeight() != expected ||
+          dynamic.treeEdgeCount() != expectedEdges) {
+        System.out.println("After operation " + op + " the forest has " +
+                           dynamic.treeEdgeCount() + " edges of weight " +
+                           dynamic.totalWeight() + " but should have " +
+                           expectedEdges + " edges of weight " + expected +
+                           ".");
+        failures++;
+      }
+    }
+
+    WUGraph<Object> t = dynamic.minSpanTree();
+    Object[] treeVertices = t.getVertices();
+    for (int i = 0; i < treeVertices.length; i++) {
+      Neighbors neigh = t.getNeighbors(treeVertices[i]);
+      if (neigh != null) {
+        for (int j = 0; j < neigh.neighborList.length; j++) {
+          if (g.weight(treeVertices[i], neigh.neighborList[j]) !=
+              neigh.weightList[j]) {
+            System.out.println("minSpanTree() contains an edge that is not" +
+                               " in the graph.");
+            failures++;
+          }
+        }
+      }
+    }
+
+    dynamic.detach();
+    long frozen = dynamic.totalWeight();
+    g.addEdge(vertArray[0], vertArray[1], -MAXINT);
+    if (dynamic.totalWeight() != frozen) {
+      System.out.println("detach() did not stop updates.");
+      failures++;
+    }
+
+    if (failures == 0) {
+      System.out.println("All " + OPERATIONS + " mutations kept the forest" +
+                         " minimal.");
+    } else {
+      System.out.println(failures + " checks failed.");
+    }
+  }
+}
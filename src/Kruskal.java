@@ -2,7 +2,9 @@
 
 import graph.*;
 import set.*;
-import dict.*;
+import mst.*;
+import java.io.IOException;
+import java.util.Iterator;
 
 /**
  * The Kruskal class contains the method minSpanTree(), which implements
@@ -11,100 +13,474 @@ import dict.*;
 
 public class Kruskal {
 
+  private static final String ENGINE = "Kruskal";
+
   /**
    * minSpanTree() returns a WUGraph that represents the minimum spanning tree
    * of the WUGraph g.  The original WUGraph g is NOT changed.
    */
-  public static WUGraph minSpanTree(WUGraph g){
-    WUGraph minSpanningTree = new WUGraph();
-    Object edges[][] = new Object[2*g.edgeCount()][3];
-    HashTableChained hashedVertices = new HashTableChained(g.vertexCount());
-    DisjointSets sets = new DisjointSets(g.vertexCount());
-    Neighbors neighbors;
-    int edgeIndex = 0;
-    int vertMap = 0;
-    for(Object vertex : g.getVertices()){
-      minSpanningTree.addVertex(vertex);
-      hashedVertices.insert(vertex, vertMap++);
-      neighbors = g.getNeighbors(vertex);
-      for(int i = 0; i<neighbors.neighborList.length; i++){
-        edges[edgeIndex][0] = neighbors.weightList[i];
-        edges[edgeIndex][1] = vertex;
-        edges[edgeIndex][2] = neighbors.neighborList[i];
-        edgeIndex++;
-      }
-    }
-    Object cleanEdges[][] = new Object[edgeIndex][3];
-    for(int i = 0; i<cleanEdges.length; i++){
-    	cleanEdges[i]=edges[i];
-    	}
-    edges = mergesort(cleanEdges);    int vert1;
-    int vert2;
-    for (Object[] edge : edges){
-      vert1 = (Integer)hashedVertices.find(edge[1]).value();
-      vert2 = (Integer)hashedVertices.find(edge[2]).value();
-      vert1 = sets.find(vert1);
-      vert2 = sets.find(vert2);
-      if(vert1 != vert2){
-        sets.union(vert1,vert2);
-        minSpanningTree.addEdge(edge[1],edge[2],(Integer)edge[0]);
-      }
+  public static <V> WUGraph<V> minSpanTree(WUGraph<V> g){
+    return minSpanTree(g, null);
+  }
+
+  /**
+   * minSpanTree() returns a WUGraph that represents the minimum spanning tree
+   * of the WUGraph g, reporting per-phase timings and counters to
+   * "instrumentation".  The original WUGraph g is NOT changed.  If g is
+   * not connected, the result is a minimum spanning forest; use
+   * minSpanForest() to learn its components.
+   *
+   * @param g the graph.
+   * @param instrumentation the recipient of the measurements, or null to
+   *        measure nothing.
+   * @return the minimum spanning tree of g.
+   */
+  public static <V> WUGraph<V> minSpanTree(WUGraph<V> g,
+                                           MSTInstrumentation instrumentation){
+    return minSpanForest(g, instrumentation).toGraph();
+  }
+
+  /**
+   * minSpanForest() returns a minimum spanning forest of the WUGraph g, with
+   * one tree per connected component of g, each vertex's component, and
+   * each tree's total weight.  The original WUGraph g is NOT changed.
+   */
+  public static <V> SpanningForest<V> minSpanForest(WUGraph<V> g){
+    return minSpanForest(g, null);
+  }
+
+  /**
+   * minSpanForest() returns a minimum spanning forest of the WUGraph g,
+   * reporting per-phase timings and counters to "instrumentation".  The
+   * components are read off the disjoint sets Kruskal's algorithm leaves
+   * behind, so no extra search of g is needed.
+   *
+   * @param g the graph.
+   * @param instrumentation the recipient of the measurements, or null to
+   *        measure nothing.
+   * @return the minimum spanning forest of g.
+   */
+  public static <V> SpanningForest<V> minSpanForest(WUGraph<V> g,
+                                    MSTInstrumentation instrumentation){
+    return minSpanForest(g, EdgeOrder.ASCENDING, instrumentation);
+  }
+
+  /**
+   * minSpanForest() returns the spanning forest of the WUGraph g that is
+   * minimal under "order", reporting per-phase timings and counters to
+   * "instrumentation".  EdgeOrder.DESCENDING gives a maximum spanning
+   * forest, at the same cost as a minimum one.  Edges the order ranks
+   * equally are taken by the smaller endpoint's vertex id, then in g's
+   * neighbor order.
+   *
+   * @param g the graph.
+   * @param order the order in which to prefer edges.
+   * @param instrumentation the recipient of the measurements, or null to
+   *        measure nothing.
+   * @return the spanning forest of g that is minimal under "order".
+   */
+  public static <V> SpanningForest<V> minSpanForest(WUGraph<V> g,
+                                    EdgeOrder order,
+                                    MSTInstrumentation instrumentation){
+    DisjointSets sets = new DisjointSets(g.vertexIdBound());
+    EdgeList treeEdges = scan(g, g.vertexCount() - 1, sets, order,
+                              instrumentation);
+    return new SpanningForest<V>(g, treeEdges, sets);
+  }
+
+  /**
+   * maxSpanTree() returns a WUGraph that represents a maximum spanning tree
+   * (or forest) of the WUGraph g.  The original WUGraph g is NOT changed.
+   */
+  public static <V> WUGraph<V> maxSpanTree(WUGraph<V> g){
+    return maxSpanForest(g).toGraph();
+  }
+
+  /**
+   * maxSpanForest() returns a maximum spanning forest of the WUGraph g, with
+   * its components and tree weights.
+   */
+  public static <V> SpanningForest<V> maxSpanForest(WUGraph<V> g){
+    return minSpanForest(g, EdgeOrder.DESCENDING, null);
+  }
+
+  /**
+   * cluster() divides the vertices of the WUGraph g into k clusters by
+   * single linkage:  the result is the minimum spanning forest with its k-1
+   * heaviest edges cut, and its components are the clusters.  Kruskal's
+   * scan simply stops after |V|-k unions, so the heaviest edges are never
+   * looked at.  SpanningForest.componentIds() returns the cluster labels.
+   * If g has more than k connected components, each is a cluster.
+   *
+   * @param g the graph.
+   * @param k the number of clusters, at least 1.
+   * @return the clusters, as a forest whose trees are the clusters.
+   */
+  public static <V> SpanningForest<V> cluster(WUGraph<V> g, int k){
+    if(k < 1){
+      throw new IllegalArgumentException("cannot make " + k + " clusters");
     }
-    return minSpanningTree;
+    DisjointSets sets = new DisjointSets(g.vertexIdBound());
+    EdgeList treeEdges = scan(g, g.vertexCount() - k, sets, EdgeOrder.ASCENDING,
+                              null);
+    return new SpanningForest<V>(g, treeEdges, sets);
+  }
+
+  /**
+   * dendrogram() returns the single-linkage dendrogram of the WUGraph g:
+   * every merge of two clusters, in order, with the weight of the edge that
+   * caused it.  It is recorded during the same scan that finds the minimum
+   * spanning forest, and Dendrogram.labels() cuts it into any number of
+   * clusters without scanning again.
+   */
+  public static <V> Dendrogram<V> dendrogram(WUGraph<V> g){
+    DisjointSets sets = new DisjointSets(g.vertexIdBound());
+    return new Dendrogram<V>(g, scan(g, g.vertexCount() - 1, sets,
+                                     EdgeOrder.ASCENDING, null));
+  }
+
+  /**
+   * spanningTrees() returns an iterator over the spanning trees of the
+   * WUGraph g (its spanning forests, if g is not connected) in order of
+   * total weight, lightest first; the first is the minimum spanning forest.
+   * Each tree is found only when it is asked for, so the k lightest trees
+   * cost time proportional to k.  g must not change while the iterator is
+   * in use.
+   */
+  public static <V> Iterator<SpanningForest<V>> spanningTrees(WUGraph<V> g){
+    return new SpanningTreeEnumerator<V>(g);
+  }
+
+  /**
+   * sensitivity() returns a minimum spanning forest of the WUGraph g with,
+   * for every edge, how far its weight may rise (tree edges) or fall
+   * (non-tree edges) before the forest stops being minimal.  One Kruskal
+   * run answers for every edge; see mst.MSTSensitivity.
+   */
+  public static <V> MSTSensitivity<V> sensitivity(WUGraph<V> g){
+    return new MSTSensitivity<V>(g);
   }
 
-  private static Object[][] mergesort(Object elements[][]){
-    if(elements.length<2){
-      return elements;
+  /**
+   * scan() runs Kruskal's algorithm on g's vertex ids until "unions" edges
+   * have joined two sets of "sets", or the edges run out.  It returns those
+   * edges in the order they were found, which is "order", and leaves their
+   * trees as the sets of "sets".
+   */
+  private static EdgeList scan(WUGraph<?> g, int unions, DisjointSets sets,
+                               EdgeOrder order,
+                               MSTInstrumentation instrumentation){
+    boolean instrumented = instrumentation != null;
+    long start = instrumented ? System.nanoTime() : 0;
+    MSTPhaseEvent phase = MSTPhaseEvent.start(ENGINE,
+      MSTMetrics.phaseName(MSTInstrumentation.COLLECT));
+    // Work on g's own vertex ids, so no vertex object is hashed.
+    int idBound = g.vertexIdBound();
+    int maxDegree = 0;
+    for(int id = 0; id < idBound; id++){
+      maxDegree = Math.max(maxDegree, g.degreeAt(id));
     }
-    Object[][] left, right;
-    int mid = elements.length/2;
-    left = new Object[mid][];
-    for(int i = 0; i<mid; i++){
-      left[i] = elements[i];
+
+    // Collect each edge once, as a packed (key, index) sort key plus its
+    // endpoints' vertex ids.  Self-edges can never be in the tree.  Until
+    // a comparator order ranks them, the keys hold the weights themselves.
+    boolean keyed = order.isKeyed();
+    long[] keys = new long[g.edgeCount()];
+    int[] ends1 = new int[keys.length];
+    int[] ends2 = new int[keys.length];
+    int[] neighborIds = new int[maxDegree];
+    int[] weights = new int[maxDegree];
+    int edgeCount = 0;
+    for(int id = 0; id < idBound; id++){
+      int degree = g.neighborsAt(id, neighborIds, weights);
+      for(int j = 0; j < degree; j++){
+        if(neighborIds[j] > id){
+          keys[edgeCount] = EdgeSort.pack(keyed ? order.key(weights[j])
+                                                : weights[j], edgeCount);
+          ends1[edgeCount] = id;
+          ends2[edgeCount] = neighborIds[j];
+          edgeCount++;
+        }
+      }
     }
-    right = new Object[elements.length-mid][];
-    for(int i = mid; i<elements.length; i++){
-      right[i-mid] = elements[i];
+    phase.finish(edgeCount);
+    if(instrumented){
+      start = endPhase(instrumentation, MSTInstrumentation.COLLECT, start);
     }
-    left = mergesort(left);
-    right = mergesort(right);
-    return merge(left,right);
-  }
 
-  private static Object[][] merge(Object left[][], Object right[][]){
-    Object[][] sorted = new Object[left.length+right.length][];
-    int r = 0, l = 0, s = 0;
-    while(l < left.length && r < right.length){
-      if((left[l][0] != null && right[r][0] != null) && (Integer)left[l][0] < (Integer)right[r][0]){
-        sorted[s++] = left[l++];
-      } else {
-        sorted[s++] = right[r++];
+    phase = MSTPhaseEvent.start(ENGINE,
+      MSTMetrics.phaseName(MSTInstrumentation.SORT));
+    int[] edgeWeights = null;
+    if(!keyed){
+      edgeWeights = new int[edgeCount];
+      for(int i = 0; i < edgeCount; i++){
+        edgeWeights[i] = EdgeSort.weight(keys[i]);
       }
+      order.packKeys(edgeWeights, ends1, ends2, edgeCount, keys);
     }
-    while(l < left.length){
-      sorted[s++] = left[l++];
+    EdgeSort.sortKeys(keys, 0, edgeCount, new long[edgeCount]);
+    phase.finish(edgeCount);
+    if(instrumented){
+      start = endPhase(instrumentation, MSTInstrumentation.SORT, start);
     }
-    while(r < right.length){
-      sorted[s++] = right[r++];
+
+    phase = MSTPhaseEvent.start(ENGINE,
+      MSTMetrics.phaseName(MSTInstrumentation.SCAN));
+    sets.setCounting(instrumented);
+    int treeEdges = 0;
+    int scanned = 0;
+    int vert1;
+    int vert2;
+    EdgeList treeEdgeList = new EdgeList(Math.max(unions, 0));
+    for(; scanned < edgeCount && treeEdges < unions; scanned++){
+      int edge = EdgeSort.index(keys[scanned]);
+      vert1 = sets.find(ends1[edge]);
+      vert2 = sets.find(ends2[edge]);
+      if(vert1 != vert2){
+        sets.union(vert1,vert2);
+        treeEdgeList.add(ends1[edge], ends2[edge],
+                         keyed ? order.weight(EdgeSort.weight(keys[scanned]))
+                               : edgeWeights[edge]);
+        treeEdges++;
+      }
     }
-    return sorted;
+    phase.finish(scanned);
+    if(instrumented){
+      instrumentation.edgesScanned(scanned, treeEdges);
+      instrumentation.unionFind(sets.findCalls(), sets.findSteps());
+      endPhase(instrumentation, MSTInstrumentation.SCAN, start);
+    }
+    sets.setCounting(false);
+    return treeEdgeList;
+  }
+
+  /**
+   * endPhase() reports the time elapsed since "start" as the duration of
+   * "phase", and returns the current time as the start of the next phase.
+   */
+  private static long endPhase(MSTInstrumentation instrumentation, int phase,
+                               long start){
+    long now = System.nanoTime();
+    instrumentation.phaseCompleted(phase, now - start);
+    return now;
+  }
+
+  /**
+   * minSpanForest() returns the edges of a minimum spanning forest of a graph
+   * whose edge list is too large to sort in memory.  The edges are sorted in
+   * external memory (see mst.ExternalKruskal) using about "memoryMB"
+   * megabytes of heap.
+   *
+   * @param edges the edges of the graph; vertices are 0...vertexCount-1.
+   * @param vertexCount the number of vertices.
+   * @param memoryMB the memory budget for sorting, in megabytes.
+   * @return the edges of a minimum spanning forest.
+   * @exception IOException if the edges or the spilled runs cannot be read.
+   */
+  public static EdgeList minSpanForest(EdgeStream edges, int vertexCount,
+                                       int memoryMB) throws IOException {
+    return new ExternalKruskal(memoryMB).minSpanForest(edges, vertexCount);
   }
 
   public static void main(String[] args) {
-    System.out.println("Testing Mergesort");
-    Object[][] test = {{1},{49},{84},{3},{70},{23},{0},{25},{93},{14},{62},{34},{100},{43},{79},{51},{12}};
+    System.out.println("Testing parallel mergesort");
+    int[] test = {1,49,84,3,70,23,0,25,93,14,62,34,100,43,79,51,12};
+    long[] keys = new long[test.length];
     System.out.print("[ ");
     for(int i = 0; i<test.length; i++){
-      System.out.print(test[i][0]+" ");
+      keys[i] = EdgeSort.pack(test[i], i);
+      System.out.print(test[i]+" ");
     }
     System.out.println("]");
-    Object[][] sorted = mergesort(test);
+    EdgeSort.parallelSort(keys, 0, keys.length, new long[keys.length]);
     System.out.print("[ ");
-    for(int i = 0; i<sorted.length; i++){
-      System.out.print(sorted[i][0]+" ");
+    for(int i = 0; i<keys.length; i++){
+      System.out.print(EdgeSort.weight(keys[i])+" ");
     }
     System.out.println("]");
+
+    System.out.println("Testing single linkage against brute force");
+    java.util.Random random = new java.util.Random(44);
+    int failures = 0;
+    for(int trial = 0; trial < 200; trial++){
+      int n = 1 + random.nextInt(12);
+      WUGraph<Integer> g = new WUGraph<Integer>();
+      for(int x = 0; x < n; x++){
+        g.addVertex(x);
+      }
+      // Distinct weights, so every cut into k clusters is unique.
+      int m = random.nextInt(2 * n);
+      int[] u = new int[m];
+      int[] v = new int[m];
+      int[] w = new int[m];
+      for(int e = 0; e < m; e++){
+        u[e] = random.nextInt(n);
+        v[e] = random.nextInt(n);
+        w[e] = random.nextInt(1000) * m + e;
+        g.addEdge(u[e], v[e], w[e]);
+      }
+      // Repeated pairs keep their last weight in g; drop the rest.
+      for(int e = 0; e < m; e++){
+        if(u[e] == v[e] || g.weight(u[e], v[e]) != w[e]){
+          w[e] = Integer.MAX_VALUE;
+        }
+      }
+      Dendrogram<Integer> dendrogram = dendrogram(g);
+      int[] heights = new int[n];
+      int merges = singleLinkage(n, u, v, w, 1, new int[n], heights);
+      if(merges != dendrogram.mergeCount()){
+        failures++;
+        continue;
+      }
+      for(int i = 0; i < merges; i++){
+        if(dendrogram.height(i) != heights[i]){
+          failures++;
+        }
+      }
+      for(int k = 1; k <= n; k++){
+        int[] expected = new int[n];
+        singleLinkage(n, u, v, w, k, expected, heights);
+        if(!java.util.Arrays.equals(cluster(g, k).componentIds(), expected) ||
+           !java.util.Arrays.equals(dendrogram.labels(k), expected)){
+          failures++;
+        }
+      }
+    }
+    System.out.println(failures + " mismatches in 200 random graphs");
+
+    System.out.println("Testing edge orders");
+    // Prefers lighter edges, then, among equal weights, higher vertex ids.
+    EdgeComparator highIdsFirst = new EdgeComparator(){
+      public int compare(int weight1, int source1, int target1,
+                         int weight2, int source2, int target2){
+        if(weight1 != weight2){
+          return Integer.compare(weight1, weight2);
+        }
+        if(target1 != target2){
+          return Integer.compare(target2, target1);
+        }
+        return Integer.compare(source2, source1);
+      }
+    };
+    EdgeComparator weightOnly = new EdgeComparator(){
+      public int compare(int weight1, int source1, int target1,
+                         int weight2, int source2, int target2){
+        return Integer.compare(weight1, weight2);
+      }
+    };
+    EdgeOrder reversed =
+      EdgeOrder.comparing(java.util.Collections.<Integer>reverseOrder());
+    failures = 0;
+    for(int trial = 0; trial < 100; trial++){
+      int n = 2 + random.nextInt(30);
+      WUGraph<Integer> g = new WUGraph<Integer>();
+      WUGraph<Integer> negated = new WUGraph<Integer>();
+      for(int x = 0; x < n; x++){
+        g.addVertex(x);
+        negated.addVertex(x);
+      }
+      for(int e = 0; e < 3 * n; e++){
+        int x = random.nextInt(n);
+        int y = random.nextInt(n);
+        int w = random.nextInt(21) - 10;
+        g.addEdge(x, y, w);
+        negated.addEdge(x, y, -w);
+      }
+      SpanningForest<Integer> min = minSpanForest(g);
+      SpanningForest<Integer> max = maxSpanForest(g);
+      if(max.totalWeight() != -minSpanForest(negated).totalWeight() ||
+         !sameEdges(max.edges(), minSpanForest(g, reversed, null).edges()) ||
+         !sameEdges(min.edges(), minSpanForest(g,
+           EdgeOrder.comparingEdges(weightOnly), null).edges()) ||
+         min.totalWeight() != minSpanForest(g,
+           EdgeOrder.comparingEdges(highIdsFirst), null).totalWeight()){
+        failures++;
+      }
+    }
+    // With every weight equal, the tie-break alone picks the tree:  the
+    // star around the highest id.
+    WUGraph<Integer> complete = new WUGraph<Integer>();
+    for(int x = 0; x < 6; x++){
+      complete.addVertex(x);
+      for(int y = 0; y < x; y++){
+        complete.addEdge(x, y, 7);
+      }
+    }
+    EdgeList star = minSpanForest(complete,
+      EdgeOrder.comparingEdges(highIdsFirst), null).edges();
+    if(star.size() != 5){
+      failures++;
+    }
+    for(int i = 0; i < star.size(); i++){
+      if(star.target(i) != complete.indexOf(5)){
+        failures++;
+      }
+    }
+    System.out.println(failures + " mismatches in 100 random graphs and " +
+                       "a tie-broken complete graph");
+  }
+
+  /**
+   * sameEdges() returns true if two edge lists hold the same edges in the
+   * same order.
+   */
+  private static boolean sameEdges(EdgeList a, EdgeList b){
+    if(a.size() != b.size()){
+      return false;
+    }
+    for(int i = 0; i < a.size(); i++){
+      if(a.source(i) != b.source(i) || a.target(i) != b.target(i) ||
+         a.weight(i) != b.weight(i)){
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * singleLinkage() clusters vertices 0...n-1 by brute force:  while there
+   * are more than k clusters, it merges the two joined by the lightest edge
+   * between different clusters (edges of weight Integer.MAX_VALUE are
+   * ignored), scanning every edge each time.  It leaves each vertex's
+   * cluster in "labels", numbered in order of smallest vertex, and each
+   * merge's weight in "heights", and returns the number of merges.
+   */
+  private static int singleLinkage(int n, int[] u, int[] v, int[] w, int k,
+                                   int[] labels, int[] heights){
+    int[] cluster = new int[n];
+    for(int x = 0; x < n; x++){
+      cluster[x] = x;
+    }
+    int merges = 0;
+    while(n - merges > k){
+      int best = -1;
+      for(int e = 0; e < u.length; e++){
+        if(w[e] != Integer.MAX_VALUE && cluster[u[e]] != cluster[v[e]] &&
+           (best < 0 || w[e] < w[best])){
+          best = e;
+        }
+      }
+      if(best < 0){
+        break;
+      }
+      int from = cluster[v[best]];
+      for(int x = 0; x < n; x++){
+        if(cluster[x] == from){
+          cluster[x] = cluster[u[best]];
+        }
+      }
+      heights[merges++] = w[best];
+    }
+    int[] number = new int[n];
+    java.util.Arrays.fill(number, -1);
+    int clusters = 0;
+    for(int x = 0; x < n; x++){
+      if(number[cluster[x]] < 0){
+        number[cluster[x]] = clusters++;
+      }
+      labels[x] = number[cluster[x]];
+    }
+    return merges;
   }
 
 }
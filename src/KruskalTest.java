@@ -15,7 +15,8 @@ public class KruskalTest {
   private static boolean tree = true;
   private static boolean minTree = true;
 
-  public static void addRandomEdges(WUGraph g, Object[] vertArray) {
+  public static void addRandomEdges(WUGraph<DFSVertex> g,
+                                    DFSVertex[] vertArray) {
     int i, j;
 
     System.out.println("Adding random edges to graph.");
@@ -32,8 +33,8 @@ public class KruskalTest {
     }
   }
 
-  public static void DFS(WUGraph t, DFSVertex current, DFSVertex prev,
-                         int[] maxOnPath, int maxEdge) {
+  public static void DFS(WUGraph<DFSVertex> t, DFSVertex current,
+                         DFSVertex prev, int[] maxOnPath, int maxEdge) {
     Neighbors neigh;
     int i;
 
@@ -60,7 +61,8 @@ public class KruskalTest {
     }
   }
 
-  public static void DFSTest(WUGraph g, WUGraph t, DFSVertex[] vertArray) {
+  public static void DFSTest(WUGraph<DFSVertex> g, WUGraph<DFSVertex> t,
+                             DFSVertex[] vertArray) {
     int[][] maxOnPath;
     Neighbors neigh;
     int i, j;
@@ -106,12 +108,12 @@ public class KruskalTest {
   public static void main(String[] args) {
     int i;
     int score;
-    WUGraph g, t;
+    WUGraph<DFSVertex> g, t;
     DFSVertex[] vertArray;
 
     System.out.println("Running minimum spanning tree test.");
     System.out.println("Creating empty graph.");
-    g = new WUGraph();
+    g = new WUGraph<DFSVertex>();
 
     System.out.println("Adding " + VERTICES + " vertices.");
     vertArray = new DFSVertex[VERTICES];
@@ -13,12 +13,12 @@ public class WUGTest {
     int countDeduction = 0;
     int getDeduction = 0;
     int isVDeduction = 0;
-    WUGraph g;
+    WUGraph<Object> g;
     Object[] wuVertArray;
 
     System.out.println("Running vertex test.");
     System.out.println("Creating empty graph.");
-    g = new WUGraph();
+    g = new WUGraph<Object>();
     result = g.vertexCount();
     if (result != 0) {
       System.out.println("vertexCount() on empty graph returns " + result +
@@ -224,12 +224,12 @@ public class WUGTest {
     int weightDeduction = 0;
     int remEDeduction = 0;
     int remVDeduction = 0;
-    WUGraph g;
+    WUGraph<Object> g;
     Neighbors neigh;
 
     System.out.println("Running edge test.");
     System.out.println("Creating empty graph.");
-    g = new WUGraph();
+    g = new WUGraph<Object>();
     System.out.println("Adding vertex 0.");
     g.addVertex(vertArray[0]);
     System.out.println("Adding vertex 1.");
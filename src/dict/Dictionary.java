@@ -3,12 +3,13 @@
 package dict;
 
 /**
- *  An interface for (unordered) dictionary ADTs.
+ *  An interface for (unordered) dictionary ADTs, mapping keys of type K to
+ *  values of type V.  As in java.util.Map, lookups accept any Object.
  *
  *  DO NOT CHANGE THIS FILE.
  **/
 
-public interface Dictionary {
+public interface Dictionary<K, V> {
 
   /** 
    *  Returns the number of entries stored in the dictionary.  Entries with
@@ -38,7 +39,7 @@ public interface Dictionary {
    *  @return an entry containing the key and value.
    **/
 
-  public Entry insert(Object key, Object value);
+  public Entry<K, V> insert(K key, V value);
 
   /** 
    *  Search for an entry with the specified key.  If such an entry is found,
@@ -50,7 +51,7 @@ public interface Dictionary {
    *          no entry contains the specified key.
    **/
 
-  public Entry find(Object key);
+  public Entry<K, V> find(Object key);
 
   /** 
    *  Remove an entry with the specified key.  If such an entry is found,
@@ -63,7 +64,7 @@ public interface Dictionary {
    *          no entry contains the specified key.
    */
 
-  public Entry remove(Object key);
+  public Entry<K, V> remove(Object key);
 
   /**
    *  Remove all entries from the dictionary.
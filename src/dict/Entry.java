@@ -3,22 +3,23 @@
 package dict;
 
 /**
- *  A class for dictionary entries.
+ *  A class for dictionary entries, mapping a key of type K to a value of
+ *  type V.
  *
  *  DO NOT CHANGE THIS FILE.  It is part of the interface of the
  *  Dictionary ADT.
  **/
 
-public class Entry {
+public class Entry<K, V> {
 
-  protected Object key;
-  protected Object value;
+  protected K key;
+  protected V value;
 
-  public Object key() {
+  public K key() {
     return key;
   }
 
-  public Object value() {
+  public V value() {
     return value;
   }
 
@@ -5,6 +5,9 @@ import list.*;
 
 /**
  *  HashTableChained implements a Dictionary as a hash table with chaining.
+ *  The chains hold Entry<K, V> objects; since Lists store Objects, the
+ *  methods that read chains cast their items back, which is safe because
+ *  only insert() adds to them.
  *  All objects used as keys must have a valid hashCode() method, which is
  *  used to determine which bucket of the hash table an entry is stored in.
  *  Each object's hashCode() is presumed to return an int between
@@ -15,13 +18,14 @@ import list.*;
  *  DO NOT CHANGE ANY PROTOTYPES IN THIS FILE.
  **/
 
-public class HashTableChained implements Dictionary {
+public class HashTableChained<K, V> implements Dictionary<K, V> {
 
   /**
    *  Place any data fields here.
    **/
   public static final double MAX_LOAD_FACTOR = 0.6;
   public static final int DEFAULTESTIMATE = 75;
+  public static final int CHAIN_BLOCK = 4;
   protected int numOfEntries;
   protected List table[];
   protected int numOfBuckets;
@@ -34,7 +38,7 @@ public class HashTableChained implements Dictionary {
 
   public HashTableChained(int sizeEstimate) {
     numOfBuckets = sizeEstimate * 2;
-    table = new DList[numOfBuckets];
+    table = new List[numOfBuckets];
   }
 
   /** 
@@ -92,18 +96,18 @@ public class HashTableChained implements Dictionary {
    *  @return an entry containing the key and value.
    **/
 
-  public Entry insert(Object key, Object value) {
+  public Entry<K, V> insert(K key, V value) {
     if((double)numOfEntries/numOfBuckets > MAX_LOAD_FACTOR){
       increaseTableSize();
     }
     int index = compFunction(key.hashCode());
     if (table[index]==null){
-      table[index] = new DList();
+      table[index] = newChain();
     }
-    Entry newEntry = new Entry();
+    Entry<K, V> newEntry = new Entry<K, V>();
     newEntry.key = key;
     newEntry.value = value;
-    table[index].insertFront(newEntry);
+    table[index].insertBack(newEntry);
     numOfEntries++;
     return newEntry;
   }
@@ -112,26 +116,37 @@ public class HashTableChained implements Dictionary {
    *  Double the table size and re-hash all existing entries.
    **/
 
+  @SuppressWarnings("unchecked")
   private void increaseTableSize(){
+    ResizeEvent event = new ResizeEvent();
+    event.begin();
+    event.oldBuckets = numOfBuckets;
+    event.entries = numOfEntries;
     numOfBuckets = numOfBuckets * 2;
     List oldTable[] = table;
     makeEmpty();
-    ListNode node;
-    Entry entry;
+    Entry<K, V> entry;
     for(int i = 0; i < oldTable.length; i++){
       if (oldTable[i]!=null){
-        node = oldTable[i].front();
-        try{
-          while(node.isValidNode()){
-            entry = (Entry)node.item();
-            insert(entry.key(),entry.value());
-            node = node.next();
-          }
-        } catch (InvalidNodeException e) {
-          System.err.println("Exception thrown in increaseTableSize()");
+        for(Object item : oldTable[i]){
+          entry = (Entry<K, V>)item;
+          insert(entry.key(),entry.value());
         }
       }
     }
+    event.newBuckets = numOfBuckets;
+    event.commit();
+  }
+
+  /**
+   *  newChain() returns an empty list to serve as one bucket's chain.  It
+   *  returns a UList whose blocks hold CHAIN_BLOCK entries, so find() scans
+   *  a typical chain in one array instead of following a node per entry,
+   *  while a long chain still grows a block at a time.
+   **/
+
+  protected List newChain() {
+    return new UList(CHAIN_BLOCK);
   }
 
   /** 
@@ -146,21 +161,15 @@ public class HashTableChained implements Dictionary {
    *          no entry contains the specified key.
    **/
 
-  public Entry find(Object key) {
+  @SuppressWarnings("unchecked")
+  public Entry<K, V> find(Object key) {
     int index = compFunction(key.hashCode());
     if (table[index]!=null){
-      List list = table[index];
-      ListNode node = list.front();
-      try{
-        while(node.isValidNode()){
-          Entry entry = (Entry)node.item();
-          if(entry.key().equals(key)){
-            return entry;
-          }
-          node = node.next();
+      for(Object item : table[index]){
+        Entry<K, V> entry = (Entry<K, V>)item;
+        if(entry.key().equals(key)){
+          return entry;
         }
-      } catch (InvalidNodeException e) {
-        System.err.println("Exception thrown in find()");
       }
     }
     return null;
@@ -179,23 +188,18 @@ public class HashTableChained implements Dictionary {
    *          no entry contains the specified key.
    */
 
-  public Entry remove(Object key) {
+  @SuppressWarnings("unchecked")
+  public Entry<K, V> remove(Object key) {
     int index = compFunction(key.hashCode());
     if (table[index]!=null){
-      List list = table[index];
-      ListNode node = list.front();
-      try{
-        while(node.isValidNode()){
-          Entry entry = (Entry)node.item();
-          if(entry.key().equals(key)){
-            node.remove();
-            numOfEntries--;
-            return entry;
-          }
-          node = node.next();
+      java.util.Iterator<Object> chain = table[index].iterator();
+      while(chain.hasNext()){
+        Entry<K, V> entry = (Entry<K, V>)chain.next();
+        if(entry.key().equals(key)){
+          chain.remove();
+          numOfEntries--;
+          return entry;
         }
-      } catch (InvalidNodeException e) {
-        System.err.println("Exception thrown in remove()");
       }
     }
     return null;
@@ -206,10 +210,52 @@ public class HashTableChained implements Dictionary {
    */
 
   public void makeEmpty() {
-    table = new DList[numOfBuckets];
+    table = new List[numOfBuckets];
     numOfEntries = 0;
   }
 
+  /**
+   *  Returns the number of buckets in the table.
+   **/
+
+  public int bucketCount() {
+    return numOfBuckets;
+  }
+
+  /**
+   *  Returns the number of buckets that have a chain allocated.  (A chain
+   *  stays allocated, possibly empty, after its entries are removed.)
+   *
+   *  This method runs in O(number of buckets) time.
+   **/
+
+  public int allocatedChainCount() {
+    int count = 0;
+    for(int i = 0; i < numOfBuckets; i++){
+      if(table[i] != null){
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   *  Returns the number of blocks in use across all the allocated chains.
+   *  Each block holds up to CHAIN_BLOCK entries.
+   *
+   *  This method runs in O(number of buckets + number of blocks) time.
+   **/
+
+  public int allocatedBlockCount() {
+    int count = 0;
+    for(int i = 0; i < numOfBuckets; i++){
+      if(table[i] instanceof UList){
+        count += ((UList)table[i]).blockCount();
+      }
+    }
+    return count;
+  }
+
   /**
   *   FOR TESTING ONLY: Print a histogram of this hashtable
   *   @param printDebug the boolean indicating whether to print debug data
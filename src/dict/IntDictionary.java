@@ -0,0 +1,76 @@
+/* IntDictionary.java */
+
+package dict;
+
+/**
+ *  An interface for (unordered) dictionary ADTs that map primitive int keys
+ *  to values of type V, so that no key is boxed.  Lookups return null when
+ *  the key is absent, so values should not be null.
+ **/
+
+public interface IntDictionary<V> {
+
+  /**
+   *  Returns the number of entries stored in the dictionary.  Entries with
+   *  the same key each still count as a separate entry.
+   *  @return number of entries in the dictionary.
+   **/
+
+  public int size();
+
+  /**
+   *  Tests if the dictionary is empty.
+   *
+   *  @return true if the dictionary has no entries; false otherwise.
+   **/
+
+  public boolean isEmpty();
+
+  /**
+   *  Insert an entry mapping "key" to "value".  Multiple entries with the
+   *  same key can coexist in the dictionary.
+   *
+   *  @param key the key by which the value can be retrieved.
+   *  @param value the value.
+   **/
+
+  public void insert(int key, V value);
+
+  /**
+   *  Tests if some entry has the specified key.
+   *
+   *  @param key the search key.
+   *  @return true if an entry contains the key; false otherwise.
+   **/
+
+  public boolean contains(int key);
+
+  /**
+   *  Search for an entry with the specified key.  If such an entry is found,
+   *  return its value; otherwise return null.  If several entries have the
+   *  specified key, choose one arbitrarily.
+   *
+   *  @param key the search key.
+   *  @return the value associated with the key, or null.
+   **/
+
+  public V find(int key);
+
+  /**
+   *  Remove an entry with the specified key.  If such an entry is found,
+   *  remove it and return its value; otherwise return null.  If several
+   *  entries have the specified key, choose one arbitrarily.
+   *
+   *  @param key the search key.
+   *  @return the value associated with the key, or null.
+   **/
+
+  public V remove(int key);
+
+  /**
+   *  Remove all entries from the dictionary.
+   */
+
+  public void makeEmpty();
+
+}
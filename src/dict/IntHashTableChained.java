@@ -0,0 +1,248 @@
+/* IntHashTableChained.java */
+
+package dict;
+
+/**
+ *  IntHashTableChained implements an IntDictionary as a hash table with
+ *  chaining, laid out like ObjIntHashTableChained:  every entry occupies a
+ *  slot of three parallel arrays (int keys, values, and the slot of the
+ *  next entry in the same chain), so no key is boxed.  Slots freed by
+ *  remove() are reused.
+ **/
+
+public class IntHashTableChained<V> implements IntDictionary<V> {
+
+  public static final double MAX_LOAD_FACTOR = 0.6;
+  public static final int DEFAULTESTIMATE = 75;
+
+  /* NONE ends a chain or the free list.  heads[b] is the first slot of
+   * bucket b's chain; next[s] is the slot after s in its chain, or in the
+   * free list if s is free.  Slots at or beyond slotBound were never used.
+   */
+  private static final int NONE = -1;
+
+  protected int numOfEntries;
+  protected int numOfBuckets;
+  protected int[] heads;
+  protected int[] next;
+  protected int[] keys;
+  protected Object[] values;
+  protected int slotBound;
+  protected int freeSlot;
+
+  /**
+   *  Construct a new empty hash table intended to hold roughly sizeEstimate
+   *  entries.
+   **/
+
+  public IntHashTableChained(int sizeEstimate) {
+    sizeEstimate = Math.max(sizeEstimate, 1);
+    numOfBuckets = sizeEstimate * 2;
+    keys = new int[sizeEstimate];
+    values = new Object[sizeEstimate];
+    next = new int[sizeEstimate];
+    makeEmpty();
+  }
+
+  /**
+   *  Construct a new empty hash table with a default size.
+   **/
+
+  public IntHashTableChained() {
+    this(DEFAULTESTIMATE);
+  }
+
+  /**
+   *  Converts a key to a bucket in the range 0...numOfBuckets - 1.
+   **/
+
+  int compFunction(int key) {
+    return (key & Integer.MAX_VALUE) % numOfBuckets;
+  }
+
+  /**
+   *  Returns the number of entries stored in the dictionary.
+   **/
+
+  public int size() {
+    return numOfEntries;
+  }
+
+  /**
+   *  Tests if the dictionary is empty.
+   **/
+
+  public boolean isEmpty() {
+    return numOfEntries == 0;
+  }
+
+  /**
+   *  Insert an entry mapping "key" to "value".
+   *
+   *  This method runs in O(1) amortized time.
+   **/
+
+  public void insert(int key, V value) {
+    if ((double) numOfEntries / numOfBuckets > MAX_LOAD_FACTOR) {
+      increaseTableSize();
+    }
+    int slot = freeSlot;
+    if (slot != NONE) {
+      freeSlot = next[slot];
+    } else {
+      if (slotBound == keys.length) {
+        int capacity = 2 * keys.length;
+        keys = java.util.Arrays.copyOf(keys, capacity);
+        values = java.util.Arrays.copyOf(values, capacity);
+        next = java.util.Arrays.copyOf(next, capacity);
+      }
+      slot = slotBound++;
+    }
+    int bucket = compFunction(key);
+    keys[slot] = key;
+    values[slot] = value;
+    next[slot] = heads[bucket];
+    heads[bucket] = slot;
+    numOfEntries++;
+  }
+
+  /**
+   *  Double the number of buckets and relink every entry.  The slots do not
+   *  move.
+   **/
+
+  private void increaseTableSize() {
+    int[] oldHeads = heads;
+    numOfBuckets = numOfBuckets * 2;
+    heads = new int[numOfBuckets];
+    java.util.Arrays.fill(heads, NONE);
+    for (int b = 0; b < oldHeads.length; b++) {
+      int slot = oldHeads[b];
+      while (slot != NONE) {
+        int following = next[slot];
+        int bucket = compFunction(keys[slot]);
+        next[slot] = heads[bucket];
+        heads[bucket] = slot;
+        slot = following;
+      }
+    }
+  }
+
+  /**
+   *  Returns the slot of an entry with the specified key, or NONE.
+   **/
+
+  private int slotOf(int key) {
+    int slot = heads[compFunction(key)];
+    while (slot != NONE && keys[slot] != key) {
+      slot = next[slot];
+    }
+    return slot;
+  }
+
+  /**
+   *  Tests if some entry has the specified key.
+   *
+   *  This method runs in O(1) time if the number of collisions is small.
+   **/
+
+  public boolean contains(int key) {
+    return slotOf(key) != NONE;
+  }
+
+  /**
+   *  Search for an entry with the specified key, and return its value, or
+   *  null if there is none.
+   *
+   *  This method runs in O(1) time if the number of collisions is small.
+   **/
+
+  @SuppressWarnings("unchecked")
+  public V find(int key) {
+    int slot = slotOf(key);
+    return slot == NONE ? null : (V) values[slot];
+  }
+
+  /**
+   *  Remove an entry with the specified key, and return its value, or null
+   *  if there is none.
+   *
+   *  This method runs in O(1) time if the number of collisions is small.
+   **/
+
+  @SuppressWarnings("unchecked")
+  public V remove(int key) {
+    int bucket = compFunction(key);
+    int previous = NONE;
+    int slot = heads[bucket];
+    while (slot != NONE && keys[slot] != key) {
+      previous = slot;
+      slot = next[slot];
+    }
+    if (slot == NONE) {
+      return null;
+    }
+    if (previous == NONE) {
+      heads[bucket] = next[slot];
+    } else {
+      next[previous] = next[slot];
+    }
+    V value = (V) values[slot];
+    values[slot] = null;
+    next[slot] = freeSlot;
+    freeSlot = slot;
+    numOfEntries--;
+    return value;
+  }
+
+  /**
+   *  Remove all entries from the dictionary.
+   */
+
+  public void makeEmpty() {
+    heads = new int[numOfBuckets];
+    java.util.Arrays.fill(heads, NONE);
+    java.util.Arrays.fill(values, 0, slotBound, null);
+    slotBound = 0;
+    freeSlot = NONE;
+    numOfEntries = 0;
+  }
+
+  /**
+   *  main() checks the table against java.util.HashMap under random
+   *  insertions and removals, emptying both halfway through.
+   */
+  public static void main(String[] args) {
+    java.util.Random random = new java.util.Random(39);
+    IntHashTableChained<Integer> table = new IntHashTableChained<Integer>(4);
+    java.util.HashMap<Integer, Integer> reference =
+      new java.util.HashMap<Integer, Integer>();
+    int failures = 0;
+    for (int step = 0; step < 100000; step++) {
+      if (step == 50000) {
+        table.makeEmpty();
+        reference.clear();
+      }
+      // Keys of both signs, some far apart, so negative keys hash properly.
+      int key = (random.nextInt(2000) - 1000) *
+                (1 + random.nextInt(3) * 65537);
+      if (random.nextInt(3) == 0) {
+        if (!java.util.Objects.equals(table.remove(key),
+                                      reference.remove(key))) {
+          failures++;
+        }
+      } else if (!reference.containsKey(key)) {
+        reference.put(key, step);
+        table.insert(key, step);
+      }
+      if (!java.util.Objects.equals(table.find(key), reference.get(key)) ||
+          table.contains(key) != reference.containsKey(key) ||
+          table.size() != reference.size()) {
+        failures++;
+      }
+    }
+    System.out.println(table.size() + " entries; " + failures +
+                       " mismatches with HashMap.");
+  }
+
+}
@@ -0,0 +1,78 @@
+/* ObjIntDictionary.java */
+
+package dict;
+
+/**
+ *  An interface for (unordered) dictionary ADTs that map keys of type K to
+ *  primitive int values, so that no value is boxed.  Since an int cannot be
+ *  null, lookups take the value to return when the key is absent.
+ **/
+
+public interface ObjIntDictionary<K> {
+
+  /**
+   *  Returns the number of entries stored in the dictionary.  Entries with
+   *  the same key each still count as a separate entry.
+   *  @return number of entries in the dictionary.
+   **/
+
+  public int size();
+
+  /**
+   *  Tests if the dictionary is empty.
+   *
+   *  @return true if the dictionary has no entries; false otherwise.
+   **/
+
+  public boolean isEmpty();
+
+  /**
+   *  Insert an entry mapping "key" to "value".  Multiple entries with the
+   *  same key can coexist in the dictionary.
+   *
+   *  @param key the key by which the value can be retrieved.
+   *  @param value the value.
+   **/
+
+  public void insert(K key, int value);
+
+  /**
+   *  Tests if some entry has the specified key.
+   *
+   *  @param key the search key.
+   *  @return true if an entry contains the key; false otherwise.
+   **/
+
+  public boolean contains(Object key);
+
+  /**
+   *  Search for an entry with the specified key.  If such an entry is found,
+   *  return its value; otherwise return "absent".  If several entries have
+   *  the specified key, choose one arbitrarily.
+   *
+   *  @param key the search key.
+   *  @param absent the value to return if no entry contains the key.
+   *  @return the value associated with the key, or "absent".
+   **/
+
+  public int find(Object key, int absent);
+
+  /**
+   *  Remove an entry with the specified key.  If such an entry is found,
+   *  remove it and return its value; otherwise return "absent".  If several
+   *  entries have the specified key, choose one arbitrarily.
+   *
+   *  @param key the search key.
+   *  @param absent the value to return if no entry contains the key.
+   *  @return the value associated with the key, or "absent".
+   **/
+
+  public int remove(Object key, int absent);
+
+  /**
+   *  Remove all entries from the dictionary.
+   */
+
+  public void makeEmpty();
+
+}
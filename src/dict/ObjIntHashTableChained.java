@@ -0,0 +1,265 @@
+/* ObjIntHashTableChained.java */
+
+package dict;
+
+/**
+ *  ObjIntHashTableChained implements an ObjIntDictionary as a hash table
+ *  with chaining.  Instead of a list of Entry objects per bucket, every
+ *  entry occupies a slot of three parallel arrays (keys, int values, and
+ *  the slot of the next entry in the same chain), so an insertion allocates
+ *  nothing and a value is never boxed.  Slots freed by remove() are reused.
+ *
+ *  All keys must have a valid hashCode() method, and must not be null.
+ **/
+
+public class ObjIntHashTableChained<K> implements ObjIntDictionary<K> {
+
+  public static final double MAX_LOAD_FACTOR = 0.6;
+  public static final int DEFAULTESTIMATE = 75;
+
+  /* NONE ends a chain or the free list.  heads[b] is the first slot of
+   * bucket b's chain; next[s] is the slot after s in its chain, or in the
+   * free list if s is free.  Slots at or beyond slotBound were never used.
+   */
+  private static final int NONE = -1;
+
+  protected int numOfEntries;
+  protected int numOfBuckets;
+  protected int[] heads;
+  protected int[] next;
+  protected Object[] keys;
+  protected int[] values;
+  protected int slotBound;
+  protected int freeSlot;
+
+  /**
+   *  Construct a new empty hash table intended to hold roughly sizeEstimate
+   *  entries.
+   **/
+
+  public ObjIntHashTableChained(int sizeEstimate) {
+    sizeEstimate = Math.max(sizeEstimate, 1);
+    numOfBuckets = sizeEstimate * 2;
+    keys = new Object[sizeEstimate];
+    values = new int[sizeEstimate];
+    next = new int[sizeEstimate];
+    makeEmpty();
+  }
+
+  /**
+   *  Construct a new empty hash table with a default size.
+   **/
+
+  public ObjIntHashTableChained() {
+    this(DEFAULTESTIMATE);
+  }
+
+  /**
+   *  Converts a hash code to a bucket in the range 0...numOfBuckets - 1.
+   **/
+
+  int compFunction(int code) {
+    return (code & Integer.MAX_VALUE) % numOfBuckets;
+  }
+
+  /**
+   *  Returns the number of entries stored in the dictionary.
+   **/
+
+  public int size() {
+    return numOfEntries;
+  }
+
+  /**
+   *  Tests if the dictionary is empty.
+   **/
+
+  public boolean isEmpty() {
+    return numOfEntries == 0;
+  }
+
+  /**
+   *  Insert an entry mapping "key" to "value".
+   *
+   *  This method runs in O(1) amortized time.
+   **/
+
+  public void insert(K key, int value) {
+    if ((double) numOfEntries / numOfBuckets > MAX_LOAD_FACTOR) {
+      increaseTableSize();
+    }
+    int slot = freeSlot;
+    if (slot != NONE) {
+      freeSlot = next[slot];
+    } else {
+      if (slotBound == keys.length) {
+        int capacity = 2 * keys.length;
+        keys = java.util.Arrays.copyOf(keys, capacity);
+        values = java.util.Arrays.copyOf(values, capacity);
+        next = java.util.Arrays.copyOf(next, capacity);
+      }
+      slot = slotBound++;
+    }
+    int bucket = compFunction(key.hashCode());
+    keys[slot] = key;
+    values[slot] = value;
+    next[slot] = heads[bucket];
+    heads[bucket] = slot;
+    numOfEntries++;
+  }
+
+  /**
+   *  Double the number of buckets and relink every entry.  The slots do not
+   *  move.
+   **/
+
+  private void increaseTableSize() {
+    int[] oldHeads = heads;
+    numOfBuckets = numOfBuckets * 2;
+    heads = new int[numOfBuckets];
+    java.util.Arrays.fill(heads, NONE);
+    for (int b = 0; b < oldHeads.length; b++) {
+      int slot = oldHeads[b];
+      while (slot != NONE) {
+        int following = next[slot];
+        int bucket = compFunction(keys[slot].hashCode());
+        next[slot] = heads[bucket];
+        heads[bucket] = slot;
+        slot = following;
+      }
+    }
+  }
+
+  /**
+   *  Returns the slot of an entry with the specified key, or NONE.
+   **/
+
+  private int slotOf(Object key) {
+    int slot = heads[compFunction(key.hashCode())];
+    while (slot != NONE) {
+      if (keys[slot].equals(key)) {
+        return slot;
+      }
+      slot = next[slot];
+    }
+    return NONE;
+  }
+
+  /**
+   *  Tests if some entry has the specified key.
+   *
+   *  This method runs in O(1) time if the number of collisions is small.
+   **/
+
+  public boolean contains(Object key) {
+    return slotOf(key) != NONE;
+  }
+
+  /**
+   *  Search for an entry with the specified key, and return its value, or
+   *  "absent" if there is none.
+   *
+   *  This method runs in O(1) time if the number of collisions is small.
+   **/
+
+  public int find(Object key, int absent) {
+    int slot = slotOf(key);
+    return slot == NONE ? absent : values[slot];
+  }
+
+  /**
+   *  Remove an entry with the specified key, and return its value, or
+   *  "absent" if there is none.
+   *
+   *  This method runs in O(1) time if the number of collisions is small.
+   **/
+
+  public int remove(Object key, int absent) {
+    int bucket = compFunction(key.hashCode());
+    int previous = NONE;
+    int slot = heads[bucket];
+    while (slot != NONE && !keys[slot].equals(key)) {
+      previous = slot;
+      slot = next[slot];
+    }
+    if (slot == NONE) {
+      return absent;
+    }
+    if (previous == NONE) {
+      heads[bucket] = next[slot];
+    } else {
+      next[previous] = next[slot];
+    }
+    keys[slot] = null;
+    next[slot] = freeSlot;
+    freeSlot = slot;
+    numOfEntries--;
+    return values[slot];
+  }
+
+  /**
+   *  Remove all entries from the dictionary.
+   */
+
+  public void makeEmpty() {
+    heads = new int[numOfBuckets];
+    java.util.Arrays.fill(heads, NONE);
+    java.util.Arrays.fill(keys, 0, slotBound, null);
+    slotBound = 0;
+    freeSlot = NONE;
+    numOfEntries = 0;
+  }
+
+  /**
+   *  Returns the length of the longest chain in the table.
+   *
+   *  This method runs in O(number of buckets + number of entries) time.
+   **/
+
+  public int maxChainLength() {
+    int max = 0;
+    for (int b = 0; b < numOfBuckets; b++) {
+      int length = 0;
+      for (int slot = heads[b]; slot != NONE; slot = next[slot]) {
+        length++;
+      }
+      max = Math.max(max, length);
+    }
+    return max;
+  }
+
+  /**
+   *  main() checks the table against java.util.HashMap under random
+   *  insertions and removals.
+   */
+  public static void main(String[] args) {
+    java.util.Random random = new java.util.Random(39);
+    ObjIntHashTableChained<Integer> table =
+      new ObjIntHashTableChained<Integer>(4);
+    java.util.HashMap<Integer, Integer> reference =
+      new java.util.HashMap<Integer, Integer>();
+    int failures = 0;
+    for (int step = 0; step < 100000; step++) {
+      Integer key = Integer.valueOf(random.nextInt(2000) - 1000);
+      if (random.nextInt(3) == 0) {
+        Integer expected = reference.remove(key);
+        int removed = table.remove(key, Integer.MIN_VALUE);
+        if (removed != (expected == null ? Integer.MIN_VALUE : expected)) {
+          failures++;
+        }
+      } else if (!reference.containsKey(key)) {
+        reference.put(key, step);
+        table.insert(key, step);
+      }
+      if (table.find(key, Integer.MIN_VALUE) !=
+          reference.getOrDefault(key, Integer.MIN_VALUE) ||
+          table.size() != reference.size()) {
+        failures++;
+      }
+    }
+    System.out.println(table.size() + " entries, longest chain " +
+                       table.maxChainLength() + "; " + failures +
+                       " mismatches with HashMap.");
+  }
+
+}
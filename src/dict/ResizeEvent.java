@@ -0,0 +1,28 @@
+/* ResizeEvent.java */
+
+package dict;
+
+import jdk.jfr.*;
+
+/**
+ *  A ResizeEvent is a Java Flight Recorder event covering one run of
+ *  HashTableChained.increaseTableSize(), so resize pauses show up in JFR
+ *  recordings with their duration and the table sizes involved.
+ **/
+
+@Name("minspan.HashTableResize")
+@Label("Hash Table Resize")
+@Category({"MinSpan", "Dictionary"})
+@Description("A HashTableChained doubled its bucket array and rehashed")
+class ResizeEvent extends Event {
+
+  @Label("Old Buckets")
+  int oldBuckets;
+
+  @Label("New Buckets")
+  int newBuckets;
+
+  @Label("Entries")
+  int entries;
+
+}
@@ -0,0 +1,38 @@
+/* EdgeSink.java */
+
+package gen;
+
+import java.io.IOException;
+
+/**
+ * An EdgeSink receives the graph produced by a GraphGenerator as it is
+ * generated, so that no generator ever holds the edge list in memory.
+ * begin() is called once, then edge() once per edge, then end() once.
+ * end() is called even if a generator stops early with an exception, so
+ * a sink that holds a file can close it there.
+ */
+
+public interface EdgeSink {
+
+  /**
+   * begin() announces the number of vertices, named 0...vertexCount-1.
+   *
+   * @param vertexCount the number of vertices of the generated graph.
+   */
+  public void begin(int vertexCount) throws IOException;
+
+  /**
+   * edge() receives one generated edge.
+   *
+   * @param u one endpoint.
+   * @param v the other endpoint.
+   * @param weight the edge's weight.
+   */
+  public void edge(int u, int v, int weight) throws IOException;
+
+  /**
+   * end() is called after the last edge.
+   */
+  public void end() throws IOException;
+
+}
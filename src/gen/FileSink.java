@@ -0,0 +1,45 @@
+/* FileSink.java */
+
+package gen;
+
+import mst.*;
+import java.io.*;
+
+/**
+ * A FileSink writes generated edges to an edge file that can be read back
+ * with mst.EdgeFileStream.  The file is written sequentially through a
+ * buffer, so graphs far larger than memory can be generated.
+ */
+
+public class FileSink implements EdgeSink {
+
+  private File file;
+  private EdgeFileWriter writer;
+
+  /**
+   * FileSink() constructs a sink that will (over)write "file".
+   */
+  public FileSink(File file) {
+    this.file = file;
+  }
+
+  public void begin(int vertexCount) throws IOException {
+    writer = new EdgeFileWriter(file, vertexCount);
+  }
+
+  public void edge(int u, int v, int weight) throws IOException {
+    writer.write(u, v, weight);
+  }
+
+  public void end() throws IOException {
+    writer.close();
+  }
+
+  /**
+   * edgeCount() returns the number of edges written so far.
+   */
+  public long edgeCount() {
+    return writer == null ? 0 : writer.edgeCount();
+  }
+
+}
@@ -0,0 +1,559 @@
+/* GraphGenerator.java */
+
+package gen;
+
+import java.io.*;
+import java.util.Random;
+
+/**
+ * GraphGenerator produces reproducible synthetic graphs for load testing.
+ * Every generator takes a seed, and the same seed always produces the same
+ * edges in the same order.  Edges are pushed into an EdgeSink as they are
+ * generated (into a WUGraph with GraphSink, or an edge file with FileSink),
+ * so generating 10^8 edges to a file takes memory proportional only to the
+ * number of vertices (or nothing at all, for most generators).
+ *
+ * Unless stated otherwise, weights are uniform in 0...maxWeight-1.
+ *
+ * main() is a command-line front end that writes an edge file, or checks
+ * every generator; run it with no arguments for usage.
+ */
+
+public class GraphGenerator {
+
+  /** R-MAT quadrant probabilities commonly used for power-law graphs. */
+  public static final double RMAT_A = 0.57;
+  public static final double RMAT_B = 0.19;
+  public static final double RMAT_C = 0.19;
+
+  private static final int DEFAULT_MAX_WEIGHT = 1000;
+
+  /**
+   * erdosRenyi() generates G(n, m):  m edges whose endpoints are chosen
+   * uniformly at random.  Self-edges are never generated.  Edges are drawn
+   * with replacement, so the same pair may appear more than once (rarely,
+   * when m is much smaller than n^2); a GraphSink keeps the last weight.
+   *
+   * @param n the number of vertices; at least 2.
+   * @param m the number of edges.
+   * @param maxWeight the exclusive upper bound on weights.
+   * @param seed the random seed.
+   * @param sink where the graph goes.
+   */
+  public static void erdosRenyi(int n, long m, int maxWeight, long seed,
+                                EdgeSink sink) throws IOException {
+    Random random = new Random(seed);
+    sink.begin(n);
+    try {
+      for (long k = 0; k < m; k++) {
+        int u = random.nextInt(n);
+        int v = random.nextInt(n - 1);
+        if (v >= u) {
+          v++;
+        }
+        sink.edge(u, v, random.nextInt(maxWeight));
+      }
+    } finally {
+      sink.end();
+    }
+  }
+
+  /**
+   * grid() generates a rows-by-cols 2D grid:  vertex r * cols + c is joined
+   * to its right and lower neighbors.
+   *
+   * @param rows the number of rows.
+   * @param cols the number of columns.
+   * @param maxWeight the exclusive upper bound on weights.
+   * @param seed the random seed.
+   * @param sink where the graph goes.
+   */
+  public static void grid(int rows, int cols, int maxWeight, long seed,
+                          EdgeSink sink) throws IOException {
+    Random random = new Random(seed);
+    sink.begin(rows * cols);
+    try {
+      for (int r = 0; r < rows; r++) {
+        for (int c = 0; c < cols; c++) {
+          int v = r * cols + c;
+          if (c + 1 < cols) {
+            sink.edge(v, v + 1, random.nextInt(maxWeight));
+          }
+          if (r + 1 < rows) {
+            sink.edge(v, v + cols, random.nextInt(maxWeight));
+          }
+        }
+      }
+    } finally {
+      sink.end();
+    }
+  }
+
+  /**
+   * randomGeometric() places n points uniformly in the unit square and
+   * joins every pair at distance at most "radius".  An edge's weight is
+   * its length scaled to 0...maxWeight-1.  Points are bucketed into a grid
+   * of cells at least "radius" wide, so only neighboring cells are
+   * compared.  The expected number of edges is about n^2 * pi * radius^2 / 2.
+   *
+   * @param n the number of vertices.
+   * @param radius the connection radius, between 0 and 1.
+   * @param maxWeight the exclusive upper bound on weights.
+   * @param seed the random seed.
+   * @param sink where the graph goes.
+   */
+  public static void randomGeometric(int n, double radius, int maxWeight,
+                                     long seed, EdgeSink sink)
+    throws IOException {
+    Random random = new Random(seed);
+    double[] x = new double[n];
+    double[] y = new double[n];
+    for (int i = 0; i < n; i++) {
+      x[i] = random.nextDouble();
+      y[i] = random.nextDouble();
+    }
+    int side = (int) Math.min(Math.floor(1 / radius),
+                              Math.ceil(Math.sqrt(n)));
+    side = Math.max(side, 1);
+
+    // Counting sort the points by cell.
+    int[] cell = new int[n];
+    int[] cellStart = new int[side * side + 1];
+    for (int i = 0; i < n; i++) {
+      cell[i] = cellOf(x[i], side) * side + cellOf(y[i], side);
+      cellStart[cell[i] + 1]++;
+    }
+    for (int c = 0; c < side * side; c++) {
+      cellStart[c + 1] += cellStart[c];
+    }
+    int[] next = new int[side * side];
+    System.arraycopy(cellStart, 0, next, 0, next.length);
+    int[] byCell = new int[n];
+    for (int i = 0; i < n; i++) {
+      byCell[next[cell[i]]++] = i;
+    }
+
+    sink.begin(n);
+    try {
+      for (int i = 0; i < n; i++) {
+        int cx = cell[i] / side;
+        int cy = cell[i] % side;
+        for (int nx = Math.max(cx - 1, 0); nx <= Math.min(cx + 1, side - 1);
+             nx++) {
+          for (int ny = Math.max(cy - 1, 0); ny <= Math.min(cy + 1, side - 1);
+               ny++) {
+            int c = nx * side + ny;
+            for (int k = cellStart[c]; k < cellStart[c + 1]; k++) {
+              int j = byCell[k];
+              if (j > i) {
+                double dx = x[i] - x[j];
+                double dy = y[i] - y[j];
+                double distance = Math.sqrt(dx * dx + dy * dy);
+                if (distance <= radius) {
+                  sink.edge(i, j, (int) (distance / radius * (maxWeight - 1)));
+                }
+              }
+            }
+          }
+        }
+      }
+    } finally {
+      sink.end();
+    }
+  }
+
+  private static int cellOf(double coordinate, int side) {
+    return Math.min((int) (coordinate * side), side - 1);
+  }
+
+  /**
+   * rmat() generates an R-MAT graph on 2^scale vertices, whose degree
+   * distribution follows a power law.  Each edge picks a quadrant of the
+   * adjacency matrix with probabilities a, b, c and 1 - a - b - c, once
+   * per bit of the vertex numbers.  Self-edges are redrawn; repeated pairs
+   * are possible, as in erdosRenyi().
+   *
+   * @param scale the base-2 logarithm of the number of vertices (<= 30).
+   * @param m the number of edges.
+   * @param a the probability of the top-left quadrant.
+   * @param b the probability of the top-right quadrant.
+   * @param c the probability of the bottom-left quadrant.
+   * @param maxWeight the exclusive upper bound on weights.
+   * @param seed the random seed.
+   * @param sink where the graph goes.
+   */
+  public static void rmat(int scale, long m, double a, double b, double c,
+                          int maxWeight, long seed, EdgeSink sink)
+    throws IOException {
+    Random random = new Random(seed);
+    sink.begin(1 << scale);
+    try {
+      for (long k = 0; k < m; k++) {
+        int u;
+        int v;
+        do {
+          u = 0;
+          v = 0;
+          for (int bit = 1 << (scale - 1); bit > 0; bit >>= 1) {
+            double p = random.nextDouble();
+            if (p >= a + b + c) {
+              u |= bit;
+              v |= bit;
+            } else if (p >= a + b) {
+              u |= bit;
+            } else if (p >= a) {
+              v |= bit;
+            }
+          }
+        } while (u == v);
+        sink.edge(u, v, random.nextInt(maxWeight));
+      }
+    } finally {
+      sink.end();
+    }
+  }
+
+  /**
+   * equalWeights() generates G(n, m) as erdosRenyi() does, but with every
+   * edge of the same weight, the worst case for tie-breaking and the best
+   * case for counting sorts.
+   *
+   * @param n the number of vertices; at least 2.
+   * @param m the number of edges.
+   * @param weight the weight of every edge.
+   * @param seed the random seed.
+   * @param sink where the graph goes.
+   */
+  public static void equalWeights(int n, long m, int weight, long seed,
+                                  EdgeSink sink) throws IOException {
+    Random random = new Random(seed);
+    sink.begin(n);
+    try {
+      for (long k = 0; k < m; k++) {
+        int u = random.nextInt(n);
+        int v = random.nextInt(n - 1);
+        if (v >= u) {
+          v++;
+        }
+        sink.edge(u, v, weight);
+      }
+    } finally {
+      sink.end();
+    }
+  }
+
+  /**
+   * chain() generates the path 0 - 1 - ... - (n-1), the adversarial case
+   * for union-find.  The edge (i, i+1) has weight equal to the number of
+   * trailing zero bits of i+1, so Kruskal's algorithm first joins pairs,
+   * then pairs of pairs, and so on:  every union merges two sets of equal
+   * size, which builds union-by-size trees of the maximum depth, log2 n,
+   * and makes each uncompressed DisjointSets.find() recurse that deep.
+   * The graph is the same for every seed.
+   *
+   * @param n the number of vertices.
+   * @param sink where the graph goes.
+   */
+  public static void chain(int n, EdgeSink sink) throws IOException {
+    sink.begin(n);
+    try {
+      for (int i = 0; i + 1 < n; i++) {
+        sink.edge(i, i + 1, Integer.numberOfTrailingZeros(i + 1));
+      }
+    } finally {
+      sink.end();
+    }
+  }
+
+  private static void usage() {
+    System.err.println("usage: java gen.GraphGenerator <kind> <args> <seed>" +
+                       " <file>");
+    System.err.println("  er <n> <m>            Erdos-Renyi G(n, m)");
+    System.err.println("  grid <rows> <cols>    2D grid");
+    System.err.println("  geometric <n> <r>     random geometric graph");
+    System.err.println("  rmat <scale> <m>      R-MAT power-law graph");
+    System.err.println("  equal <n> <m>         G(n, m), all weights 1");
+    System.err.println("  chain <n>             union-find stress chain");
+    System.err.println("Weights are in 0..." + (DEFAULT_MAX_WEIGHT - 1) +
+                       ".");
+    System.err.println("   or: java gen.GraphGenerator check");
+  }
+
+  /**
+   * problem() returns what is wrong with the sizes given for a graph of
+   * the named kind, or null if nothing is.  "size" is the first argument
+   * (n, rows or scale) and "count" the second (m or cols), if it is an
+   * integer; "radius" is the second argument of a geometric graph.
+   */
+  private static String problem(String kind, long size, long count,
+                                double radius) {
+    if (kind.equals("rmat")) {
+      return size < 1 || size > 30 ? "scale must be in 1...30" :
+             count < 0 ? "m must not be negative" : null;
+    }
+    long min = kind.equals("er") || kind.equals("equal") ? 2 : 1;
+    if (size < min || size > Integer.MAX_VALUE) {
+      return "the first size must be in " + min + "..." + Integer.MAX_VALUE;
+    }
+    if (kind.equals("grid")) {
+      return count < 1 || size * count > Integer.MAX_VALUE ?
+             "rows * cols must be in 1..." + Integer.MAX_VALUE : null;
+    }
+    if (kind.equals("geometric")) {
+      return radius > 0 && radius <= 1 ? null : "r must be in (0, 1]";
+    }
+    return count < 0 ? "m must not be negative" : null;
+  }
+
+  /**
+   * main() writes a generated graph to an edge file.  Every argument is
+   * checked before the file is touched.  "check" runs check() instead.
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length == 1 && args[0].equals("check")) {
+      check();
+      return;
+    }
+    String kind = args.length == 0 ? "" : args[0];
+    int sizes = kind.equals("chain") ? 1 : 2;
+    boolean known = kind.equals("er") || kind.equals("grid") ||
+                    kind.equals("geometric") || kind.equals("rmat") ||
+                    kind.equals("equal") || kind.equals("chain");
+    if (!known || args.length != sizes + 3) {
+      usage();
+      return;
+    }
+    long seed;
+    long size;
+    long count = 0;
+    double radius = 0;
+    try {
+      seed = Long.parseLong(args[sizes + 1]);
+      size = Long.parseLong(args[1]);
+      if (kind.equals("geometric")) {
+        radius = Double.parseDouble(args[2]);
+      } else if (sizes == 2) {
+        count = Long.parseLong(args[2]);
+      }
+    } catch (NumberFormatException e) {
+      System.err.println("not a number:  " + e.getMessage());
+      usage();
+      return;
+    }
+    String problem = problem(kind, size, count, radius);
+    if (problem != null) {
+      System.err.println(problem);
+      usage();
+      return;
+    }
+
+    FileSink sink = new FileSink(new File(args[sizes + 2]));
+    if (kind.equals("er")) {
+      erdosRenyi((int) size, count, DEFAULT_MAX_WEIGHT, seed, sink);
+    } else if (kind.equals("grid")) {
+      grid((int) size, (int) count, DEFAULT_MAX_WEIGHT, seed, sink);
+    } else if (kind.equals("geometric")) {
+      randomGeometric((int) size, radius, DEFAULT_MAX_WEIGHT, seed, sink);
+    } else if (kind.equals("rmat")) {
+      rmat((int) size, count, RMAT_A, RMAT_B, RMAT_C, DEFAULT_MAX_WEIGHT,
+           seed, sink);
+    } else if (kind.equals("equal")) {
+      equalWeights((int) size, count, 1, seed, sink);
+    } else {
+      chain((int) size, sink);
+    }
+    System.out.println("Wrote " + sink.edgeCount() + " edges to " +
+                       args[sizes + 2] + ".");
+  }
+
+  /**
+   * check() generates a small graph of every kind twice with one seed and
+   * once with another.  Each must have the expected number of edges, all
+   * in range and none a self-edge, and the same seed must give the same
+   * edges in the same order.  A random geometric graph's edges are counted
+   * against every pair of its points.  Last, a sink that fails mid-graph
+   * must still be ended.
+   */
+  private static void check() throws IOException {
+    int n = 500;
+    long m = 3000;
+    int rows = 30;
+    int cols = 40;
+    int scale = 9;
+    double radius = 0.08;
+    String[] names = { "er", "grid", "geometric", "rmat", "equal", "chain" };
+    long[] seeds = { 32, 32, 33 };
+    int failures = 0;
+    for (int kind = 0; kind < names.length; kind++) {
+      RecordingSink[] runs = new RecordingSink[3];
+      for (int r = 0; r < runs.length; r++) {
+        runs[r] = new RecordingSink();
+        switch (kind) {
+        case 0:
+          erdosRenyi(n, m, DEFAULT_MAX_WEIGHT, seeds[r], runs[r]);
+          break;
+        case 1:
+          grid(rows, cols, DEFAULT_MAX_WEIGHT, seeds[r], runs[r]);
+          break;
+        case 2:
+          randomGeometric(n, radius, DEFAULT_MAX_WEIGHT, seeds[r], runs[r]);
+          break;
+        case 3:
+          rmat(scale, m, RMAT_A, RMAT_B, RMAT_C, DEFAULT_MAX_WEIGHT,
+               seeds[r], runs[r]);
+          break;
+        case 4:
+          equalWeights(n, m, 7, seeds[r], runs[r]);
+          break;
+        default:
+          chain(n, runs[r]);
+          break;
+        }
+      }
+      long[] expected = { m, rows * (cols - 1) + cols * (rows - 1), 0, m, m,
+                          n - 1 };
+      String problem = null;
+      for (int r = 0; r < runs.length && problem == null; r++) {
+        if (kind == 2) {
+          expected[kind] = geometricPairs(n, radius, seeds[r]);
+        }
+        problem = runs[r].problem(expected[kind], DEFAULT_MAX_WEIGHT);
+      }
+      if (problem == null && !runs[0].sameEdges(runs[1])) {
+        problem = "the same seed gave different edges";
+      }
+      // The chain ignores the seed; every other kind must change with it.
+      if (problem == null && (kind == 5) != runs[0].sameEdges(runs[2])) {
+        problem = kind == 5 ? "the chain changed with the seed"
+                            : "a different seed gave the same edges";
+      }
+      if (problem == null && kind == 4 && !runs[0].allWeigh(7)) {
+        problem = "an edge is not of weight 7";
+      }
+      if (problem != null) {
+        System.out.println(names[kind] + ":  " + problem);
+        failures++;
+      }
+    }
+
+    RecordingSink failing = new RecordingSink();
+    failing.failAfter = 10;
+    try {
+      erdosRenyi(n, m, DEFAULT_MAX_WEIGHT, 32, failing);
+      System.out.println("A failing sink did not stop the generator.");
+      failures++;
+    } catch (IOException e) {
+      if (failing.ends != 1) {
+        System.out.println("A failing sink was ended " + failing.ends +
+                           " times, not once.");
+        failures++;
+      }
+    }
+    System.out.println(failures == 0 ? "Every generator passed." :
+                       failures + " checks failed.");
+  }
+
+  /**
+   * geometricPairs() returns the number of pairs of the points that
+   * randomGeometric(n, radius, ..., seed, ...) places that lie within
+   * "radius" of each other, comparing every pair.
+   */
+  private static long geometricPairs(int n, double radius, long seed) {
+    Random random = new Random(seed);
+    double[] x = new double[n];
+    double[] y = new double[n];
+    for (int i = 0; i < n; i++) {
+      x[i] = random.nextDouble();
+      y[i] = random.nextDouble();
+    }
+    long pairs = 0;
+    for (int i = 0; i < n; i++) {
+      for (int j = i + 1; j < n; j++) {
+        double dx = x[i] - x[j];
+        double dy = y[i] - y[j];
+        if (Math.sqrt(dx * dx + dy * dy) <= radius) {
+          pairs++;
+        }
+      }
+    }
+    return pairs;
+  }
+
+  /**
+   * A RecordingSink keeps every edge it receives, for check().  If
+   * failAfter is not negative, edge() throws once that many edges have
+   * arrived.
+   */
+  private static class RecordingSink implements EdgeSink {
+
+    int vertexCount = -1;
+    int begins;
+    int ends;
+    int failAfter = -1;
+    java.util.ArrayList<int[]> edges = new java.util.ArrayList<int[]>();
+
+    public void begin(int vertexCount) {
+      this.vertexCount = vertexCount;
+      begins++;
+    }
+
+    public void edge(int u, int v, int weight) throws IOException {
+      if (edges.size() == failAfter) {
+        throw new IOException("failing as asked");
+      }
+      edges.add(new int[] { u, v, weight });
+    }
+
+    public void end() {
+      ends++;
+    }
+
+    /**
+     * problem() returns what is wrong with the recorded graph, or null if
+     * it was begun and ended once and has "count" edges, each joining two
+     * different vertices in range with a weight in 0...maxWeight-1.
+     */
+    String problem(long count, int maxWeight) {
+      if (begins != 1 || ends != 1) {
+        return "begun " + begins + " times and ended " + ends + " times";
+      }
+      if (edges.size() != count) {
+        return edges.size() + " edges, not " + count;
+      }
+      for (int[] e : edges) {
+        if (e[0] == e[1] || e[0] < 0 || e[1] < 0 || e[0] >= vertexCount ||
+            e[1] >= vertexCount || e[2] < 0 || e[2] >= maxWeight) {
+          return "bad edge (" + e[0] + ", " + e[1] + ", " + e[2] + ")";
+        }
+      }
+      return null;
+    }
+
+    /**
+     * sameEdges() returns true if "other" received the same edges in the
+     * same order.
+     */
+    boolean sameEdges(RecordingSink other) {
+      if (edges.size() != other.edges.size()) {
+        return false;
+      }
+      for (int i = 0; i < edges.size(); i++) {
+        if (!java.util.Arrays.equals(edges.get(i), other.edges.get(i))) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    boolean allWeigh(int weight) {
+      for (int[] e : edges) {
+        if (e[2] != weight) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+  }
+
+}
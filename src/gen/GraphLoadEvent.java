@@ -0,0 +1,27 @@
+/* GraphLoadEvent.java */
+
+package gen;
+
+import jdk.jfr.*;
+
+/**
+ * A GraphLoadEvent is a Java Flight Recorder event covering one bulk load
+ * of a generated graph into a WUGraph by a GraphSink.
+ */
+
+@Name("minspan.GraphLoad")
+@Label("Graph Load")
+@Category({"MinSpan", "Graph"})
+@Description("A bulk load of vertices and edges into a WUGraph")
+class GraphLoadEvent extends Event {
+
+  @Label("Vertices")
+  int vertices;
+
+  @Label("Edges Offered")
+  long edgesOffered;
+
+  @Label("Edges In Graph")
+  int edges;
+
+}
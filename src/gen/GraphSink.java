@@ -0,0 +1,68 @@
+/* GraphSink.java */
+
+package gen;
+
+import graph.*;
+
+/**
+ * A GraphSink adds generated vertices and edges to a WUGraph.  Vertex i is
+ * represented by the Integer i.  Because a WUGraph holds at most one edge
+ * per pair of vertices, a repeated pair updates the weight of the existing
+ * edge, exactly as WUGraph.addEdge() does.
+ *
+ * Each load from begin() to end() is recorded as a GraphLoadEvent when Java
+ * Flight Recorder is running.
+ */
+
+public class GraphSink implements EdgeSink {
+
+  private WUGraph<Integer> g;
+  private Integer[] vertices;
+  private GraphLoadEvent event;
+
+  /**
+   * GraphSink() constructs a sink that fills a new, empty WUGraph.
+   */
+  public GraphSink() {
+    g = new WUGraph<Integer>();
+  }
+
+  public void begin(int vertexCount) {
+    event = new GraphLoadEvent();
+    event.begin();
+    event.vertices = vertexCount;
+    vertices = new Integer[vertexCount];
+    for (int i = 0; i < vertexCount; i++) {
+      vertices[i] = Integer.valueOf(i);
+      g.addVertex(vertices[i]);
+    }
+  }
+
+  public void edge(int u, int v, int weight) {
+    g.addEdge(vertices[u], vertices[v], weight);
+    event.edgesOffered++;
+  }
+
+  public void end() {
+    event.end();
+    if (event.shouldCommit()) {
+      event.edges = g.edgeCount();
+      event.commit();
+    }
+  }
+
+  /**
+   * graph() returns the graph built so far.
+   */
+  public WUGraph<Integer> graph() {
+    return g;
+  }
+
+  /**
+   * vertices() returns the vertex objects; vertices()[i] is vertex i.
+   */
+  public Integer[] vertices() {
+    return vertices;
+  }
+
+}
@@ -0,0 +1,116 @@
+/* DoubleWUGraph.java */
+
+package graph;
+
+/**
+ * A DoubleWUGraph is a weighted, undirected graph with double edge
+ * weights, stored as the weights' bits so that nothing is boxed.  Weights
+ * may be any double but NaN; -0.0 is stored as 0.0.  It is a WideWUGraph,
+ * not a WUGraph (see WideWUGraph); its minimum spanning trees come from
+ * mst.WideKruskal.
+ *
+ * A weight's sort key is its bits with every bit but the sign flipped if
+ * it is negative, which orders the keys of all non-NaN doubles as the
+ * doubles themselves.
+ */
+
+public class DoubleWUGraph<V> extends WideWUGraph<V> {
+
+  /* Reused by neighborsAt() to read the stored weights. */
+  private long[] scratch = new long[0];
+
+  /**
+   * addEdge() is WUGraph.addEdge() with a double weight.
+   *
+   * @exception IllegalArgumentException if "weight" is NaN.
+   *
+   * Running time:  O(1).
+   */
+  public void addEdge(V u, V v, double weight) {
+    graph.putEdge(u, v, bits(weight));
+  }
+
+  private static long bits(double weight) {
+    if (Double.isNaN(weight)) {
+      throw new IllegalArgumentException("weight is NaN");
+    }
+    return Double.doubleToRawLongBits(weight + 0.0);
+  }
+
+  /**
+   * doubleWeight() returns the weight of (u, v), or zero if (u, v) is not
+   * an edge (see WUGraph.weight()).
+   *
+   * Running time:  O(1).
+   */
+  public double doubleWeight(Object u, Object v) {
+    return Double.longBitsToDouble(graph.storedWeight(u, v, 0L));
+  }
+
+  /**
+   * neighborsAt() is WUGraph.neighborsAt() with double weights.
+   *
+   * Running time:  O(d), where d is the degree of the vertex.
+   */
+  public int neighborsAt(int id, int[] ids, double[] weights) {
+    if (scratch.length < degreeAt(id)) {
+      scratch = new long[Math.max(degreeAt(id), 2 * scratch.length)];
+    }
+    long[] stored = scratch;
+    int degree = graph.storedNeighborsAt(id, ids, stored);
+    for (int i = 0; i < degree; i++) {
+      weights[i] = Double.longBitsToDouble(stored[i]);
+    }
+    return degree;
+  }
+
+  /**
+   * totalWeight() returns the sum of the weights of all the edges, added
+   * with Neumaier's compensated summation, so that the rounding error does
+   * not grow with the number of edges.
+   *
+   * Running time:  O(|V| + |E|).
+   */
+  public double totalWeight() {
+    double sum = 0.0;
+    double compensation = 0.0;
+    int bound = vertexIdBound();
+    int maxDegree = 0;
+    for (int x = 0; x < bound; x++) {
+      maxDegree = Math.max(maxDegree, degreeAt(x));
+    }
+    int[] ids = new int[maxDegree];
+    long[] stored = new long[maxDegree];
+    for (int x = 0; x < bound; x++) {
+      int degree = graph.storedNeighborsAt(x, ids, stored);
+      for (int j = 0; j < degree; j++) {
+        if (ids[j] < x) {
+          continue;
+        }
+        double weight = Double.longBitsToDouble(stored[j]);
+        double next = sum + weight;
+        if (Math.abs(sum) >= Math.abs(weight)) {
+          compensation += (sum - next) + weight;
+        } else {
+          compensation += (weight - next) + sum;
+        }
+        sum = next;
+      }
+    }
+    // An infinite sum makes the compensation NaN; the sum alone is right.
+    return Double.isInfinite(sum) ? sum : sum + compensation;
+  }
+
+  public DoubleWUGraph<V> emptyGraph() {
+    return new DoubleWUGraph<V>();
+  }
+
+  long toKey(long stored) {
+    return stored ^ ((stored >> 63) & Long.MAX_VALUE);
+  }
+
+  long fromKey(long key) {
+    return key ^ ((key >> 63) & Long.MAX_VALUE);
+  }
+
+}
@@ -1,44 +1,58 @@
 /* Edge.java */
 
 package graph;
-import list.*;
 
 /**
- * An Edge is meant to be the internal representation of an edge
+ * An Edge is meant to be the internal representation of an edge.
+ * The Edge itself is stored in the adjacency list of each endpoint;
+ * handleA and handleB are its handles in vertexA's and vertexB's lists.
  */
 
-class Edge {
+class Edge<V> {
 
-  protected ListNode vertexA;
-  protected ListNode vertexB;
+  protected Vertex<V> vertexA;
+  protected Vertex<V> vertexB;
+  protected int handleA;
+  protected int handleB;
   protected int weight;
 
-  Edge(ListNode a, ListNode b, int weight) {
+  /**
+   * Edge() constructs the edge (a, b) and adds it to the adjacency lists
+   * of both endpoints (once, for a self-edge).
+   */
+  Edge(Vertex<V> a, Vertex<V> b, int weight) {
    vertexA = a;
    vertexB = b;
    this.weight = weight;
+   handleA = a.myEdges.add(this);
+   handleB = (a == b) ? handleA : b.myEdges.add(this);
   }
   
-  void setWeight(int w){
-	    weight = w;
-	  }
-  
-  int weight(){
+  /*
+   * stored() returns the edge's weight as its graph stores it, widened to a
+   * long; a WideEdge overrides it to hold a full 64 bits.
+   */
+  long stored(){
     return weight;
   }
 
+  void setStored(long stored){
+    weight = (int) stored;
+  }
+
+  /*
+   * other() returns the endpoint of this edge that is not v (or v itself,
+   * for a self-edge).
+   */
+  Vertex<V> other(Vertex<V> v){
+    return (v == vertexA) ? vertexB : vertexA;
+  }
+
   void remove(){
-      try {
-          if(vertexA == vertexB){
-            vertexA.remove();
-          } else {
-            vertexA.remove();
-            vertexB.remove();
-          }
-      }
-      catch(InvalidNodeException e){
-          System.out.println("Removing an invalid node FAILED.");
-      }
+    vertexA.myEdges.remove(handleA);
+    if(vertexA != vertexB){
+      vertexB.myEdges.remove(handleB);
+    }
   }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,156 @@
+/* Footprint.java */
+
+package graph;
+
+import dict.HashTableChained;
+
+/**
+ * A Footprint is an estimate of the heap retained by a WUGraph, broken down
+ * by the part of the representation that retains it.  It is returned by
+ * WUGraph.footprint().  The application's own vertex objects are not
+ * counted, since they are not owned by the graph.
+ *
+ * Sizes are estimated for a 64-bit JVM with compressed references (the
+ * default for heaps under 32GB):  12-byte object headers, 16-byte array
+ * headers, 4-byte references, and every object padded to a multiple of 8
+ * bytes.  Static methods estimate alternative layouts under the same
+ * assumptions, for comparison.
+ */
+
+public class Footprint {
+
+  static final int OBJECT_HEADER = 12;
+  static final int ARRAY_HEADER = 16;
+  static final int REFERENCE = 4;
+  static final int INT = 4;
+  static final int ALIGNMENT = 8;
+
+  /** A UList:  head, lastBlock, size, blockCapacity, lastIndex. */
+  static final long ULIST = objectBytes(2, 3);
+  /** A UList.Block:  items, nodes, prev, next, count. */
+  static final long BLOCK = objectBytes(4, 1);
+  /** The items array of a hash chain's block. */
+  static final long CHAIN_ARRAY =
+    arrayBytes(HashTableChained.CHAIN_BLOCK, REFERENCE);
+  /** One slot of a chain block's items array, which holds one entry. */
+  static final long CHAIN_SLOT = REFERENCE;
+  /** A dict.Entry:  key, value. */
+  static final long ENTRY = objectBytes(2, 0);
+  /** A Vertex:  vertKey, myEdges, id. */
+  static final long VERTEX = objectBytes(2, 1);
+  /** An Edge:  vertexA, vertexB, handleA, handleB, weight. */
+  static final long EDGE = objectBytes(2, 3);
+  /** A WideEdge:  an Edge plus a 64-bit value. */
+  static final long WIDE_EDGE = objectBytes(2, 5);
+  /** A HandleList:  items, links, size, handleBound, freeHandle. */
+  static final long HANDLE_LIST = objectBytes(2, 3);
+  /** A VertexPair:  object1, object2. */
+  static final long VERTEX_PAIR = objectBytes(2, 0);
+
+  private long vertexTable;
+  private long edgeTable;
+  private long adjacency;
+  private long buckets;
+
+  Footprint(long vertexTable, long edgeTable, long adjacency, long buckets) {
+    this.vertexTable = vertexTable;
+    this.edgeTable = edgeTable;
+    this.adjacency = adjacency;
+    this.buckets = buckets;
+  }
+
+  /**
+   * vertexTableBytes() returns the bytes retained by the internal vertex
+   * objects, the list of vertices, and the vertex hash table's entries.
+   */
+  public long vertexTableBytes() {
+    return vertexTable;
+  }
+
+  /**
+   * edgeTableBytes() returns the bytes retained by the internal edge
+   * objects, their VertexPair keys, and the edge hash table's entries.
+   */
+  public long edgeTableBytes() {
+    return edgeTable;
+  }
+
+  /**
+   * adjacencyBytes() returns the bytes retained by the adjacency lists.
+   */
+  public long adjacencyBytes() {
+    return adjacency;
+  }
+
+  /**
+   * bucketBytes() returns the bytes retained by both hash tables' bucket
+   * arrays and chain lists (excluding the chained entries themselves).
+   */
+  public long bucketBytes() {
+    return buckets;
+  }
+
+  /**
+   * totalBytes() returns the estimated total.
+   */
+  public long totalBytes() {
+    return vertexTable + edgeTable + adjacency + buckets;
+  }
+
+  /**
+   * compressedSparseRowBytes() estimates the heap used by the same graph
+   * stored as compressed sparse rows:  an Object[] of vertices, an int[]
+   * of row offsets, and int[] neighbor and weight arrays holding each edge
+   * once per endpoint.  Such a layout is immutable; it is the lower bound
+   * to compare the mutable representation against.
+   *
+   * @param vertices the number of vertices.
+   * @param halfEdges the number of adjacency entries (twice the number of
+   *        edges, minus the number of self-edges).
+   */
+  public static long compressedSparseRowBytes(int vertices, long halfEdges) {
+    return arrayBytes(vertices, REFERENCE) + arrayBytes(vertices + 1L, INT) +
+      2 * arrayBytes(halfEdges, INT);
+  }
+
+  /**
+   * handleListArrayBytes() returns the size of the arrays of a HandleList
+   * with the specified capacity (zero for an empty list, which shares
+   * preallocated empty arrays).
+   */
+  static long handleListArrayBytes(int capacity) {
+    if (capacity == 0) {
+      return 0;
+    }
+    return arrayBytes(capacity, REFERENCE) + arrayBytes(2L * capacity, INT);
+  }
+
+  /**
+   * toString() returns the breakdown as a single line.
+   */
+  public String toString() {
+    return "total=" + totalBytes() + " vertexTable=" + vertexTable +
+      " edgeTable=" + edgeTable + " adjacency=" + adjacency + " buckets=" +
+      buckets;
+  }
+
+  /**
+   * objectBytes() returns the padded size of an object with the specified
+   * numbers of reference and int fields.
+   */
+  static long objectBytes(int references, int ints) {
+    return align(OBJECT_HEADER + references * REFERENCE + ints * INT);
+  }
+
+  /**
+   * arrayBytes() returns the padded size of an array.
+   */
+  static long arrayBytes(long length, int elementBytes) {
+    return align(ARRAY_HEADER + length * elementBytes);
+  }
+
+  private static long align(long bytes) {
+    return (bytes + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+  }
+
+}
@@ -0,0 +1,61 @@
+/* GraphListener.java */
+
+package graph;
+
+/**
+ * A GraphListener is notified of every mutation of a WUGraph it has been
+ * registered with (see WUGraph.addGraphListener()).  Each callback is made
+ * after the mutation has been applied, so a listener may query the graph
+ * from inside a callback, but it must NOT modify the graph.
+ *
+ * When a vertex is removed, edgeRemoved() is called once for each edge
+ * incident on it before vertexRemoved() is called for the vertex itself.
+ */
+
+public interface GraphListener {
+
+  /**
+   * vertexAdded() is called after "vertex" has been added to the graph.
+   *
+   * @param vertex the application's object serving as the new vertex.
+   */
+  public void vertexAdded(Object vertex);
+
+  /**
+   * vertexRemoved() is called after "vertex" (and all its edges) has been
+   * removed from the graph.
+   *
+   * @param vertex the application's object that served as the vertex.
+   */
+  public void vertexRemoved(Object vertex);
+
+  /**
+   * edgeAdded() is called after a new edge (u, v) has been added.
+   *
+   * @param u one endpoint of the edge.
+   * @param v the other endpoint of the edge (u == v for a self-edge).
+   * @param weight the weight of the new edge.
+   */
+  public void edgeAdded(Object u, Object v, int weight);
+
+  /**
+   * edgeRemoved() is called after the edge (u, v) has been removed.
+   *
+   * @param u one endpoint of the edge.
+   * @param v the other endpoint of the edge.
+   * @param weight the weight the edge had when it was removed.
+   */
+  public void edgeRemoved(Object u, Object v, int weight);
+
+  /**
+   * weightChanged() is called after addEdge() has updated the weight of an
+   * edge (u, v) that was already in the graph.
+   *
+   * @param u one endpoint of the edge.
+   * @param v the other endpoint of the edge.
+   * @param oldWeight the weight before the update.
+   * @param newWeight the weight after the update.
+   */
+  public void weightChanged(Object u, Object v, int oldWeight, int newWeight);
+
+}
@@ -0,0 +1,89 @@
+/* LongWUGraph.java */
+
+package graph;
+
+import java.math.BigInteger;
+
+/**
+ * A LongWUGraph is a weighted, undirected graph with long edge weights.
+ * It is a WideWUGraph, not a WUGraph (see WideWUGraph); its minimum
+ * spanning trees come from mst.WideKruskal.
+ */
+
+public class LongWUGraph<V> extends WideWUGraph<V> {
+
+  /**
+   * addEdge() is WUGraph.addEdge() with a long weight.
+   *
+   * Running time:  O(1).
+   */
+  public void addEdge(V u, V v, long weight) {
+    graph.putEdge(u, v, weight);
+  }
+
+  /**
+   * longWeight() returns the weight of (u, v), or zero if (u, v) is not an
+   * edge (see WUGraph.weight()).
+   *
+   * Running time:  O(1).
+   */
+  public long longWeight(Object u, Object v) {
+    return graph.storedWeight(u, v, 0);
+  }
+
+  /**
+   * neighborsAt() is WUGraph.neighborsAt() with long weights.
+   *
+   * Running time:  O(d), where d is the degree of the vertex.
+   */
+  public int neighborsAt(int id, int[] ids, long[] weights) {
+    return graph.storedNeighborsAt(id, ids, weights);
+  }
+
+  /**
+   * totalWeight() returns the exact sum of the weights of all the edges.
+   * The sum is kept in a long and carried into a BigInteger only when it
+   * would overflow.
+   *
+   * Running time:  O(|V| + |E|).
+   */
+  public BigInteger totalWeight() {
+    BigInteger carried = BigInteger.ZERO;
+    long sum = 0;
+    int bound = vertexIdBound();
+    int maxDegree = 0;
+    for (int x = 0; x < bound; x++) {
+      maxDegree = Math.max(maxDegree, degreeAt(x));
+    }
+    int[] ids = new int[maxDegree];
+    long[] weights = new long[maxDegree];
+    for (int x = 0; x < bound; x++) {
+      int degree = neighborsAt(x, ids, weights);
+      for (int j = 0; j < degree; j++) {
+        if (ids[j] < x) {
+          continue;
+        }
+        long next = sum + weights[j];
+        if (((sum ^ next) & (weights[j] ^ next)) < 0) {
+          carried = carried.add(BigInteger.valueOf(sum));
+          next = weights[j];
+        }
+        sum = next;
+      }
+    }
+    return carried.add(BigInteger.valueOf(sum));
+  }
+
+  public LongWUGraph<V> emptyGraph() {
+    return new LongWUGraph<V>();
+  }
+
+  long toKey(long stored) {
+    return stored;
+  }
+
+  long fromKey(long key) {
+    return key;
+  }
+
+}
@@ -6,17 +6,19 @@ import list.*;
 /**
  * A Vertex is meant to be the internal representation of a vertex.
  * The vertex object from the application is passed in and set to be "vertKey"
- * A vertex has a DList of vertices that represent it's neighbors
+ * A vertex has a HandleList of the Edges incident on it, and its "id" is its
+ * handle in the graph's vertex list.
  */
 
-class Vertex {
+class Vertex<V> {
 
-  protected Object vertKey;
-  protected DList myEdges;
+  protected V vertKey;
+  protected HandleList<Edge<V>> myEdges;
+  protected int id;
 
-  Vertex(Object v) {
+  Vertex(V v) {
     vertKey = v;
-    myEdges = new DList();
+    myEdges = new HandleList<Edge<V>>();
   }
 
   /*
@@ -24,11 +26,11 @@ class Vertex {
    * @return the degree of this vertex
    */
   int degree(){
-    return myEdges.length();
+    return myEdges.size();
   }
 
-  Object key(){
+  V key(){
     return vertKey;
   }
 
-}
\ No newline at end of file
+}
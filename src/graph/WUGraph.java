@@ -7,14 +7,29 @@ import dict.*;
 
 /**
  * The WUGraph class represents a weighted, undirected graph.  Self-edges are
- * permitted.
+ * permitted.  Vertices are application objects of type V; as in
+ * java.util.Map, methods that only look a vertex up accept any Object.
+ *
+ * Every vertex also has a small int id, fixed from addVertex() until
+ * removeVertex(), and recycled for a later vertex after that.  Ids lie in
+ * 0...vertexIdBound()-1, so algorithms can keep per-vertex state in arrays
+ * indexed by id, and walk the graph through vertexAt(), degreeAt() and
+ * neighborsAt() without hashing any vertex objects.
  */
 
-public class WUGraph {
+public class WUGraph<V> {
 
-	private HashTableChained vTable, eTable;
+	private HashTableChained<V, Vertex<V>> vTable;
+	private HashTableChained<VertexPair, Edge<V>> eTable;
 	private int nEdges;
-	private DList vList;
+	private HandleList<Vertex<V>> vList;
+	private DList listeners;
+
+	private static final int VERTEX_ADDED = 0;
+	private static final int VERTEX_REMOVED = 1;
+	private static final int EDGE_ADDED = 2;
+	private static final int EDGE_REMOVED = 3;
+	private static final int WEIGHT_CHANGED = 4;
 
   /**
    * WUGraph() constructs a graph having no vertices or edges.
@@ -22,9 +37,72 @@ public class WUGraph {
    * Running time:  O(1).
    */
   public WUGraph(){
-	vTable = new HashTableChained();
-	eTable = new HashTableChained();
-	vList = new DList();
+	vTable = new HashTableChained<V, Vertex<V>>();
+	eTable = new HashTableChained<VertexPair, Edge<V>>();
+	vList = new HandleList<Vertex<V>>();
+	listeners = new DList();
+  }
+
+  /**
+   * addGraphListener() registers a listener that is notified of every
+   * subsequent mutation of this graph.  Registering the same listener twice
+   * makes it receive every notification twice.
+   *
+   * Running time:  O(1).
+   */
+  public void addGraphListener(GraphListener listener){
+    listeners.insertBack(listener);
+  }
+
+  /**
+   * removeGraphListener() unregisters a listener previously registered with
+   * addGraphListener().  If the listener is not registered, the graph is
+   * unchanged.
+   *
+   * Running time:  O(l), where l is the number of registered listeners.
+   */
+  public void removeGraphListener(GraphListener listener){
+    java.util.Iterator<Object> it = listeners.iterator();
+    while(it.hasNext()){
+      if(it.next() == listener){
+        it.remove();
+        return;
+      }
+    }
+  }
+
+  /**
+   * notifyListeners() reports one mutation to every registered listener.
+   * "event" is one of the VERTEX_* / EDGE_* / WEIGHT_CHANGED constants; the
+   * remaining parameters are interpreted as in the matching GraphListener
+   * callback (v, oldWeight and newWeight are ignored by vertex events).
+   */
+  private void notifyListeners(int event, Object u, Object v,
+                               int oldWeight, int newWeight){
+    if(listeners.isEmpty()){
+      return;
+    }
+    GraphListener listener;
+    for(Object item : listeners){
+      listener = (GraphListener)item;
+      switch(event){
+      case VERTEX_ADDED:
+        listener.vertexAdded(u);
+        break;
+      case VERTEX_REMOVED:
+        listener.vertexRemoved(u);
+        break;
+      case EDGE_ADDED:
+        listener.edgeAdded(u, v, newWeight);
+        break;
+      case EDGE_REMOVED:
+        listener.edgeRemoved(u, v, oldWeight);
+        break;
+      default:
+        listener.weightChanged(u, v, oldWeight, newWeight);
+        break;
+      }
+    }
   }
 
   /**
@@ -33,7 +111,7 @@ public class WUGraph {
    * Running time:  O(1).
    */
   public int vertexCount(){
-	return vList.length();
+	return vList.size();
   }
 	
   /**
@@ -45,6 +123,134 @@ public class WUGraph {
 	return nEdges;
   }
 
+  /**
+   * footprint() returns an estimate of the heap retained by this graph's
+   * internal data structures, broken down by vertex table, edge table,
+   * adjacency lists and hash table buckets.  See the Footprint class for
+   * the memory layout assumed.
+   *
+   * Running time:  O(|V| + number of hash table buckets).
+   */
+  public Footprint footprint(){
+    int vertices = vertexCount();
+    long adjacencyArrays = 0;
+    for(int p = 0; p < vertices; p++){
+      adjacencyArrays += Footprint.handleListArrayBytes(
+        vList.itemAt(p).myEdges.capacity());
+    }
+
+    long vertexTable = Footprint.HANDLE_LIST +
+      Footprint.handleListArrayBytes(vList.capacity()) +
+      vertices * (Footprint.VERTEX + Footprint.ENTRY + Footprint.CHAIN_SLOT);
+    long edgeTable = nEdges * (edgeBytes() + Footprint.VERTEX_PAIR +
+                               Footprint.ENTRY + Footprint.CHAIN_SLOT);
+    long adjacency = vertices * Footprint.HANDLE_LIST + adjacencyArrays;
+    long buckets = bucketBytes(vTable) + bucketBytes(eTable);
+    return new Footprint(vertexTable, edgeTable, adjacency, buckets);
+  }
+
+  /**
+   * bucketBytes() estimates the bytes of a hash table's bucket array, plus
+   * one UList and sentinel Block per allocated chain, plus every chain
+   * block with its items array.  The slots that hold entries are charged
+   * to the entries, in footprint(), so they are left out here.  (No cursor
+   * ever walks a chain, so no block has a handle array.)
+   */
+  private static long bucketBytes(HashTableChained<?, ?> table){
+    return Footprint.arrayBytes(table.bucketCount(), Footprint.REFERENCE) +
+      table.allocatedChainCount() * (Footprint.ULIST + Footprint.BLOCK) +
+      table.allocatedBlockCount() * (Footprint.BLOCK + Footprint.CHAIN_ARRAY) -
+      table.size() * Footprint.CHAIN_SLOT;
+  }
+
+  /**
+   * vertexIdBound() returns one more than the largest vertex id in use (or
+   * recently in use), so every vertex id lies in 0...vertexIdBound()-1.
+   * Ids are recycled, so vertexIdBound() never exceeds the largest number
+   * of vertices the graph has had; some ids below it may be unused.
+   *
+   * Running time:  O(1).
+   */
+  public int vertexIdBound(){
+    return vList.handleBound();
+  }
+
+  /**
+   * indexOf() returns the id of a vertex, or -1 if the parameter "vertex"
+   * does not represent a vertex of the graph.
+   *
+   * Running time:  O(1).
+   */
+  public int indexOf(Object vertex){
+    Entry<V, Vertex<V>> entry = vTable.find(vertex);
+    return entry == null ? -1 : entry.value().id;
+  }
+
+  /**
+   * vertexAt() returns the vertex with id "id", or null if no vertex has
+   * that id.
+   *
+   * Running time:  O(1).
+   */
+  public V vertexAt(int id){
+    return vList.isValidHandle(id) ? vList.get(id).key() : null;
+  }
+
+  /**
+   * degreeAt() returns the degree of the vertex with id "id", or zero if no
+   * vertex has that id.
+   *
+   * Running time:  O(1).
+   */
+  public int degreeAt(int id){
+    return vList.isValidHandle(id) ? vList.get(id).degree() : 0;
+  }
+
+  /**
+   * neighborsAt() copies the ids of the neighbors of the vertex with id
+   * "id" into "ids", and the weights of the corresponding edges into
+   * "weights", in the same order getNeighbors() uses.  Both arrays must
+   * have room for degreeAt(id) entries.  A self-edge lists the vertex
+   * itself once.
+   *
+   * @return the number of neighbors copied, which is degreeAt(id).
+   *
+   * Running time:  O(d), where d is the degree of the vertex.
+   */
+  public int neighborsAt(int id, int[] ids, int[] weights){
+    if (!vList.isValidHandle(id)){
+      return 0;
+    }
+    Vertex<V> vert = vList.get(id);
+    Edge<V> edge;
+    int degree = vert.degree();
+    for (int i = 0; i < degree; i++){
+      edge = vert.myEdges.itemAt(i);
+      ids[i] = edge.other(vert).id;
+      weights[i] = (int) edge.stored();
+    }
+    return degree;
+  }
+
+  /**
+   * storedNeighborsAt() is neighborsAt() with the weights as stored, for
+   * WideWUGraph.
+   */
+  int storedNeighborsAt(int id, int[] ids, long[] stored){
+    if (!vList.isValidHandle(id)){
+      return 0;
+    }
+    Vertex<V> vert = vList.get(id);
+    Edge<V> edge;
+    int degree = vert.degree();
+    for (int i = 0; i < degree; i++){
+      edge = vert.myEdges.itemAt(i);
+      ids[i] = edge.other(vert).id;
+      stored[i] = edge.stored();
+    }
+    return degree;
+  }
+
   /**
    * getVertices() returns an array containing all the objects that serve
    * as vertices of the graph.  The array's length is exactly equal to the
@@ -62,19 +268,8 @@ public class WUGraph {
   public Object[] getVertices(){
     Object[] vertexList = new Object[vertexCount()];
 
-    int i = 0;
-    ListNode current = vList.front();
-
-    try{
-        Vertex tempVert;
-        while (current.isValidNode()) {
-            tempVert = (Vertex)current.item();
-            vertexList[i] = tempVert.key();
-            current = current.next();
-            i++;
-        }
-    } catch(InvalidNodeException e) {
-      System.out.println("Error in getVertices()");
+    for (int p = 0; p < vertexList.length; p++) {
+        vertexList[p] = vList.itemAt(p).key();
     }
 
     return vertexList;
@@ -88,11 +283,12 @@ public class WUGraph {
    *
    * Running time:  O(1).
    */
-  public void addVertex(Object vertex){
+  public void addVertex(V vertex){
 	if (vTable.find(vertex) == null){
-    	Vertex newVert = new Vertex(vertex);
-    	vList.insertFront(newVert);
-   		vTable.insert(vertex,vList.front());
+    	Vertex<V> newVert = new Vertex<V>(vertex);
+    	newVert.id = vList.add(newVert);
+   		vTable.insert(vertex,newVert);
+   		notifyListeners(VERTEX_ADDED, vertex, null, 0, 0);
     }
   }
 	
@@ -107,32 +303,23 @@ public class WUGraph {
 
 
   public void removeVertex(Object vertex){
-    Entry entry = vTable.find(vertex);
+    Entry<V, Vertex<V>> entry = vTable.find(vertex);
     if(entry != null){
-      ListNode node = (ListNode)entry.value();
-      try{
-        Vertex tempVert = (Vertex)(node.item());
-        clearEdges(tempVert);
-		vTable.remove(vertex);
-        node.remove();
-      } catch (InvalidNodeException e){
-        System.out.println("Error in removeVertex()");
-      }
+      Vertex<V> tempVert = entry.value();
+      clearEdges(tempVert);
+      vTable.remove(vertex);
+      vList.remove(tempVert.id);
+      notifyListeners(VERTEX_REMOVED, vertex, null, 0, 0);
     }
   }
 
 
-  void clearEdges(Vertex v){
-    ListNode edgeNode = v.myEdges.front();
-    try{
-      Vertex tempVert;
-      while(edgeNode.isValidNode()){
-        tempVert = (Vertex)edgeNode.item();
-        edgeNode = edgeNode.next();
-        removeEdge(v.key(),tempVert.key());
-      }
-    } catch(InvalidNodeException e) {
-      System.out.println("Error in clearEdges()");
+  void clearEdges(Vertex<V> v){
+    Edge<V> edge;
+    // Remove from the back, so no other edge moves within v's list.
+    while(!v.myEdges.isEmpty()){
+      edge = v.myEdges.itemAt(v.myEdges.size() - 1);
+      removeEdge(v.key(), edge.other(v).key());
     }
   }
 			
@@ -155,15 +342,9 @@ public class WUGraph {
    * Running time:  O(1).
    */
   public int degree(Object vertex){
-    Entry entry = vTable.find(vertex);
+    Entry<V, Vertex<V>> entry = vTable.find(vertex);
     if(entry != null){
-      ListNode node = (ListNode)entry.value();
-      try {
-        Vertex vert = (Vertex)node.item();
-        return vert.degree();
-      } catch (InvalidNodeException e) {
-        System.out.println("Error in degree()");
-      }
+      return entry.value().degree();
     }
     return 0;
   }
@@ -186,39 +367,24 @@ public class WUGraph {
    * Running time:  O(d), where d is the degree of "vertex".
    */
   public Neighbors getNeighbors(Object vertex){
-    int degree = degree(vertex);
-    if (degree == 0){
+    Entry<V, Vertex<V>> entry = vTable.find(vertex);
+    if (entry == null || entry.value().degree() == 0){
         return null;
     }
+    Vertex<V> vert = entry.value();
+    int degree = vert.degree();
 
     Neighbors neighbors = new Neighbors();
     neighbors.neighborList = new Object[degree];
     neighbors.weightList = new int[degree];
-    
-    try {
-    
-        Entry entry = vTable.find(vertex);
-        ListNode node = (ListNode)entry.value();
-        Vertex vert = (Vertex)node.item();
-    
-        int i = 0;
-        Vertex tempVert;
-        node = vert.myEdges.front();
-              
-        while (node.isValidNode()){
-            tempVert = (Vertex)node.item();
-            neighbors.weightList[i] = weight(vertex, tempVert.key());
-            neighbors.neighborList[i] = tempVert.key();              
-            node = node.next();
-            i++;
-        }
-   }
-   catch (InvalidNodeException e) {
-        System.out.println("Error in getNeighbors.");
-   }
-
-   return neighbors;
- }	
+    Edge<V> edge;
+    for (int i = 0; i < degree; i++){
+        edge = vert.myEdges.itemAt(i);
+        neighbors.weightList[i] = (int) edge.stored();
+        neighbors.neighborList[i] = edge.other(vert).key();
+    }
+    return neighbors;
+  }
 
   /**
    * addEdge() adds an edge (u, v) to the graph.  If either of the parameters
@@ -229,38 +395,34 @@ public class WUGraph {
    *
    * Running time:  O(1).
    */
-  public void addEdge(Object u, Object v, int weight){
-    if (!isVertex(u) || !isVertex(v)){
+  public void addEdge(V u, V v, int weight){
+    putEdge(u, v, weight);
+  }
+
+  /**
+   * putEdge() is addEdge() with the weight as stored.  Listeners are told
+   * the weights as ints; only a graph whose stored weights are ints is
+   * ever reachable by a caller who can register listeners.
+   */
+  void putEdge(V u, V v, long stored){
+    Entry<V, Vertex<V>> a = vTable.find(u);
+    Entry<V, Vertex<V>> b = vTable.find(v);
+    if (a == null || b == null){
       return;
     }
-    Entry tempEntry;
     VertexPair pair = new VertexPair(u, v);
-    if (isEdge(u, v)){
-      tempEntry = eTable.find(pair);
-      Edge currEdge = (Edge)tempEntry.value();
-      currEdge.setWeight(weight);
+    Entry<VertexPair, Edge<V>> tempEntry = eTable.find(pair);
+    if (tempEntry != null){
+      Edge<V> currEdge = tempEntry.value();
+      long oldStored = currEdge.stored();
+      currEdge.setStored(stored);
+      notifyListeners(WEIGHT_CHANGED, u, v, (int) oldStored, (int) stored);
     } else {
-      tempEntry = vTable.find(u);
-      ListNode a = (ListNode)tempEntry.value();
-      tempEntry = vTable.find(v);
-      ListNode b = (ListNode)tempEntry.value();
-      try{
-          List edgeListA = ((Vertex)a.item()).myEdges;
-          List edgeListB = ((Vertex)b.item()).myEdges;
-          edgeListA.insertFront(b.item());
-          if(a != b){
-            edgeListB.insertFront(a.item());
-          }
-          Edge newEdge = new Edge(edgeListA.front(), edgeListB.front(), weight);
-          eTable.insert(pair, newEdge);
-		  nEdges++;
-
-      }
-      catch (InvalidNodeException e) {
-          System.out.println("Error with addEdge");
-      }
+      eTable.insert(pair, createEdge(a.value(), b.value(), stored));
+      nEdges++;
+      notifyListeners(EDGE_ADDED, u, v, 0, (int) stored);
     }
-      }
+  }
   
   /**
    * removeEdge() removes an edge (u, v) from the graph.  If either of the
@@ -271,15 +433,17 @@ public class WUGraph {
    * Running time:  O(1).
    */
    public void removeEdge(Object u, Object v){
+    // An edge can only be present if both of its endpoints are vertices.
     VertexPair pair = new VertexPair(u, v);
-    if (!isVertex(u) || !isVertex(v) || !isEdge(u, v)){
+    Entry<VertexPair, Edge<V>> tempEntry = eTable.find(pair);
+    if (tempEntry == null){
       return;
     }
-    Entry tempEntry = eTable.find(pair);
-    Edge currEdge = (Edge)tempEntry.value();
+    Edge<V> currEdge = tempEntry.value();
     currEdge.remove();
 	eTable.remove(pair);
     nEdges--;
+    notifyListeners(EDGE_REMOVED, u, v, (int) currEdge.stored(), 0);
   }
   /**
    * isEdge() returns true if (u, v) is an edge of the graph.  Returns false
@@ -308,12 +472,35 @@ public class WUGraph {
    * Running time:  O(1).
    */
   public int weight(Object u, Object v){
-	if (isEdge(u, v)){
-		VertexPair pair = new VertexPair(u, v);
-		Edge currEdge = (Edge)(eTable.find(pair).value());
-		return currEdge.weight();
+	Entry<VertexPair, Edge<V>> entry = eTable.find(new VertexPair(u, v));
+	if (entry != null){
+		return (int) entry.value().stored();
 	}
 	return 0;
   }
 
+  /**
+   * storedWeight() returns the stored weight of (u, v), or "absent" if
+   * (u, v) is not an edge.
+   */
+  long storedWeight(Object u, Object v, long absent){
+    Entry<VertexPair, Edge<V>> entry = eTable.find(new VertexPair(u, v));
+    return entry == null ? absent : entry.value().stored();
+  }
+
+  /*
+   * WideEdgeGraph, the graph inside a WideWUGraph, stores 64-bit weights by
+   * overriding these two methods.  A plain WUGraph stores ints.
+   *
+   * createEdge() makes the internal edge (a, b) with a stored weight.
+   * edgeBytes() is the size of an edge object, for footprint().
+   */
+  Edge<V> createEdge(Vertex<V> a, Vertex<V> b, long stored){
+    return new Edge<V>(a, b, (int) stored);
+  }
+
+  long edgeBytes(){
+    return Footprint.EDGE;
+  }
+
  }
@@ -0,0 +1,27 @@
+/* WideEdge.java */
+
+package graph;
+
+/**
+ * A WideEdge is the Edge of a WideWUGraph:  it stores 64 bits of weight
+ * (a long, or the bits of a double) in place of Edge's int.
+ */
+
+class WideEdge<V> extends Edge<V> {
+
+  protected long value;
+
+  WideEdge(Vertex<V> a, Vertex<V> b, long stored) {
+    super(a, b, 0);
+    value = stored;
+  }
+
+  long stored(){
+    return value;
+  }
+
+  void setStored(long stored){
+    value = stored;
+  }
+
+}
@@ -0,0 +1,22 @@
+/* WideEdgeGraph.java */
+
+package graph;
+
+/**
+ * A WideEdgeGraph is the WUGraph inside a WideWUGraph:  its edges are
+ * WideEdges, so each stores a full 64 bits of weight.  It is reached only
+ * through the WideWUGraph that owns it, so no caller ever reads its stored
+ * weights as ints, and nobody can register a listener with it.
+ */
+
+class WideEdgeGraph<V> extends WUGraph<V> {
+
+  Edge<V> createEdge(Vertex<V> a, Vertex<V> b, long stored) {
+    return new WideEdge<V>(a, b, stored);
+  }
+
+  long edgeBytes() {
+    return Footprint.WIDE_EDGE;
+  }
+
+}
@@ -0,0 +1,128 @@
+/* WideWUGraph.java */
+
+package graph;
+
+/**
+ * A WideWUGraph is a weighted, undirected graph whose edges carry 64-bit
+ * weights:  a LongWUGraph's are longs and a DoubleWUGraph's are doubles.
+ * Each edge stores its weight in a primitive field, so nothing is boxed.
+ *
+ * A WideWUGraph is NOT a WUGraph.  It keeps its vertices and edges in one
+ * (see WideEdgeGraph) and offers the same vertex methods, with the same
+ * ids, but no int-valued weight methods, so it cannot be handed to an MST
+ * engine that reads int weights.  The only engine that accepts it is
+ * mst.WideKruskal.
+ *
+ * For that engine, every weight also has a sort key, a long whose signed
+ * order is the order of the weights, so one engine that sorts longs serves
+ * both kinds of graph.  keysAt() reads a vertex's edges as keys and
+ * addEdgeByKey() adds an edge given its key.
+ */
+
+public abstract class WideWUGraph<V> {
+
+  /* The vertices and edges; its stored weights are this graph's weights. */
+  final WUGraph<V> graph = new WideEdgeGraph<V>();
+
+  /**
+   * toKey() returns the sort key of a stored weight, and fromKey() the
+   * stored weight of a sort key.
+   */
+  abstract long toKey(long stored);
+
+  abstract long fromKey(long key);
+
+  /**
+   * emptyGraph() returns a new, empty graph of the same kind as this one.
+   */
+  public abstract WideWUGraph<V> emptyGraph();
+
+  /**
+   * vertexCount(), edgeCount(), footprint(), vertexIdBound(), indexOf(),
+   * vertexAt(), degreeAt(), getVertices(), addVertex(), removeVertex(),
+   * isVertex(), degree(), removeEdge() and isEdge() behave, and take the
+   * same time, as the WUGraph methods of the same names.
+   */
+  public int vertexCount() {
+    return graph.vertexCount();
+  }
+
+  public int edgeCount() {
+    return graph.edgeCount();
+  }
+
+  public Footprint footprint() {
+    return graph.footprint();
+  }
+
+  public int vertexIdBound() {
+    return graph.vertexIdBound();
+  }
+
+  public int indexOf(Object vertex) {
+    return graph.indexOf(vertex);
+  }
+
+  public V vertexAt(int id) {
+    return graph.vertexAt(id);
+  }
+
+  public int degreeAt(int id) {
+    return graph.degreeAt(id);
+  }
+
+  public Object[] getVertices() {
+    return graph.getVertices();
+  }
+
+  public void addVertex(V vertex) {
+    graph.addVertex(vertex);
+  }
+
+  public void removeVertex(Object vertex) {
+    graph.removeVertex(vertex);
+  }
+
+  public boolean isVertex(Object vertex) {
+    return graph.isVertex(vertex);
+  }
+
+  public int degree(Object vertex) {
+    return graph.degree(vertex);
+  }
+
+  public void removeEdge(Object u, Object v) {
+    graph.removeEdge(u, v);
+  }
+
+  public boolean isEdge(Object u, Object v) {
+    return graph.isEdge(u, v);
+  }
+
+  /**
+   * keysAt() is WUGraph.neighborsAt() with the sort keys of the weights in
+   * place of the weights.
+   *
+   * @return the number of neighbors copied, which is degreeAt(id).
+   *
+   * Running time:  O(d), where d is the degree of the vertex.
+   */
+  public int keysAt(int id, int[] ids, long[] keys) {
+    int degree = graph.storedNeighborsAt(id, ids, keys);
+    for (int i = 0; i < degree; i++) {
+      keys[i] = toKey(keys[i]);
+    }
+    return degree;
+  }
+
+  /**
+   * addEdgeByKey() is WUGraph.addEdge() for the weight whose sort key is
+   * "key".
+   *
+   * Running time:  O(1).
+   */
+  public void addEdgeByKey(V u, V v, long key) {
+    graph.putEdge(u, v, fromKey(key));
+  }
+
+}
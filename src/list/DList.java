@@ -124,6 +124,54 @@ public class DList extends List {
     return head.prev;
   }
 
+  /**
+   *  iterator() returns an unchecked Iterator over the items of this DList,
+   *  from front to back.  Its remove() method removes the last item returned
+   *  in O(1) time, invalidating that item's node.
+   *
+   *  @return an Iterator over the items of this DList.
+   *
+   *  Performance:  each step runs in O(1) time.
+   */
+  public java.util.Iterator<Object> iterator() {
+    return new DListIterator();
+  }
+
+  /**
+   *  A DListIterator walks the node references directly, without the
+   *  validity checks of the ListNode API.
+   */
+  private class DListIterator implements java.util.Iterator<Object> {
+    private DListNode next = head.next;
+    private DListNode last;
+
+    public boolean hasNext() {
+      return next != head;
+    }
+
+    public Object next() {
+      if (next == head) {
+        throw new java.util.NoSuchElementException();
+      }
+      last = next;
+      next = next.next;
+      return last.item;
+    }
+
+    public void remove() {
+      if (last == null) {
+        throw new IllegalStateException();
+      }
+      last.prev.next = last.next;
+      last.next.prev = last.prev;
+      size--;
+      last.myList = null;
+      last.next = null;
+      last.prev = null;
+      last = null;
+    }
+  }
+
   /**
    *  toString() returns a String representation of this DList.
    *
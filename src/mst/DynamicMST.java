@@ -0,0 +1,748 @@
+/* DynamicMST.java */
+
+package mst;
+
+import graph.*;
+import dict.*;
+import set.*;
+
+/**
+ * A DynamicMST maintains a minimum spanning forest of a WUGraph while the
+ * graph is being modified.  It registers itself as a GraphListener, so
+ * every addVertex(), removeVertex(), addEdge() (including weight updates of
+ * existing edges) and removeEdge() on the graph is reflected in the forest
+ * immediately; there is never a need to rerun Kruskal.minSpanTree().
+ *
+ * The forest is kept in a link-cut tree, so inserting an edge (or lowering
+ * its weight) costs O(log |V|) amortized:  a new edge either joins two trees
+ * or replaces the heaviest edge on the cycle it closes.
+ *
+ * Deleting a tree edge (or raising its weight) must find the lightest edge
+ * that joins the two halves again.  A breadth-first search run alternately
+ * from both endpoints finds the smaller half S, of s vertices, in O(s)
+ * time.  The candidates are then read from a sparse certificate rather
+ * than from the whole graph:  k edge-disjoint forests peeled from the
+ * graph in weight order, each a minimum spanning forest of the edges the
+ * earlier ones left over, with k about sqrt(|E| log |E| / |V|).  An edge
+ * left out of the certificate is the heaviest edge of a cycle in each of
+ * the k forests, so until k certificate edges have been deleted or
+ * raised, one of those cycles is intact and crosses every cut the edge
+ * crosses, never more heavily.  Each vertex's certificate edges are sorted
+ * by weight, and the scan of a vertex stops at its first edge that leaves
+ * S; the forests have fewer than k s edges inside S, so the search costs
+ * O(k s) time instead of O(s + d(S)), where d(S) is the total degree of S
+ * in the graph.  Edges added or lowered since the certificate was built
+ * are kept beside it and scanned too.
+ *
+ * After k such deletions or raises (or once the extra edges outnumber the
+ * certificate's) the certificate expires, and replacements are found by
+ * scanning the graph neighbors of S.  Once those scans have cost about as
+ * much as building a certificate, O(|E| log |E|) time, a new one is built.
+ * A change therefore costs O(k |V| + |E| log |E| / k), which is
+ * O(sqrt(|V| |E| log |E|)), amortized in the worst case, and much less
+ * when the smaller half is small, as it usually is.  Deleting a non-tree
+ * edge costs O(log |E|).
+ *
+ * Self-edges never belong to a spanning forest and are ignored.  When
+ * several edges tie for the lightest, the edge already in the forest is
+ * kept.
+ */
+
+public class DynamicMST implements GraphListener {
+
+  private static final int VERTEX_VALUE = Integer.MIN_VALUE;
+  private static final int INITIAL_CAPACITY = 16;
+  /* A new certificate is built once searches of the graph have done this
+   * many steps per vertex and edge.  A step of a search is much cheaper
+   * than a step of building a certificate, so this is about the point
+   * where the searches have cost what a new certificate would.
+   */
+  private static final int REBUILD_RATIO = 64;
+
+  private WUGraph<?> graph;
+  private WUGraph<Object> forest;
+  private LinkCutForest trees;
+  private ObjIntHashTableChained<Object> vertexIds;
+  private ObjIntHashTableChained<Long> edgeNodes;
+  private long totalWeight;
+
+  /* Vertices and tree edges are both nodes of "trees".  vertexAt maps a
+   * vertex node to the application's object (null for edge nodes);
+   * edgeEnd1/edgeEnd2 map an edge node to its endpoints' vertex nodes.
+   */
+  private Object[] vertexAt;
+  private int[] edgeEnd1;
+  private int[] edgeEnd2;
+  private int[] freeNodes;
+  private int freeCount;
+  private int nodeBound;
+
+  private int[] mark;
+  private int epoch;
+  private Search sideA;
+  private Search sideB;
+
+  /* The certificate, while "certified" is true.  It has certForests
+   * forests, so it expires when certForests of the edges it holds have
+   * been deleted or raised ("breaks").  Certificate edge c joins the two
+   * vertex nodes packed in certPairs[c], which is sorted for binary
+   * search; certDead[c] is set once the edge is deleted or reweighted.
+   * Vertex node x's certificate edges, lightest first, are positions
+   * certStart[x]...certStart[x+1]-1 of certTarget (the other endpoint),
+   * certWeight and certEdge (the edge's c), for x below certBound.
+   */
+  private boolean certified;
+  private int certForests;
+  private int breaks;
+  private long[] certPairs;
+  private boolean[] certDead;
+  private int certBound;
+  private int[] certStart;
+  private int[] certTarget;
+  private int[] certWeight;
+  private int[] certEdge;
+  /* Edges added or reweighted since the certificate was built, listed at
+   * both endpoints.  Few vertices have any, so the lists are hashed by
+   * vertex node rather than kept in an array over all nodes.  There are
+   * extraCount of them, at most as many as certificate edges.
+   */
+  private IntHashTableChained<Extra> extras;
+  private int extraCount;
+  /* The work done by searches of the graph since the certificate expired. */
+  private long searchWork;
+
+  /**
+   * DynamicMST() computes a minimum spanning forest of g and subscribes to
+   * g's mutations to keep it current.
+   *
+   * @param g the graph whose minimum spanning forest is maintained.
+   *
+   * Running time:  O(|V| log |V| + |E| log |E|).
+   */
+  public DynamicMST(WUGraph<?> g) {
+    graph = g;
+    forest = new WUGraph<Object>();
+    trees = new LinkCutForest(INITIAL_CAPACITY);
+    vertexIds = new ObjIntHashTableChained<Object>(g.vertexCount());
+    edgeNodes = new ObjIntHashTableChained<Long>(g.vertexCount());
+    vertexAt = new Object[INITIAL_CAPACITY];
+    edgeEnd1 = new int[INITIAL_CAPACITY];
+    edgeEnd2 = new int[INITIAL_CAPACITY];
+    freeNodes = new int[INITIAL_CAPACITY];
+    mark = new int[INITIAL_CAPACITY];
+    sideA = new Search();
+    sideB = new Search();
+    extras = new IntHashTableChained<Extra>();
+
+    Object[] vertices = g.getVertices();
+    for (int i = 0; i < vertices.length; i++) {
+      vertexAdded(vertices[i]);
+    }
+    certify(true);
+    g.addGraphListener(this);
+  }
+
+  /**
+   * detach() unsubscribes from the graph.  The forest is frozen in the state
+   * it had at the time of the call.
+   */
+  public void detach() {
+    graph.removeGraphListener(this);
+  }
+
+  /**
+   * minSpanTree() returns a new WUGraph with the same vertices as the graph
+   * and the edges of its current minimum spanning forest.
+   *
+   * Running time:  O(|V|).
+   */
+  public WUGraph<Object> minSpanTree() {
+    WUGraph<Object> copy = new WUGraph<Object>();
+    Object[] vertices = forest.getVertices();
+    for (int i = 0; i < vertices.length; i++) {
+      copy.addVertex(vertices[i]);
+    }
+    for (int i = 0; i < vertices.length; i++) {
+      Neighbors neighbors = forest.getNeighbors(vertices[i]);
+      if (neighbors != null) {
+        for (int j = 0; j < neighbors.neighborList.length; j++) {
+          copy.addEdge(vertices[i], neighbors.neighborList[j],
+                       neighbors.weightList[j]);
+        }
+      }
+    }
+    return copy;
+  }
+
+  /**
+   * isTreeEdge() returns true if (u, v) is an edge of the current minimum
+   * spanning forest.
+   *
+   * Running time:  O(1).
+   */
+  public boolean isTreeEdge(Object u, Object v) {
+    return forest.isEdge(u, v);
+  }
+
+  /**
+   * treeEdgeCount() returns the number of edges in the current minimum
+   * spanning forest, which is |V| minus the number of connected components.
+   *
+   * Running time:  O(1).
+   */
+  public int treeEdgeCount() {
+    return forest.edgeCount();
+  }
+
+  /**
+   * totalWeight() returns the sum of the weights of the forest's edges.
+   *
+   * Running time:  O(1).
+   */
+  public long totalWeight() {
+    return totalWeight;
+  }
+
+  /**
+   * vertexAdded() adds the new vertex to the forest as a singleton tree.
+   * Called by the graph; applications should not call it.
+   */
+  public void vertexAdded(Object vertex) {
+    int x = allocNode();
+    vertexAt[x] = vertex;
+    trees.reset(x, VERTEX_VALUE);
+    vertexIds.insert(vertex, x);
+    forest.addVertex(vertex);
+  }
+
+  /**
+   * vertexRemoved() drops the (by now isolated) vertex from the forest.
+   * Called by the graph; applications should not call it.
+   */
+  public void vertexRemoved(Object vertex) {
+    int x = vertexIds.remove(vertex, -1);
+    forest.removeVertex(vertex);
+    vertexAt[x] = null;
+    freeNode(x);
+  }
+
+  /**
+   * edgeAdded() offers the new edge to the forest.  Called by the graph;
+   * applications should not call it.
+   */
+  public void edgeAdded(Object u, Object v, int weight) {
+    if (certified && !u.equals(v)) {
+      addExtra(id(u), id(v), weight);
+    }
+    insertEdge(u, v, weight);
+  }
+
+  /**
+   * edgeRemoved() replaces the removed edge if it was a tree edge.  Called
+   * by the graph; applications should not call it.
+   */
+  public void edgeRemoved(Object u, Object v, int weight) {
+    if (u.equals(v)) {
+      return;
+    }
+    int a = id(u);
+    int b = id(v);
+    if (certified) {
+      if (retire(a, b)) {
+        recordBreak();
+      } else {
+        dropExtra(a, b);
+      }
+    }
+    if (forest.isEdge(u, v)) {
+      removeTreeEdge(edgeNode(u, v));
+      reconnect(a, b);
+    }
+  }
+
+  /**
+   * weightChanged() repairs the forest after an edge's weight changed.
+   * Called by the graph; applications should not call it.
+   */
+  public void weightChanged(Object u, Object v, int oldWeight,
+                            int newWeight) {
+    if (u.equals(v)) {
+      return;
+    }
+    int a = id(u);
+    int b = id(v);
+    if (certified) {
+      // Raising an edge the certificate left out cannot make it a better
+      // replacement, so only the other changes are recorded.  Lowering a
+      // certificate edge keeps its cycles light, so only a raise breaks it.
+      boolean held = retire(a, b);
+      boolean extra = !held && dropExtra(a, b);
+      if (held && newWeight > oldWeight) {
+        recordBreak();
+      }
+      if (certified && (held || extra || newWeight < oldWeight)) {
+        addExtra(a, b, newWeight);
+      }
+    }
+    if (forest.isEdge(u, v)) {
+      if (newWeight <= oldWeight) {
+        trees.setValue(edgeNode(u, v), newWeight);
+        forest.addEdge(u, v, newWeight);
+        totalWeight += (long) newWeight - oldWeight;
+      } else {
+        // The heavier edge is still in the graph, so reconnect() will
+        // choose it again if nothing lighter crosses the cut.
+        removeTreeEdge(edgeNode(u, v));
+        reconnect(a, b);
+      }
+    } else if (newWeight < oldWeight) {
+      insertEdge(u, v, newWeight);
+    }
+  }
+
+  /**
+   * insertEdge() adds (u, v) to the forest if it joins two trees, or if it
+   * is lighter than the heaviest edge on the cycle it closes (which is then
+   * evicted).
+   */
+  private void insertEdge(Object u, Object v, int weight) {
+    if (u.equals(v)) {
+      return;
+    }
+    int a = id(u);
+    int b = id(v);
+    if (trees.connected(a, b)) {
+      int heaviest = trees.pathMax(a, b);
+      if (trees.value(heaviest) <= weight) {
+        return;
+      }
+      removeTreeEdge(heaviest);
+    }
+    addTreeEdge(a, b, weight);
+  }
+
+  private void addTreeEdge(int a, int b, int weight) {
+    int e = allocNode();
+    vertexAt[e] = null;
+    edgeEnd1[e] = a;
+    edgeEnd2[e] = b;
+    trees.reset(e, weight);
+    trees.link(a, e);
+    trees.link(e, b);
+    edgeNodes.insert(pairKey(a, b), e);
+    forest.addEdge(vertexAt[a], vertexAt[b], weight);
+    totalWeight += weight;
+  }
+
+  private void removeTreeEdge(int e) {
+    int a = edgeEnd1[e];
+    int b = edgeEnd2[e];
+    trees.cut(a, e);
+    trees.cut(e, b);
+    edgeNodes.remove(pairKey(a, b), -1);
+    forest.removeEdge(vertexAt[a], vertexAt[b]);
+    totalWeight -= trees.value(e);
+    freeNode(e);
+  }
+
+  /**
+   * reconnect() links the trees containing vertex nodes a and b (which were
+   * just separated) with the lightest graph edge between them, if any.
+   */
+  private void reconnect(int a, int b) {
+    if (epoch >= Integer.MAX_VALUE - 2) {
+      java.util.Arrays.fill(mark, 0);
+      epoch = 0;
+    }
+    epoch += 2;
+    sideA.start(a, epoch);
+    sideB.start(b, epoch + 1);
+    Search smaller;
+    while (true) {
+      if (!sideA.step()) {
+        smaller = sideA;
+        break;
+      }
+      if (!sideB.step()) {
+        smaller = sideB;
+        break;
+      }
+    }
+
+    int bestFrom = -1;
+    int bestTo = -1;
+    int bestWeight = 0;
+    for (int i = 0; i < smaller.tail; i++) {
+      int x = smaller.queue[i];
+      if (certified) {
+        // x's certificate edges are sorted, so its first edge leaving the
+        // smaller half is its lightest.
+        int end = (x < certBound) ? certStart[x + 1] : 0;
+        for (int p = (x < certBound) ? certStart[x] : 0; p < end; p++) {
+          if (bestFrom >= 0 && certWeight[p] >= bestWeight) {
+            break;
+          }
+          if (!certDead[certEdge[p]] &&
+              mark[certTarget[p]] != smaller.side) {
+            bestFrom = x;
+            bestTo = certTarget[p];
+            bestWeight = certWeight[p];
+            break;
+          }
+        }
+        for (Extra e = extras.find(x); e != null; e = e.next) {
+          if ((bestFrom < 0 || e.weight < bestWeight) &&
+              mark[e.other] != smaller.side) {
+            bestFrom = x;
+            bestTo = e.other;
+            bestWeight = e.weight;
+          }
+        }
+      } else {
+        Neighbors neighbors = graph.getNeighbors(vertexAt[x]);
+        searchWork++;
+        if (neighbors != null) {
+          searchWork += neighbors.neighborList.length;
+          for (int j = 0; j < neighbors.neighborList.length; j++) {
+            if (bestFrom >= 0 && neighbors.weightList[j] >= bestWeight) {
+              continue;
+            }
+            int y = id(neighbors.neighborList[j]);
+            if (mark[y] != smaller.side) {
+              bestFrom = x;
+              bestTo = y;
+              bestWeight = neighbors.weightList[j];
+            }
+          }
+        }
+      }
+    }
+    if (bestFrom >= 0) {
+      addTreeEdge(bestFrom, bestTo, bestWeight);
+    }
+    if (!certified && searchWork > (long) REBUILD_RATIO *
+                      (graph.vertexCount() + graph.edgeCount())) {
+      certify(false);
+    }
+  }
+
+  /**
+   * certify() builds a new certificate from the graph's current edges.  The
+   * edges are sorted once, and each goes to the first forest in which its
+   * endpoints are not yet connected, if there is one.  If "link" is true,
+   * the first forest, which is a minimum spanning forest, also becomes the
+   * forest maintained; that is how the constructor finds it.
+   *
+   * Running time:  O(|V| + |E| log |E|).
+   */
+  private void certify(boolean link) {
+    int bound = graph.vertexIdBound();
+    int[] nodeOf = new int[bound];
+    int maxDegree = 0;
+    for (int x = 0; x < bound; x++) {
+      Object v = graph.vertexAt(x);
+      nodeOf[x] = (v == null) ? -1 : id(v);
+      maxDegree = Math.max(maxDegree, graph.degreeAt(x));
+    }
+    long[] keys = new long[graph.edgeCount()];
+    int[] ends1 = new int[keys.length];
+    int[] ends2 = new int[keys.length];
+    int[] neighborIds = new int[maxDegree];
+    int[] weights = new int[maxDegree];
+    int m = 0;
+    for (int x = 0; x < bound; x++) {
+      int degree = graph.neighborsAt(x, neighborIds, weights);
+      for (int j = 0; j < degree; j++) {
+        if (neighborIds[j] > x) {
+          keys[m] = EdgeSort.pack(weights[j], m);
+          ends1[m] = nodeOf[x];
+          ends2[m] = nodeOf[neighborIds[j]];
+          m++;
+        }
+      }
+    }
+    EdgeSort.sortKeys(keys, 0, m, new long[m]);
+
+    // k balances the O(k |V|) search against the rebuild, amortized over
+    // k - 1 breaks.
+    double logM = Math.log(Math.max(m, 2)) / Math.log(2);
+    certForests = 1 + (int) Math.ceil(Math.sqrt(
+      m * logM / Math.max(graph.vertexCount(), 1)));
+    certForests = Math.max(certForests, 2);
+    certBound = nodeBound;
+    DisjointSets[] levels = new DisjointSets[certForests];
+    for (int k = 0; k < certForests; k++) {
+      levels[k] = new DisjointSets(certBound);
+    }
+    // The forests' trees are nested:  two vertices joined in one forest
+    // are joined in every earlier one.  So the first forest that does not
+    // join an edge's endpoints is found by binary search.
+    int[] chosen = new int[m];
+    int count = 0;
+    for (int i = 0; i < m; i++) {
+      int e = EdgeSort.index(keys[i]);
+      int lo = 0;
+      int hi = certForests;
+      while (lo < hi) {
+        int mid = (lo + hi) >>> 1;
+        if (levels[mid].find(ends1[e]) == levels[mid].find(ends2[e])) {
+          lo = mid + 1;
+        } else {
+          hi = mid;
+        }
+      }
+      if (lo < certForests) {
+        levels[lo].union(levels[lo].find(ends1[e]), levels[lo].find(ends2[e]));
+        chosen[count++] = i;
+        if (link && lo == 0) {
+          addTreeEdge(ends1[e], ends2[e], EdgeSort.weight(keys[i]));
+        }
+      }
+    }
+
+    // Number the certificate's edges in order of their pairs; rank[k] is
+    // the number of the k-th lightest.
+    certPairs = new long[count];
+    int[] order = new int[count];
+    for (int k = 0; k < count; k++) {
+      int e = EdgeSort.index(keys[chosen[k]]);
+      certPairs[k] = pair(ends1[e], ends2[e]);
+      order[k] = k;
+    }
+    EdgeSort.sortPairs(certPairs, order, count);
+    int[] rank = new int[count];
+    for (int c = 0; c < count; c++) {
+      rank[order[c]] = c;
+    }
+    certDead = new boolean[count];
+
+    // Each vertex's edges, filled lightest first.
+    certStart = new int[certBound + 1];
+    for (int k = 0; k < count; k++) {
+      int e = EdgeSort.index(keys[chosen[k]]);
+      certStart[ends1[e] + 1]++;
+      certStart[ends2[e] + 1]++;
+    }
+    for (int x = 0; x < certBound; x++) {
+      certStart[x + 1] += certStart[x];
+    }
+    certTarget = new int[2 * count];
+    certWeight = new int[2 * count];
+    certEdge = new int[2 * count];
+    int[] fill = java.util.Arrays.copyOf(certStart, certBound);
+    for (int k = 0; k < count; k++) {
+      int e = EdgeSort.index(keys[chosen[k]]);
+      int weight = EdgeSort.weight(keys[chosen[k]]);
+      int p = fill[ends1[e]]++;
+      certTarget[p] = ends2[e];
+      certWeight[p] = weight;
+      certEdge[p] = rank[k];
+      p = fill[ends2[e]]++;
+      certTarget[p] = ends1[e];
+      certWeight[p] = weight;
+      certEdge[p] = rank[k];
+    }
+
+    extras.makeEmpty();
+    extraCount = 0;
+    breaks = 0;
+    certified = true;
+  }
+
+  /**
+   * recordBreak() counts the deletion or raise of an edge the certificate
+   * relies on, and retires the certificate when it can no longer vouch for
+   * the edges it left out.
+   */
+  private void recordBreak() {
+    if (++breaks >= certForests) {
+      expire();
+    }
+  }
+
+  private void expire() {
+    certified = false;
+    certPairs = null;
+    certDead = null;
+    certStart = null;
+    certTarget = null;
+    certWeight = null;
+    certEdge = null;
+    extras.makeEmpty();
+    searchWork = 0;
+  }
+
+  /**
+   * retire() marks the edge joining vertex nodes a and b dead in the
+   * certificate.  Returns true if it was a live certificate edge.
+   */
+  private boolean retire(int a, int b) {
+    int c = java.util.Arrays.binarySearch(certPairs, pair(a, b));
+    if (c >= 0 && !certDead[c]) {
+      certDead[c] = true;
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * dropExtra() removes the edge joining vertex nodes a and b from the
+   * extras.  Returns true if it was there.
+   */
+  private boolean dropExtra(int a, int b) {
+    if (unlink(a, b)) {
+      unlink(b, a);
+      extraCount--;
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * addExtra() records edge (a, b) beside the certificate, or retires the
+   * certificate if it already has as many extras as edges, so that the
+   * extras never cost a search more than the certificate does.
+   */
+  private void addExtra(int a, int b, int weight) {
+    if (extraCount >= certPairs.length) {
+      expire();
+      return;
+    }
+    extras.insert(a, new Extra(b, weight, extras.remove(a)));
+    extras.insert(b, new Extra(a, weight, extras.remove(b)));
+    extraCount++;
+  }
+
+  /**
+   * unlink() removes b from a's list of extras.  Returns true if it was
+   * there.
+   */
+  private boolean unlink(int a, int b) {
+    Extra head = extras.remove(a);
+    boolean found = false;
+    if (head != null && head.other == b) {
+      head = head.next;
+      found = true;
+    } else {
+      for (Extra e = head; e != null && e.next != null; e = e.next) {
+        if (e.next.other == b) {
+          e.next = e.next.next;
+          found = true;
+          break;
+        }
+      }
+    }
+    if (head != null) {
+      extras.insert(a, head);
+    }
+    return found;
+  }
+
+  private int id(Object vertex) {
+    return vertexIds.find(vertex, -1);
+  }
+
+  private int edgeNode(Object u, Object v) {
+    return edgeNodes.find(pairKey(id(u), id(v)), -1);
+  }
+
+  private static Long pairKey(int a, int b) {
+    return Long.valueOf(pair(a, b));
+  }
+
+  /**
+   * pair() packs two node numbers into a long, the smaller first.
+   */
+  private static long pair(int a, int b) {
+    if (a > b) {
+      int tmp = a;
+      a = b;
+      b = tmp;
+    }
+    return ((long) a << 32) | b;
+  }
+
+  private int allocNode() {
+    if (freeCount > 0) {
+      return freeNodes[--freeCount];
+    }
+    if (nodeBound == vertexAt.length) {
+      int size = 2 * nodeBound;
+      vertexAt = java.util.Arrays.copyOf(vertexAt, size);
+      edgeEnd1 = java.util.Arrays.copyOf(edgeEnd1, size);
+      edgeEnd2 = java.util.Arrays.copyOf(edgeEnd2, size);
+      freeNodes = java.util.Arrays.copyOf(freeNodes, size);
+      mark = java.util.Arrays.copyOf(mark, size);
+      trees.ensureCapacity(size);
+    }
+    return nodeBound++;
+  }
+
+  private void freeNode(int x) {
+    freeNodes[freeCount++] = x;
+  }
+
+  /**
+   * An Extra is one endpoint's record of an edge added or reweighted since
+   * the certificate was built:  the other endpoint's node and the weight.
+   */
+  private static class Extra {
+    int other;
+    int weight;
+    Extra next;
+
+    Extra(int other, int weight, Extra next) {
+      this.other = other;
+      this.weight = weight;
+      this.next = next;
+    }
+  }
+
+  /**
+   * A Search is one side of the alternating breadth-first search run by
+   * reconnect().  Every vertex it reaches is marked with "side"; when it
+   * finishes, queue[0...tail-1] holds all the vertices of its tree.
+   */
+  private class Search {
+    int[] queue = new int[INITIAL_CAPACITY];
+    int head;
+    int tail;
+    int side;
+
+    void start(int x, int side) {
+      this.side = side;
+      head = 0;
+      tail = 0;
+      visit(x);
+    }
+
+    /**
+     * step() expands one vertex.  Returns false if the search had already
+     * reached its whole tree.
+     */
+    boolean step() {
+      if (head == tail) {
+        return false;
+      }
+      Neighbors neighbors = forest.getNeighbors(vertexAt[queue[head++]]);
+      if (neighbors != null) {
+        for (int j = 0; j < neighbors.neighborList.length; j++) {
+          int y = id(neighbors.neighborList[j]);
+          if (mark[y] != side) {
+            visit(y);
+          }
+        }
+      }
+      return true;
+    }
+
+    private void visit(int x) {
+      if (tail == queue.length) {
+        queue = java.util.Arrays.copyOf(queue, 2 * tail);
+      }
+      mark[x] = side;
+      queue[tail++] = x;
+    }
+  }
+
+}
@@ -0,0 +1,27 @@
+/* EdgeComparator.java */
+
+package mst;
+
+/**
+ * An EdgeComparator orders edges by their weights and endpoints together,
+ * for orders that a Comparator on weights alone cannot express, such as
+ * breaking ties between equal weights by vertex id.  Each edge is given as
+ * its weight and the vertex ids of its endpoints (see WUGraph.indexOf()),
+ * the smaller id first.
+ *
+ * compare() must be a consistent total preorder on edges.  Edges it ranks
+ * equally are taken in the order the engine collected them.
+ */
+
+public interface EdgeComparator {
+
+  /**
+   * compare() returns a negative number, zero, or a positive number as the
+   * edge (source1, target1) of weight weight1 is preferred to, ranked
+   * equally with, or less preferred than the edge (source2, target2) of
+   * weight weight2.
+   */
+  public int compare(int weight1, int source1, int target1,
+                     int weight2, int source2, int target2);
+
+}
@@ -0,0 +1,72 @@
+/* EdgeFileStream.java */
+
+package mst;
+
+import java.io.*;
+
+/**
+ * An EdgeFileStream reads an edge file written by EdgeFileWriter.  The
+ * file is a big-endian int holding the number of vertices, followed by one
+ * (source, target, weight) triple of ints per edge until end of file.
+ */
+
+public class EdgeFileStream implements EdgeStream {
+
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private DataInputStream in;
+  private int vertexCount;
+  private int source;
+  private int target;
+  private int weight;
+
+  /**
+   * EdgeFileStream() opens an edge file and reads its header.
+   *
+   * @param file the file to read.
+   * @exception IOException if the file cannot be opened or has no header.
+   */
+  public EdgeFileStream(File file) throws IOException {
+    in = new DataInputStream(new BufferedInputStream(
+                               new FileInputStream(file), BUFFER_SIZE));
+    vertexCount = in.readInt();
+  }
+
+  /**
+   * vertexCount() returns the number of vertices recorded in the header.
+   */
+  public int vertexCount() {
+    return vertexCount;
+  }
+
+  public boolean next() throws IOException {
+    try {
+      source = in.readInt();
+    } catch (EOFException e) {
+      return false;
+    }
+    target = in.readInt();
+    weight = in.readInt();
+    return true;
+  }
+
+  public int source() {
+    return source;
+  }
+
+  public int target() {
+    return target;
+  }
+
+  public int weight() {
+    return weight;
+  }
+
+  /**
+   * close() closes the underlying file.
+   */
+  public void close() throws IOException {
+    in.close();
+  }
+
+}
@@ -0,0 +1,58 @@
+/* EdgeFileWriter.java */
+
+package mst;
+
+import java.io.*;
+
+/**
+ * An EdgeFileWriter writes edges to a file in the format read by
+ * EdgeFileStream.
+ */
+
+public class EdgeFileWriter {
+
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private DataOutputStream out;
+  private long edgeCount;
+
+  /**
+   * EdgeFileWriter() creates (or truncates) an edge file and writes its
+   * header.
+   *
+   * @param file the file to write.
+   * @param vertexCount the number of vertices; edges must name vertices
+   *        0...vertexCount-1.
+   * @exception IOException if the file cannot be written.
+   */
+  public EdgeFileWriter(File file, int vertexCount) throws IOException {
+    out = new DataOutputStream(new BufferedOutputStream(
+                                 new FileOutputStream(file), BUFFER_SIZE));
+    out.writeInt(vertexCount);
+  }
+
+  /**
+   * write() appends the edge (u, v) with the specified weight.
+   */
+  public void write(int u, int v, int weight) throws IOException {
+    out.writeInt(u);
+    out.writeInt(v);
+    out.writeInt(weight);
+    edgeCount++;
+  }
+
+  /**
+   * edgeCount() returns the number of edges written so far.
+   */
+  public long edgeCount() {
+    return edgeCount;
+  }
+
+  /**
+   * close() flushes and closes the file.
+   */
+  public void close() throws IOException {
+    out.close();
+  }
+
+}
@@ -0,0 +1,130 @@
+/* EdgeList.java */
+
+package mst;
+
+/**
+ * An EdgeList is a growable list of weighted edges between int-numbered
+ * vertices, stored in three parallel int arrays so that no object is
+ * allocated per edge.
+ */
+
+public class EdgeList {
+
+  private static final int DEFAULT_CAPACITY = 16;
+
+  private int[] sources;
+  private int[] targets;
+  private int[] weights;
+  private int size;
+
+  /**
+   * EdgeList() constructs an empty list with room for "capacity" edges.
+   *
+   * @param capacity the number of edges expected.
+   */
+  public EdgeList(int capacity) {
+    capacity = Math.max(capacity, 1);
+    sources = new int[capacity];
+    targets = new int[capacity];
+    weights = new int[capacity];
+  }
+
+  /**
+   * EdgeList() constructs an empty list with a default capacity.
+   */
+  public EdgeList() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * add() appends the edge (u, v) with the specified weight.
+   *
+   * Running time:  O(1) amortized.
+   */
+  public void add(int u, int v, int weight) {
+    if (size == sources.length) {
+      int capacity = 2 * size;
+      sources = java.util.Arrays.copyOf(sources, capacity);
+      targets = java.util.Arrays.copyOf(targets, capacity);
+      weights = java.util.Arrays.copyOf(weights, capacity);
+    }
+    sources[size] = u;
+    targets[size] = v;
+    weights[size] = weight;
+    size++;
+  }
+
+  /**
+   * size() returns the number of edges in the list.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * source() returns one endpoint of edge i, where 0 <= i < size().
+   */
+  public int source(int i) {
+    return sources[i];
+  }
+
+  /**
+   * target() returns the other endpoint of edge i, where 0 <= i < size().
+   */
+  public int target(int i) {
+    return targets[i];
+  }
+
+  /**
+   * weight() returns the weight of edge i, where 0 <= i < size().
+   */
+  public int weight(int i) {
+    return weights[i];
+  }
+
+  /**
+   * totalWeight() returns the sum of the weights of all the edges.
+   */
+  public long totalWeight() {
+    long total = 0;
+    for (int i = 0; i < size; i++) {
+      total += weights[i];
+    }
+    return total;
+  }
+
+  /**
+   * clear() removes every edge from the list, keeping its capacity.
+   */
+  public void clear() {
+    size = 0;
+  }
+
+  /**
+   * stream() returns an EdgeStream over the edges of this list, in order.
+   * The list should not be modified while the stream is in use.
+   */
+  public EdgeStream stream() {
+    return new EdgeStream() {
+      private int current = -1;
+
+      public boolean next() {
+        current++;
+        return current < size;
+      }
+
+      public int source() {
+        return sources[current];
+      }
+
+      public int target() {
+        return targets[current];
+      }
+
+      public int weight() {
+        return weights[current];
+      }
+    };
+  }
+
+}
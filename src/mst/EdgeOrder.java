@@ -0,0 +1,253 @@
+/* EdgeOrder.java */
+
+package mst;
+
+import java.util.Comparator;
+
+/**
+ * An EdgeOrder tells an MST engine which edges to prefer.  The engines
+ * build the spanning forest that is minimal under the order:  ASCENDING
+ * gives the usual minimum spanning forest, DESCENDING a maximum spanning
+ * forest, comparing() any order on weights a Comparator defines, and
+ * comparingEdges() any order on whole edges an EdgeComparator defines.
+ *
+ * Engines never compare weights directly.  A keyed order maps each weight
+ * to an int key whose ascending order is the edge order (DESCENDING uses
+ * ~weight, which reverses the order without overflow), so the engines
+ * sort and compare plain ints and a maximum spanning tree costs exactly
+ * what a minimum one does.  A comparator order has no such map; Kruskal's
+ * algorithm, which sees all the weights before it sorts, ranks the distinct
+ * weights with the Comparator (or the edges with the EdgeComparator) once
+ * and then sorts the ranks the same way.
+ *
+ * Edges that the order ranks equally are taken in the order the engine
+ * collected them (by vertex id for a WUGraph, by arrival for a stream), so
+ * every engine's result is reproducible.
+ */
+
+public final class EdgeOrder {
+
+  /** Lightest edges first:  minimum spanning forests. */
+  public static final EdgeOrder ASCENDING = new EdgeOrder(false, null, null);
+
+  /** Heaviest edges first:  maximum spanning forests. */
+  public static final EdgeOrder DESCENDING = new EdgeOrder(true, null, null);
+
+  private boolean descending;
+  private Comparator<Integer> comparator;
+  private EdgeComparator edgeComparator;
+
+  private EdgeOrder(boolean descending, Comparator<Integer> comparator,
+                    EdgeComparator edgeComparator) {
+    this.descending = descending;
+    this.comparator = comparator;
+    this.edgeComparator = edgeComparator;
+  }
+
+  /**
+   * comparing() returns the order that prefers weight w1 to w2 when
+   * comparator.compare(w1, w2) < 0.  The comparator must be a consistent
+   * total preorder.  Only engines that see every weight before choosing
+   * edges (Kruskal.minSpanForest()) accept such an order.
+   */
+  public static EdgeOrder comparing(Comparator<Integer> comparator) {
+    if (comparator == null) {
+      throw new IllegalArgumentException("comparator is null");
+    }
+    return new EdgeOrder(false, comparator, null);
+  }
+
+  /**
+   * comparingEdges() returns the order that prefers one edge to another
+   * when comparator.compare() says so, given both edges' weights and
+   * endpoint ids; for example, by weight and then by vertex id.  Like
+   * comparing(), it is a comparator order.
+   */
+  public static EdgeOrder comparingEdges(EdgeComparator comparator) {
+    if (comparator == null) {
+      throw new IllegalArgumentException("comparator is null");
+    }
+    return new EdgeOrder(false, null, comparator);
+  }
+
+  /**
+   * isKeyed() returns true if key() and weight() may be used, that is, if
+   * this is not a comparator order.
+   */
+  public boolean isKeyed() {
+    return comparator == null && edgeComparator == null;
+  }
+
+  /**
+   * key() returns the sort key of "weight" under a keyed order.
+   *
+   * @exception UnsupportedOperationException if this is a comparator order.
+   */
+  public int key(int weight) {
+    if (!isKeyed()) {
+      throw new UnsupportedOperationException("a comparator order has no " +
+                                              "keys");
+    }
+    return descending ? ~weight : weight;
+  }
+
+  /**
+   * weight() returns the weight whose sort key is "key" under a keyed order.
+   *
+   * @exception UnsupportedOperationException if this is a comparator order.
+   */
+  public int weight(int key) {
+    return key(key);
+  }
+
+  /**
+   * wideKey() maps the 64-bit sort key of a wide weight (see
+   * graph.WideWUGraph), which orders weights ascending, to its key under
+   * this keyed order.  It is its own inverse.
+   *
+   * @exception UnsupportedOperationException if this is a comparator order.
+   */
+  public long wideKey(long ascendingKey) {
+    if (!isKeyed()) {
+      throw new UnsupportedOperationException("a comparator order has no " +
+                                              "keys");
+    }
+    return descending ? ~ascendingKey : ascendingKey;
+  }
+
+  /**
+   * requireKeyed() throws an IllegalArgumentException naming "engine" if
+   * this is a comparator order.
+   */
+  void requireKeyed(String engine) {
+    if (!isKeyed()) {
+      throw new IllegalArgumentException(engine + " needs a keyed order, " +
+                                         "not a comparator order");
+    }
+  }
+
+  /**
+   * compare() returns a negative number, zero, or a positive number as the
+   * order prefers weight1, neither, or weight2.
+   *
+   * @exception UnsupportedOperationException if this is an edge order,
+   *            which cannot rank weights without their edges.
+   */
+  public int compare(int weight1, int weight2) {
+    if (edgeComparator != null) {
+      throw new UnsupportedOperationException("an edge order compares " +
+                                              "edges, not weights");
+    }
+    if (comparator != null) {
+      return comparator.compare(weight1, weight2);
+    }
+    return descending ? Integer.compare(weight2, weight1)
+                      : Integer.compare(weight1, weight2);
+  }
+
+  /**
+   * packKeys() sets keys[i] to EdgeSort.pack(k, i), where k is a key of
+   * weights[i] in this order, for 0 <= i < count.  Sorting the packed keys
+   * then orders the edges, equally ranked ones by index.  A comparator
+   * order's keys are the ranks 0, 1, ... of the distinct weights.
+   *
+   * @exception IllegalArgumentException if this is an edge order, which
+   *            needs the edges' endpoints too.
+   *
+   * Running time:  O(count) for a keyed order; O(count log count) for a
+   * comparator order.
+   */
+  public void packKeys(int[] weights, int count, long[] keys) {
+    packKeys(weights, null, null, count, keys);
+  }
+
+  /**
+   * packKeys() is packKeys() for edges whose endpoints' vertex ids are
+   * sources[i] < targets[i], which an edge order ranks by.  An edge order's
+   * keys are the ranks 0, 1, ... of the edges, equal edges sharing a rank.
+   * The other orders ignore the endpoints, which may then be null.
+   *
+   * Running time:  O(count) for a keyed order; O(count log count) for a
+   * comparator order.
+   */
+  public void packKeys(int[] weights, int[] sources, int[] targets, int count,
+                       long[] keys) {
+    if (edgeComparator != null) {
+      if (sources == null || targets == null) {
+        throw new IllegalArgumentException("an edge order needs the " +
+                                           "edges' endpoints");
+      }
+      packEdgeRanks(weights, sources, targets, count, keys);
+      return;
+    }
+    if (comparator == null) {
+      if (descending) {
+        for (int i = 0; i < count; i++) {
+          keys[i] = EdgeSort.pack(~weights[i], i);
+        }
+      } else {
+        for (int i = 0; i < count; i++) {
+          keys[i] = EdgeSort.pack(weights[i], i);
+        }
+      }
+      return;
+    }
+
+    // Rank the distinct weights with the comparator, then look each up.
+    int[] distinct = java.util.Arrays.copyOf(weights, count);
+    java.util.Arrays.sort(distinct);
+    int distinctCount = 0;
+    for (int i = 0; i < count; i++) {
+      if (distinctCount == 0 || distinct[distinctCount - 1] != distinct[i]) {
+        distinct[distinctCount++] = distinct[i];
+      }
+    }
+    Integer[] ordered = new Integer[distinctCount];
+    for (int i = 0; i < distinctCount; i++) {
+      ordered[i] = distinct[i];
+    }
+    java.util.Arrays.sort(ordered, comparator);
+    int[] rank = new int[distinctCount];
+    int current = 0;
+    for (int i = 0; i < distinctCount; i++) {
+      if (i > 0 && comparator.compare(ordered[i - 1], ordered[i]) < 0) {
+        current++;
+      }
+      rank[java.util.Arrays.binarySearch(distinct, 0, distinctCount,
+                                         ordered[i])] = current;
+    }
+    for (int i = 0; i < count; i++) {
+      int position = java.util.Arrays.binarySearch(distinct, 0, distinctCount,
+                                                   weights[i]);
+      keys[i] = EdgeSort.pack(rank[position], i);
+    }
+  }
+
+  /**
+   * packEdgeRanks() packs the rank of every edge under the edge comparator:
+   * it sorts the edge indices with the comparator, then numbers them,
+   * giving equal edges the same rank.
+   */
+  private void packEdgeRanks(final int[] weights, final int[] sources,
+                             final int[] targets, int count, long[] keys) {
+    Integer[] ordered = new Integer[count];
+    for (int i = 0; i < count; i++) {
+      ordered[i] = i;
+    }
+    Comparator<Integer> byEdge = new Comparator<Integer>() {
+      public int compare(Integer e1, Integer e2) {
+        return edgeComparator.compare(weights[e1], sources[e1], targets[e1],
+                                      weights[e2], sources[e2], targets[e2]);
+      }
+    };
+    java.util.Arrays.sort(ordered, byEdge);
+    int current = 0;
+    for (int i = 0; i < count; i++) {
+      if (i > 0 && byEdge.compare(ordered[i - 1], ordered[i]) < 0) {
+        current++;
+      }
+      keys[ordered[i]] = EdgeSort.pack(current, ordered[i]);
+    }
+  }
+
+}
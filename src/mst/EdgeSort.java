@@ -0,0 +1,340 @@
+/* EdgeSort.java */
+
+package mst;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * EdgeSort sorts edges packed into longs.  An edge's sort key holds its
+ * weight in the upper 32 bits and its index (in whatever array holds the
+ * rest of the edge) in the lower 32 bits, so ordinary long comparison
+ * orders keys by weight and breaks ties by index.  Sorting keys therefore
+ * never moves edge objects around, and the order of equal-weight edges is
+ * always the order in which they were collected.
+ */
+
+public class EdgeSort {
+
+  private static final long INDEX_MASK = 0xFFFFFFFFL;
+
+  /** Ranges shorter than this are sorted sequentially by parallelSort(). */
+  public static final int PARALLEL_CUTOFF = 1 << 13;
+
+  /**
+   * sortKeys() uses a counting sort when the number of distinct possible
+   * weights is at most this many times the number of keys.
+   */
+  public static final int COUNTING_RANGE_FACTOR = 2;
+
+  /** Ranges shorter than this are never counting sorted. */
+  private static final int COUNTING_MIN_KEYS = 64;
+
+  /**
+   * pack() returns the sort key of the edge with the specified weight and
+   * index.
+   *
+   * @param weight the edge's weight.
+   * @param index the edge's index, which must be nonnegative.
+   */
+  public static long pack(int weight, int index) {
+    return ((long) weight << 32) | (index & INDEX_MASK);
+  }
+
+  /**
+   * weight() returns the weight stored in a sort key.
+   */
+  public static int weight(long key) {
+    return (int) (key >> 32);
+  }
+
+  /**
+   * index() returns the edge index stored in a sort key.
+   */
+  public static int index(long key) {
+    return (int) key;
+  }
+
+  /**
+   * countsLength() returns the length of a counts buffer big enough for
+   * sortKeys() to counting sort any n keys.
+   */
+  public static int countsLength(int n) {
+    return COUNTING_RANGE_FACTOR * n + 1;
+  }
+
+  /**
+   * sortKeys() sorts keys[from...to-1] into ascending order, as the
+   * five-argument sortKeys() does, and makes a counts buffer only if it
+   * chooses the counting sort.
+   */
+  public static void sortKeys(long[] keys, int from, int to, long[] scratch) {
+    sortKeys(keys, from, to, scratch, null);
+  }
+
+  /**
+   * sortKeys() sorts keys[from...to-1] into ascending order, choosing the
+   * fastest applicable method.  One pass finds the smallest and largest
+   * weights; if the weight range W is small relative to the number of keys
+   * n (W <= COUNTING_RANGE_FACTOR * n), the keys are counting sorted in
+   * O(n + W) time.  Otherwise they are sorted by parallelSort().  Either
+   * way the result is stable.
+   *
+   * @param keys the keys to sort.
+   * @param from the first index to sort, inclusive.
+   * @param to the last index to sort, exclusive.
+   * @param scratch a buffer the sort may overwrite.
+   * @param counts a buffer of at least countsLength(to - from) ints the
+   *        counting sort may overwrite, or null to make one if needed.
+   */
+  public static void sortKeys(long[] keys, int from, int to, long[] scratch,
+                              int[] counts) {
+    int n = to - from;
+    if (n >= COUNTING_MIN_KEYS) {
+      int min = Integer.MAX_VALUE;
+      int max = Integer.MIN_VALUE;
+      for (int i = from; i < to; i++) {
+        int w = weight(keys[i]);
+        if (w < min) {
+          min = w;
+        }
+        if (w > max) {
+          max = w;
+        }
+      }
+      if ((long) max - min + 1 <= (long) COUNTING_RANGE_FACTOR * n) {
+        if (counts == null) {
+          counts = new int[countsLength(n)];
+        }
+        countingSort(keys, from, to, scratch, counts, min, max);
+        return;
+      }
+    }
+    parallelSort(keys, from, to, scratch);
+  }
+
+  /**
+   * countingSort() stably sorts keys[from...to-1], whose weights all lie in
+   * the range min...max, by counting the keys of each weight in
+   * counts[0...max-min+1].  It allocates nothing.
+   *
+   * @param counts a buffer of at least max - min + 2 ints it may overwrite.
+   *
+   * Running time:  O(n + max - min).
+   */
+  public static void countingSort(long[] keys, int from, int to,
+                                  long[] scratch, int[] counts, int min,
+                                  int max) {
+    int length = max - min + 2;
+    java.util.Arrays.fill(counts, 0, length, 0);
+    for (int i = from; i < to; i++) {
+      counts[weight(keys[i]) - min + 1]++;
+    }
+    // Prefix sums turn the counts into each weight's first position.
+    counts[0] = from;
+    for (int w = 1; w < length; w++) {
+      counts[w] += counts[w - 1];
+    }
+    for (int i = from; i < to; i++) {
+      scratch[counts[weight(keys[i]) - min]++] = keys[i];
+    }
+    System.arraycopy(scratch, from, keys, from, to - from);
+  }
+
+  /**
+   * sortPairs() sorts 64-bit signed keys that are too wide to pack with an
+   * edge index, together with the parallel array of their edge indices:
+   * keys[0...count-1] are sorted into ascending order and indices[i] moves
+   * with keys[i].  It is a least-significant-byte-first radix sort, so it
+   * is stable (equal keys keep their order) and takes O(count) time; byte
+   * positions where all the keys agree are skipped.
+   *
+   * @param keys the keys to sort.
+   * @param indices the values that move with the keys.
+   * @param count the number of keys.
+   */
+  public static void sortPairs(long[] keys, int[] indices, int count) {
+    long[] keyScratch = new long[count];
+    int[] indexScratch = new int[count];
+    int[] starts = new int[257];
+    for (int shift = 0; shift < 64; shift += 8) {
+      // Flip the sign bit of the top byte, so negative keys come first.
+      int flip = (shift == 56) ? 0x80 : 0;
+      java.util.Arrays.fill(starts, 0);
+      for (int i = 0; i < count; i++) {
+        starts[((int) (keys[i] >>> shift) & 0xFF ^ flip) + 1]++;
+      }
+      if (count == 0 ||
+          starts[((int) (keys[0] >>> shift) & 0xFF ^ flip) + 1] == count) {
+        continue;
+      }
+      for (int b = 1; b < starts.length; b++) {
+        starts[b] += starts[b - 1];
+      }
+      for (int i = 0; i < count; i++) {
+        int position = starts[(int) (keys[i] >>> shift) & 0xFF ^ flip]++;
+        keyScratch[position] = keys[i];
+        indexScratch[position] = indices[i];
+      }
+      System.arraycopy(keyScratch, 0, keys, 0, count);
+      System.arraycopy(indexScratch, 0, indices, 0, count);
+    }
+  }
+
+  /**
+   * sort() sorts keys[from...to-1] into ascending order with a merge sort
+   * that uses "scratch" (which must be at least as long as "keys") as its
+   * only working storage.
+   *
+   * @param keys the keys to sort.
+   * @param from the first index to sort, inclusive.
+   * @param to the last index to sort, exclusive.
+   * @param scratch a buffer the sort may overwrite.
+   *
+   * Running time:  O(n log n), where n = to - from.
+   */
+  public static void sort(long[] keys, int from, int to, long[] scratch) {
+    if (to - from < 2) {
+      return;
+    }
+    int mid = (from + to) >>> 1;
+    sort(keys, from, mid, scratch);
+    sort(keys, mid, to, scratch);
+    merge(keys, from, mid, to, scratch);
+  }
+
+  /**
+   * parallelSort() sorts keys[from...to-1] into ascending order with a
+   * fork-join merge sort:  the two halves of every range longer than
+   * PARALLEL_CUTOFF are sorted in parallel, and shorter ranges are sorted
+   * by sort().  "scratch" (at least as long as "keys") is the only working
+   * storage; disjoint ranges of it are used by concurrent tasks.  Like
+   * sort(), the result is stable, although with packed keys no two keys
+   * are ever equal.
+   *
+   * @param keys the keys to sort.
+   * @param from the first index to sort, inclusive.
+   * @param to the last index to sort, exclusive.
+   * @param scratch a buffer the sort may overwrite.
+   *
+   * Running time:  O(n log n) work, O(n) span, where n = to - from.
+   */
+  public static void parallelSort(long[] keys, int from, int to,
+                                  long[] scratch) {
+    if (to - from <= PARALLEL_CUTOFF) {
+      sort(keys, from, to, scratch);
+    } else {
+      ForkJoinPool.commonPool().invoke(new SortTask(keys, from, to, scratch));
+    }
+  }
+
+  /**
+   * A SortTask sorts one range of keys, forking a subtask per half.
+   */
+  private static class SortTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private long[] keys;
+    private long[] scratch;
+    private int from;
+    private int to;
+
+    SortTask(long[] keys, int from, int to, long[] scratch) {
+      this.keys = keys;
+      this.from = from;
+      this.to = to;
+      this.scratch = scratch;
+    }
+
+    protected void compute() {
+      if (to - from <= PARALLEL_CUTOFF) {
+        sort(keys, from, to, scratch);
+        return;
+      }
+      int mid = (from + to) >>> 1;
+      invokeAll(new SortTask(keys, from, mid, scratch),
+                new SortTask(keys, mid, to, scratch));
+      merge(keys, from, mid, to, scratch);
+    }
+  }
+
+  /**
+   * merge() merges the sorted runs keys[from...mid-1] and keys[mid...to-1]
+   * into a single sorted run in place, using "scratch" as working storage.
+   */
+  static void merge(long[] keys, int from, int mid, int to, long[] scratch) {
+    if (keys[mid - 1] <= keys[mid]) {
+      return;                                            // already in order
+    }
+    System.arraycopy(keys, from, scratch, from, to - from);
+    int l = from;
+    int r = mid;
+    int s = from;
+    while (l < mid && r < to) {
+      if (scratch[r] < scratch[l]) {
+        keys[s++] = scratch[r++];
+      } else {
+        keys[s++] = scratch[l++];
+      }
+    }
+    while (l < mid) {
+      keys[s++] = scratch[l++];
+    }
+    while (r < to) {
+      keys[s++] = scratch[r++];
+    }
+  }
+
+  /**
+   * main() checks sortKeys() against java.util.Arrays.sort() on ranges
+   * whose weights are dense enough for the counting sort, reusing one
+   * counts buffer (left dirty by the previous sort) throughout.  As in
+   * Kruskal, the keys are packed in collection order, so a stable sort by
+   * weight sorts them completely.  Then it checks parallelSort() against
+   * Arrays.sort() on a million keys.
+   */
+  public static void main(String[] args) {
+    java.util.Random random = new java.util.Random(30);
+    int failures = 0;
+    int[] counts = new int[countsLength(1 << 16)];
+    for (int trial = 0; trial < 200; trial++) {
+      int n = COUNTING_MIN_KEYS + random.nextInt(1 << 16 - trial / 20);
+      int from = random.nextInt(16);
+      int range = 1 + random.nextInt(COUNTING_RANGE_FACTOR * n);
+      int min = random.nextInt() / 2;
+      long[] keys = new long[from + n + random.nextInt(16)];
+      for (int i = 0; i < keys.length; i++) {
+        keys[i] = pack(min + random.nextInt(range), i);
+      }
+      long[] expected = keys.clone();
+      java.util.Arrays.sort(expected, from, from + n);
+      sortKeys(keys, from, from + n, new long[keys.length], counts);
+      if (!java.util.Arrays.equals(keys, expected)) {
+        failures++;
+      }
+    }
+    System.out.println("Counting sort:  " + failures +
+                       " mismatches with Arrays.sort in 200 ranges.");
+
+    // A million keys with full-range weights, far past PARALLEL_CUTOFF,
+    // so parallelSort() forks and merges across the pool.
+    int n = 1000000;
+    long[] keys = new long[n];
+    for (int i = 0; i < n; i++) {
+      keys[i] = pack(random.nextInt(), i);
+    }
+    long[] expected = keys.clone();
+    long start = System.nanoTime();
+    java.util.Arrays.sort(expected);
+    long arraysNanos = System.nanoTime() - start;
+    start = System.nanoTime();
+    parallelSort(keys, 0, n, new long[n]);
+    long parallelNanos = System.nanoTime() - start;
+    System.out.println("Parallel sort of " + n + " keys:  " +
+                       (java.util.Arrays.equals(keys, expected) ? "matches"
+                                                                : "DIFFERS") +
+                       " Arrays.sort; " + parallelNanos / 1000000 +
+                       " ms against " + arraysNanos / 1000000 + " ms.");
+  }
+
+}
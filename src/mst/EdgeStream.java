@@ -0,0 +1,43 @@
+/* EdgeStream.java */
+
+package mst;
+
+import java.io.IOException;
+
+/**
+ * An EdgeStream delivers the edges of a graph one at a time, in a single
+ * pass, without requiring them all to be in memory.  Vertices are named by
+ * the ints 0...n-1.  Typical use:
+ *
+ *   while (in.next()) {
+ *     process(in.source(), in.target(), in.weight());
+ *   }
+ */
+
+public interface EdgeStream {
+
+  /**
+   * next() advances to the next edge.
+   *
+   * @return true if there is a current edge; false if the stream is
+   *         exhausted.
+   * @exception IOException if the underlying source cannot be read.
+   */
+  public boolean next() throws IOException;
+
+  /**
+   * source() returns one endpoint of the current edge.
+   */
+  public int source();
+
+  /**
+   * target() returns the other endpoint of the current edge.
+   */
+  public int target();
+
+  /**
+   * weight() returns the weight of the current edge.
+   */
+  public int weight();
+
+}
@@ -0,0 +1,525 @@
+/* EuclideanMST.java */
+
+package mst;
+
+import graph.*;
+import set.*;
+
+/**
+ * A EuclideanMST is the minimum spanning tree of a set of points in any
+ * number of dimensions, where the weight of an edge is the Euclidean
+ * distance between its endpoints.  The complete graph on the points is
+ * never built:  the tree is found in O(n) memory by Boruvka's algorithm,
+ * with a k-d tree answering "which point outside my component is nearest"
+ * for every point in each round.
+ *
+ * Each round, every component finds its shortest edge to another
+ * component, and all those edges join the tree.  A component's nearest
+ * point search skips any k-d tree node whose points all lie in the
+ * component, and any node farther away than the best edge found so far by
+ * any point of the component.  A point's nearest outside point, or a lower
+ * bound on its distance, is remembered between rounds, so most points need
+ * no search at all after the first round.  There are at most log n rounds,
+ * and in practice each takes close to O(n log n) time.  Equal distances are
+ * broken by the endpoints' numbers, so the tree is exact even when many
+ * distances tie.
+ */
+
+public class EuclideanMST {
+
+  private static final int LEAF_SIZE = 8;
+
+  private int n;
+  private int dimension;
+  private double[] coords;
+
+  /* The tree's edges:  edge i joins points sources[i] and targets[i]. */
+  private int[] sources;
+  private int[] targets;
+  private double[] lengths;
+  private int edgeCount;
+  private double totalLength;
+
+  /* The k-d tree.  Node k covers points perm[nodeLo[k]]...perm[nodeHi[k]-1],
+   * whose coordinates lie in the box boxMin/boxMax[k*dimension + d].  An
+   * inner node's children are lowChild[k] and highChild[k]; a leaf's are
+   * -1.  Children always follow their parent, so a backward sweep visits
+   * children first.  nodeComponent[k] is the component of all the node's
+   * points, or -1 if they are not all in one component.
+   */
+  private int[] perm;
+  private int nodeCount;
+  private int[] nodeLo;
+  private int[] nodeHi;
+  private int[] lowChild;
+  private int[] highChild;
+  private double[] boxMin;
+  private double[] boxMax;
+  private int[] nodeComponent;
+
+  /* State of a round.  component[x] is point x's component (the root of
+   * its disjoint set).  For a component c, bestDistance[c] is the squared
+   * length of its shortest edge found so far, from bestFrom[c] to bestTo[c].
+   *
+   * Carried between rounds:  nearestPoint[x] is the nearest point outside
+   * x's component when it was last searched for, at squared distance
+   * nearestDistance[x]; or -1 if only a lower bound nearestDistance[x] on
+   * that distance is known.  Components only grow, so the distance to the
+   * nearest outside point never shrinks, and nearestPoint[x] stays nearest
+   * as long as it stays outside.
+   */
+  private int[] component;
+  private double[] bestDistance;
+  private int[] bestFrom;
+  private int[] bestTo;
+  private int[] nearestPoint;
+  private double[] nearestDistance;
+
+  /**
+   * EuclideanMST() finds the minimum spanning tree of the points.  Point i
+   * has coordinates points[i][0...dimension-1]; all points must have the
+   * same dimension.  The array is copied, not kept.
+   *
+   * Running time:  O(n log^2 n) in practice.
+   */
+  public EuclideanMST(double[][] points) {
+    n = points.length;
+    dimension = (n == 0) ? 0 : points[0].length;
+    coords = new double[n * dimension];
+    for (int i = 0; i < n; i++) {
+      if (points[i].length != dimension) {
+        throw new IllegalArgumentException("point " + i + " has " +
+                                           points[i].length + " coordinates," +
+                                           " not " + dimension);
+      }
+      System.arraycopy(points[i], 0, coords, i * dimension, dimension);
+    }
+    sources = new int[Math.max(n - 1, 0)];
+    targets = new int[sources.length];
+    lengths = new double[sources.length];
+    if (n > 1) {
+      buildTree();
+      boruvka();
+    }
+    // Only the edges are kept.
+    perm = nodeLo = nodeHi = lowChild = highChild = nodeComponent = null;
+    component = bestFrom = bestTo = nearestPoint = null;
+    boxMin = boxMax = bestDistance = nearestDistance = null;
+  }
+
+  /**
+   * buildTree() builds the k-d tree, splitting each node at the median of
+   * its widest coordinate.
+   */
+  private void buildTree() {
+    perm = new int[n];
+    for (int i = 0; i < n; i++) {
+      perm[i] = i;
+    }
+    // Every leaf holds at least LEAF_SIZE / 2 points.
+    int maxNodes = 4 * (n / LEAF_SIZE) + 3;
+    nodeLo = new int[maxNodes];
+    nodeHi = new int[maxNodes];
+    lowChild = new int[maxNodes];
+    highChild = new int[maxNodes];
+    nodeComponent = new int[maxNodes];
+    boxMin = new double[maxNodes * dimension];
+    boxMax = new double[maxNodes * dimension];
+    build(0, n);
+  }
+
+  /**
+   * build() makes a node for points perm[lo...hi-1], and its subtree, and
+   * returns its number.
+   */
+  private int build(int lo, int hi) {
+    int k = nodeCount++;
+    nodeLo[k] = lo;
+    nodeHi[k] = hi;
+    int base = k * dimension;
+    for (int d = 0; d < dimension; d++) {
+      boxMin[base + d] = Double.POSITIVE_INFINITY;
+      boxMax[base + d] = Double.NEGATIVE_INFINITY;
+    }
+    for (int p = lo; p < hi; p++) {
+      int point = perm[p] * dimension;
+      for (int d = 0; d < dimension; d++) {
+        boxMin[base + d] = Math.min(boxMin[base + d], coords[point + d]);
+        boxMax[base + d] = Math.max(boxMax[base + d], coords[point + d]);
+      }
+    }
+    if (hi - lo <= LEAF_SIZE) {
+      lowChild[k] = -1;
+      highChild[k] = -1;
+      return k;
+    }
+    int widest = 0;
+    for (int d = 1; d < dimension; d++) {
+      if (boxMax[base + d] - boxMin[base + d] >
+          boxMax[base + widest] - boxMin[base + widest]) {
+        widest = d;
+      }
+    }
+    int mid = (lo + hi) >>> 1;
+    select(lo, hi, mid, widest);
+    lowChild[k] = build(lo, mid);
+    highChild[k] = build(mid, hi);
+    return k;
+  }
+
+  /**
+   * select() rearranges perm[lo...hi-1] so that the point at position
+   * "nth" has the coordinate d it would have if they were sorted by it,
+   * with no larger coordinate before it and no smaller one after it.
+   */
+  private void select(int lo, int hi, int nth, int d) {
+    hi--;
+    while (lo < hi) {
+      double pivot = coords[perm[(lo + hi) >>> 1] * dimension + d];
+      int i = lo;
+      int j = hi;
+      while (i <= j) {
+        while (coords[perm[i] * dimension + d] < pivot) {
+          i++;
+        }
+        while (coords[perm[j] * dimension + d] > pivot) {
+          j--;
+        }
+        if (i <= j) {
+          int tmp = perm[i];
+          perm[i] = perm[j];
+          perm[j] = tmp;
+          i++;
+          j--;
+        }
+      }
+      if (nth <= j) {
+        hi = j;
+      } else if (nth >= i) {
+        lo = i;
+      } else {
+        return;
+      }
+    }
+  }
+
+  /**
+   * boruvka() runs rounds until the points form one component.
+   */
+  private void boruvka() {
+    DisjointSets sets = new DisjointSets(n);
+    component = new int[n];
+    bestDistance = new double[n];
+    bestFrom = new int[n];
+    bestTo = new int[n];
+    nearestPoint = new int[n];
+    nearestDistance = new double[n];
+    for (int x = 0; x < n; x++) {
+      component[x] = x;
+      nearestPoint[x] = -1;
+    }
+    while (edgeCount < n - 1) {
+      labelNodes();
+      for (int x = 0; x < n; x++) {
+        bestDistance[component[x]] = Double.POSITIVE_INFINITY;
+      }
+      // Points whose nearest outside point is still outside need no search.
+      for (int x = 0; x < n; x++) {
+        int y = nearestPoint[x];
+        if (y >= 0 && component[y] != component[x]) {
+          offer(x, y, nearestDistance[x]);
+        } else {
+          nearestPoint[x] = -1;
+        }
+      }
+      // Visit the points in k-d tree order, so neighbors search together.
+      for (int p = 0; p < n; p++) {
+        int x = perm[p];
+        int c = component[x];
+        if (nearestPoint[x] >= 0 || nearestDistance[x] > bestDistance[c]) {
+          continue;
+        }
+        // If the search improves on c's best edge, it has found x's nearest
+        // outside point; if not, c's best distance bounds it from below.
+        double bound = bestDistance[c];
+        if (boxDistance(0, x) <= bound) {
+          nearest(0, x, c);
+        }
+        if (bestFrom[c] == x && bestDistance[c] < bound) {
+          nearestPoint[x] = bestTo[c];
+          nearestDistance[x] = bestDistance[c];
+        } else {
+          nearestDistance[x] = bound;
+        }
+      }
+      for (int x = 0; x < n; x++) {
+        if (component[x] != x) {
+          continue;
+        }
+        int root1 = sets.find(bestFrom[x]);
+        int root2 = sets.find(bestTo[x]);
+        if (root1 != root2) {
+          sets.union(root1, root2);
+          sources[edgeCount] = bestFrom[x];
+          targets[edgeCount] = bestTo[x];
+          lengths[edgeCount] = Math.sqrt(bestDistance[x]);
+          totalLength += lengths[edgeCount];
+          edgeCount++;
+        }
+      }
+      for (int x = 0; x < n; x++) {
+        component[x] = sets.find(x);
+      }
+    }
+  }
+
+  /**
+   * labelNodes() sets nodeComponent for every k-d tree node, children first.
+   */
+  private void labelNodes() {
+    for (int k = nodeCount - 1; k >= 0; k--) {
+      int label;
+      if (lowChild[k] < 0) {
+        label = component[perm[nodeLo[k]]];
+        for (int p = nodeLo[k] + 1; p < nodeHi[k]; p++) {
+          if (component[perm[p]] != label) {
+            label = -1;
+            break;
+          }
+        }
+      } else {
+        label = nodeComponent[lowChild[k]];
+        if (label != nodeComponent[highChild[k]]) {
+          label = -1;
+        }
+      }
+      nodeComponent[k] = label;
+    }
+  }
+
+  /**
+   * nearest() looks in node k's subtree for a point outside component c
+   * that is closer to point x than component c's best edge so far, and
+   * makes it the new best edge.
+   */
+  private void nearest(int k, int x, int c) {
+    if (nodeComponent[k] == c) {
+      return;
+    }
+    if (lowChild[k] >= 0) {
+      int first = lowChild[k];
+      int second = highChild[k];
+      double firstDistance = boxDistance(first, x);
+      double secondDistance = boxDistance(second, x);
+      if (secondDistance < firstDistance) {
+        first = highChild[k];
+        second = lowChild[k];
+        double tmp = firstDistance;
+        firstDistance = secondDistance;
+        secondDistance = tmp;
+      }
+      if (firstDistance <= bestDistance[c]) {
+        nearest(first, x, c);
+      }
+      if (secondDistance <= bestDistance[c]) {
+        nearest(second, x, c);
+      }
+      return;
+    }
+    for (int p = nodeLo[k]; p < nodeHi[k]; p++) {
+      int y = perm[p];
+      if (component[y] != c) {
+        offer(x, y, distance(x, y));
+      }
+    }
+  }
+
+  /**
+   * offer() makes (x, y), of squared length "distance", the best edge of
+   * x's component if it is shorter than the best so far.
+   */
+  private void offer(int x, int y, double distance) {
+    int c = component[x];
+    if (distance < bestDistance[c] ||
+        (distance == bestDistance[c] &&
+         before(x, y, bestFrom[c], bestTo[c]))) {
+      bestDistance[c] = distance;
+      bestFrom[c] = x;
+      bestTo[c] = y;
+    }
+  }
+
+  /**
+   * before() returns true if the edge (x1, y1) comes before (x2, y2) in the
+   * order that breaks ties between equal lengths.
+   */
+  private static boolean before(int x1, int y1, int x2, int y2) {
+    int low1 = Math.min(x1, y1);
+    int low2 = Math.min(x2, y2);
+    if (low1 != low2) {
+      return low1 < low2;
+    }
+    return Math.max(x1, y1) < Math.max(x2, y2);
+  }
+
+  /**
+   * distance() returns the squared distance between points x and y.
+   */
+  private double distance(int x, int y) {
+    double sum = 0.0;
+    int px = x * dimension;
+    int py = y * dimension;
+    for (int d = 0; d < dimension; d++) {
+      double delta = coords[px + d] - coords[py + d];
+      sum += delta * delta;
+    }
+    return sum;
+  }
+
+  /**
+   * boxDistance() returns the squared distance from point x to the nearest
+   * point of node k's box.
+   */
+  private double boxDistance(int k, int x) {
+    double sum = 0.0;
+    int base = k * dimension;
+    int px = x * dimension;
+    for (int d = 0; d < dimension; d++) {
+      double coord = coords[px + d];
+      double delta = 0.0;
+      if (coord < boxMin[base + d]) {
+        delta = boxMin[base + d] - coord;
+      } else if (coord > boxMax[base + d]) {
+        delta = coord - boxMax[base + d];
+      }
+      sum += delta * delta;
+    }
+    return sum;
+  }
+
+  /**
+   * edgeCount() returns the number of edges in the tree, which is one less
+   * than the number of points (or zero if there are none).
+   */
+  public int edgeCount() {
+    return edgeCount;
+  }
+
+  /**
+   * source() returns one endpoint of edge i, where 0 <= i < edgeCount().
+   */
+  public int source(int i) {
+    return sources[i];
+  }
+
+  /**
+   * target() returns the other endpoint of edge i.
+   */
+  public int target(int i) {
+    return targets[i];
+  }
+
+  /**
+   * length() returns the Euclidean length of edge i.
+   */
+  public double length(int i) {
+    return lengths[i];
+  }
+
+  /**
+   * totalLength() returns the sum of the lengths of the tree's edges.
+   */
+  public double totalLength() {
+    return totalLength;
+  }
+
+  /**
+   * toGraph() returns a new WUGraph holding the tree, using vertices[i] as
+   * the application's object for point i, and Math.round(length * scale)
+   * as the integer weight of each edge.
+   *
+   * @param vertices an array with one object per point.
+   * @param scale the factor applied to lengths before rounding.
+   */
+  public <V> WUGraph<V> toGraph(V[] vertices, double scale) {
+    WUGraph<V> t = new WUGraph<V>();
+    for (int i = 0; i < n; i++) {
+      t.addVertex(vertices[i]);
+    }
+    for (int i = 0; i < edgeCount; i++) {
+      t.addEdge(vertices[sources[i]], vertices[targets[i]],
+                (int) Math.round(lengths[i] * scale));
+    }
+    return t;
+  }
+
+  /**
+   * primLength() returns the length of the minimum spanning tree of the
+   * points found by Prim's algorithm on the complete graph, in O(n^2)
+   * time.  It is used by main() as a reference.
+   */
+  private static double primLength(double[][] points) {
+    int n = points.length;
+    double[] distance = new double[n];
+    boolean[] inTree = new boolean[n];
+    java.util.Arrays.fill(distance, Double.POSITIVE_INFINITY);
+    distance[0] = 0.0;
+    double total = 0.0;
+    for (int step = 0; step < n; step++) {
+      int next = -1;
+      for (int x = 0; x < n; x++) {
+        if (!inTree[x] && (next < 0 || distance[x] < distance[next])) {
+          next = x;
+        }
+      }
+      inTree[next] = true;
+      total += Math.sqrt(distance[next]);
+      for (int x = 0; x < n; x++) {
+        double sum = 0.0;
+        for (int d = 0; d < points[x].length; d++) {
+          double delta = points[x][d] - points[next][d];
+          sum += delta * delta;
+        }
+        distance[x] = Math.min(distance[x], sum);
+      }
+    }
+    return total;
+  }
+
+  /**
+   * main() checks the tree's length against Prim's algorithm for random
+   * points in two and three dimensions, including points on a grid (many
+   * equal distances), then times a larger point set.
+   */
+  public static void main(String[] args) {
+    java.util.Random random = new java.util.Random(45);
+    for (int dimension = 2; dimension <= 3; dimension++) {
+      for (int grid = 0; grid <= 1; grid++) {
+        double[][] points = new double[3000][dimension];
+        for (int i = 0; i < points.length; i++) {
+          for (int d = 0; d < dimension; d++) {
+            points[i][d] = (grid == 1) ? random.nextInt(20)
+                                       : random.nextDouble();
+          }
+        }
+        EuclideanMST tree = new EuclideanMST(points);
+        double expected = primLength(points);
+        System.out.println(dimension + "D" + (grid == 1 ? " grid" : "") +
+                           ":  " + tree.edgeCount() + " edges, length " +
+                           tree.totalLength() + "; Prim's length " +
+                           expected);
+      }
+    }
+
+    double[][] points = new double[1000000][2];
+    for (int i = 0; i < points.length; i++) {
+      points[i][0] = random.nextDouble();
+      points[i][1] = random.nextDouble();
+    }
+    long start = System.nanoTime();
+    EuclideanMST tree = new EuclideanMST(points);
+    System.out.println("Tree of " + points.length + " random points found " +
+                       "in " + (System.nanoTime() - start) / 1000000 + " ms.");
+  }
+
+}
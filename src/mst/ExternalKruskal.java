@@ -0,0 +1,484 @@
+/* ExternalKruskal.java */
+
+package mst;
+
+import set.*;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * ExternalKruskal runs Kruskal's algorithm on an edge stream too large to
+ * sort in memory.  Edges are read in chunks that fit in a fixed memory
+ * budget; each chunk is sorted and spilled to a temporary file as a sorted
+ * run.  The runs are then merged through a heap, and the merged sequence
+ * feeds the union-find scan directly, so the fully sorted edge list never
+ * exists anywhere.  If the whole stream fits in one chunk, nothing is
+ * written to disk.
+ *
+ * The budget covers the edge chunks and the merge buffers.  The union-find
+ * array and the resulting forest take O(|V|) memory on top of it.  Runs are
+ * merged in a single pass, so the budget should be large enough that each
+ * run gets a reasonable read buffer (a few kilobytes at least).
+ *
+ * Given a keyed EdgeOrder, the engine sorts, spills and merges the edges'
+ * sort keys instead of their weights, and so returns the forest that is
+ * minimal under that order (a maximum spanning forest, for DESCENDING).
+ */
+
+public class ExternalKruskal {
+
+  /** The size of an edge in a run file:  key, source, target. */
+  public static final int RECORD_BYTES = 12;
+
+  /**
+   * Bytes of budget used per edge while a chunk is being sorted:  the key,
+   * its scratch copy and its endpoints, and the counting sort's counters.
+   */
+  private static final int CHUNK_BYTES_PER_EDGE =
+    24 + 4 * EdgeSort.COUNTING_RANGE_FACTOR;
+  private static final int MIN_BUFFER_RECORDS = 256;
+  private static final long BYTES_PER_MB = 1024L * 1024L;
+
+  private long memoryBytes;
+  private File tempDir;
+  private EdgeOrder order;
+
+  /**
+   * ExternalKruskal() constructs an engine that uses about "memoryMB"
+   * megabytes for edges, spilling runs to the default temporary directory.
+   *
+   * @param memoryMB the memory budget in megabytes; at least 1.
+   */
+  public ExternalKruskal(int memoryMB) {
+    this(memoryMB, null);
+  }
+
+  /**
+   * ExternalKruskal() constructs an engine that uses about "memoryMB"
+   * megabytes for edges, spilling runs to "tempDir".
+   *
+   * @param memoryMB the memory budget in megabytes; at least 1.
+   * @param tempDir the directory for run files, or null for the system's
+   *        default temporary directory.
+   */
+  public ExternalKruskal(int memoryMB, File tempDir) {
+    this(memoryMB, tempDir, EdgeOrder.ASCENDING);
+  }
+
+  /**
+   * ExternalKruskal() constructs an engine that uses about "memoryMB"
+   * megabytes for edges, spilling runs to "tempDir", and finds forests
+   * that are minimal under "order".
+   *
+   * @param memoryMB the memory budget in megabytes; at least 1.
+   * @param tempDir the directory for run files, or null for the system's
+   *        default temporary directory.
+   * @param order a keyed order (see EdgeOrder.isKeyed()).
+   * @exception IllegalArgumentException if "order" is a comparator order.
+   */
+  public ExternalKruskal(int memoryMB, File tempDir, EdgeOrder order) {
+    if (memoryMB < 1) {
+      throw new IllegalArgumentException("memory budget must be at least 1MB");
+    }
+    order.requireKeyed("ExternalKruskal");
+    memoryBytes = memoryMB * BYTES_PER_MB;
+    this.tempDir = tempDir;
+    this.order = order;
+  }
+
+  /**
+   * minSpanForest() returns the edges of a minimum spanning forest of the
+   * graph whose edges are delivered by "in".  Equal-weight edges are
+   * considered in stream order, so the result matches an in-memory Kruskal
+   * run over the same stream.
+   *
+   * @param in the edges of the graph; vertices are 0...vertexCount-1.
+   * @param vertexCount the number of vertices.
+   * @return the edges of a minimum spanning forest, in the engine's order.
+   * @exception IOException if the stream or a run file cannot be accessed.
+   * @exception IllegalArgumentException if an edge names a vertex out of
+   *            range.  No run file is left behind.
+   *
+   * Running time:  O(|E| log |E|) plus O(|E|) bytes of disk I/O each way.
+   */
+  public EdgeList minSpanForest(EdgeStream in, int vertexCount)
+    throws IOException {
+    int chunkEdges = (int) Math.min(memoryBytes / CHUNK_BYTES_PER_EDGE,
+                                    Integer.MAX_VALUE - 8);
+    long[] keys = new long[chunkEdges];
+    long[] scratch = new long[chunkEdges];
+    long[] ends = new long[chunkEdges];
+    int[] counts = new int[EdgeSort.countsLength(chunkEdges)];
+    java.util.ArrayList<File> runs = new java.util.ArrayList<File>();
+    ForestBuilder builder = new ForestBuilder(vertexCount, order);
+    try {
+      while (true) {
+        int n = readChunk(in, vertexCount, keys, ends, order);
+        EdgeSort.sortKeys(keys, 0, n, scratch, counts);
+        if (runs.isEmpty() && n < chunkEdges) {
+          for (int i = 0; i < n && !builder.isComplete(); i++) {
+            int e = EdgeSort.index(keys[i]);
+            builder.offer((int) (ends[e] >> 32), (int) ends[e],
+                          EdgeSort.weight(keys[i]));
+          }
+          return builder.forest();
+        }
+        if (n > 0) {
+          runs.add(spill(keys, ends, n));
+        }
+        if (n < chunkEdges) {
+          break;
+        }
+      }
+      keys = null;
+      scratch = null;
+      ends = null;
+      counts = null;
+      mergeRuns(runs, builder);
+      return builder.forest();
+    } finally {
+      for (File run : runs) {
+        run.delete();
+      }
+    }
+  }
+
+  /**
+   * readChunk() reads up to keys.length edges, storing each edge's sort key
+   * (its key under "order", packed with its index) in "keys" and its
+   * endpoints (packed into one long) in "ends".
+   *
+   * @return the number of edges read.
+   * @exception IllegalArgumentException if an edge names a vertex outside
+   *            0...vertexCount-1.
+   */
+  private static int readChunk(EdgeStream in, int vertexCount, long[] keys,
+                               long[] ends, EdgeOrder order)
+    throws IOException {
+    int n = 0;
+    while (n < keys.length && in.next()) {
+      int u = in.source();
+      int v = in.target();
+      if (u < 0 || u >= vertexCount || v < 0 || v >= vertexCount) {
+        throw new IllegalArgumentException("edge (" + u + ", " + v +
+                                           ") names a vertex out of range");
+      }
+      keys[n] = EdgeSort.pack(order.key(in.weight()), n);
+      ends[n] = ((long) u << 32) | (v & 0xFFFFFFFFL);
+      n++;
+    }
+    return n;
+  }
+
+  /**
+   * spill() writes the n sorted edges of a chunk to a new run file.
+   */
+  private File spill(long[] keys, long[] ends, int n) throws IOException {
+    File run = File.createTempFile("kruskal-run", ".bin", tempDir);
+    FileOutputStream stream = new FileOutputStream(run);
+    try {
+      FileChannel channel = stream.getChannel();
+      ByteBuffer buffer = ByteBuffer.allocateDirect(MIN_BUFFER_RECORDS * 64 *
+                                                    RECORD_BYTES);
+      for (int i = 0; i < n; i++) {
+        if (buffer.remaining() < RECORD_BYTES) {
+          drain(buffer, channel);
+        }
+        int e = EdgeSort.index(keys[i]);
+        buffer.putInt(EdgeSort.weight(keys[i]));
+        buffer.putInt((int) (ends[e] >> 32));
+        buffer.putInt((int) ends[e]);
+      }
+      drain(buffer, channel);
+    } finally {
+      stream.close();
+    }
+    return run;
+  }
+
+  private static void drain(ByteBuffer buffer, FileChannel channel)
+    throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    buffer.clear();
+  }
+
+  /**
+   * mergeRuns() merges the sorted runs through a heap of run readers and
+   * offers the merged edges to the builder until the forest is complete.
+   * Ties between runs go to the earlier run, which preserves stream order.
+   */
+  private void mergeRuns(java.util.ArrayList<File> runs, ForestBuilder builder)
+    throws IOException {
+    int k = runs.size();
+    long perRun = Math.max(memoryBytes / (k + 1),
+                           (long) MIN_BUFFER_RECORDS * RECORD_BYTES);
+    int bufferBytes = (int) Math.min(perRun / RECORD_BYTES * RECORD_BYTES,
+                                     Integer.MAX_VALUE - RECORD_BYTES);
+    RunReader[] heap = new RunReader[k];
+    int heapSize = 0;
+    try {
+      for (int i = 0; i < k; i++) {
+        RunReader reader = new RunReader(runs.get(i), i, bufferBytes);
+        if (reader.advance()) {
+          heap[heapSize++] = reader;
+          siftUp(heap, heapSize - 1);
+        } else {
+          reader.close();
+        }
+      }
+      while (heapSize > 0 && !builder.isComplete()) {
+        RunReader top = heap[0];
+        builder.offer(top.source, top.target, top.key);
+        if (!top.advance()) {
+          top.close();
+          heap[0] = heap[--heapSize];
+          heap[heapSize] = null;
+        }
+        siftDown(heap, heapSize, 0);
+      }
+    } finally {
+      for (int i = 0; i < heapSize; i++) {
+        heap[i].close();
+      }
+    }
+  }
+
+  private static void siftUp(RunReader[] heap, int i) {
+    while (i > 0 && heap[i].precedes(heap[(i - 1) / 2])) {
+      RunReader tmp = heap[i];
+      heap[i] = heap[(i - 1) / 2];
+      heap[(i - 1) / 2] = tmp;
+      i = (i - 1) / 2;
+    }
+  }
+
+  private static void siftDown(RunReader[] heap, int size, int i) {
+    while (true) {
+      int smallest = i;
+      int child = 2 * i + 1;
+      if (child < size && heap[child].precedes(heap[smallest])) {
+        smallest = child;
+      }
+      if (child + 1 < size && heap[child + 1].precedes(heap[smallest])) {
+        smallest = child + 1;
+      }
+      if (smallest == i) {
+        return;
+      }
+      RunReader tmp = heap[i];
+      heap[i] = heap[smallest];
+      heap[smallest] = tmp;
+      i = smallest;
+    }
+  }
+
+  /**
+   * A RunReader reads the records of one run file through a FileChannel.
+   * key, source and target describe the current record.
+   */
+  private static class RunReader {
+    private FileInputStream stream;
+    private FileChannel channel;
+    private ByteBuffer buffer;
+    private int run;
+    int key;
+    int source;
+    int target;
+
+    RunReader(File file, int run, int bufferBytes) throws IOException {
+      stream = new FileInputStream(file);
+      channel = stream.getChannel();
+      buffer = ByteBuffer.allocate(bufferBytes);
+      buffer.flip();
+      this.run = run;
+    }
+
+    /**
+     * advance() reads the next record.  Returns false at end of run.
+     */
+    boolean advance() throws IOException {
+      if (buffer.remaining() < RECORD_BYTES) {
+        buffer.compact();
+        while (buffer.position() < RECORD_BYTES &&
+               channel.read(buffer) >= 0) {
+        }
+        buffer.flip();
+        if (buffer.remaining() < RECORD_BYTES) {
+          return false;
+        }
+      }
+      key = buffer.getInt();
+      source = buffer.getInt();
+      target = buffer.getInt();
+      return true;
+    }
+
+    /**
+     * precedes() returns true if this reader's record comes before the
+     * other reader's record in the merged order.
+     */
+    boolean precedes(RunReader other) {
+      return key < other.key || (key == other.key && run < other.run);
+    }
+
+    void close() throws IOException {
+      stream.close();
+    }
+  }
+
+  /**
+   * A ForestBuilder performs the union-find scan of Kruskal's algorithm on
+   * edges offered in ascending order of their keys under "order", and
+   * records each edge's weight.
+   */
+  private static class ForestBuilder {
+    private DisjointSets sets;
+    private EdgeList forest;
+    private int maxEdges;
+    private EdgeOrder order;
+
+    ForestBuilder(int vertexCount, EdgeOrder order) {
+      this.order = order;
+      sets = new DisjointSets(vertexCount);
+      maxEdges = Math.max(vertexCount - 1, 0);
+      forest = new EdgeList(maxEdges);
+    }
+
+    void offer(int u, int v, int key) {
+      int root1 = sets.find(u);
+      int root2 = sets.find(v);
+      if (root1 != root2) {
+        sets.union(root1, root2);
+        forest.add(u, v, order.weight(key));
+      }
+    }
+
+    boolean isComplete() {
+      return forest.size() == maxEdges;
+    }
+
+    EdgeList forest() {
+      return forest;
+    }
+  }
+
+  /**
+   * main() runs ExternalKruskal with a 1MB budget on a 400 x 400 grid with
+   * random weights, so the edges are spilled to several runs and merged.
+   * Its forest, minimal and maximal, must have the size and weight of
+   * StreamingMST's, and be the very forest the same engine finds in
+   * memory.  Every run file must be written to a fresh directory and
+   * deleted afterward, even when an edge out of range stops the run after
+   * some runs were spilled.
+   */
+  public static void main(String[] args) throws IOException {
+    java.util.Random random = new java.util.Random(28);
+    int side = 400;
+    int n = side * side;
+    EdgeList grid = new EdgeList();
+    for (int x = 0; x < n; x++) {
+      if (x % side + 1 < side) {
+        grid.add(x, x + 1, random.nextInt(1000));
+      }
+      if (x + side < n) {
+        grid.add(x, x + side, random.nextInt(1000));
+      }
+    }
+
+    File dir = java.nio.file.Files.createTempDirectory("kruskal").toFile();
+    try {
+      EdgeOrder[] orders = {EdgeOrder.ASCENDING, EdgeOrder.DESCENDING};
+      for (EdgeOrder order : orders) {
+        StreamingMST reference = new StreamingMST(n, order);
+        reference.consume(grid.stream());
+        EdgeList inMemory = new ExternalKruskal(64, dir, order)
+          .minSpanForest(grid.stream(), n);
+        if (dir.list().length != 0) {
+          System.out.println("An in-memory run wrote to disk.");
+        }
+        final int[] spilled = new int[1];
+        EdgeList external = new ExternalKruskal(1, dir, order)
+          .minSpanForest(spillCounter(grid.stream(), dir, spilled), n);
+        boolean same = external.size() == inMemory.size();
+        for (int i = 0; same && i < external.size(); i++) {
+          same = external.source(i) == inMemory.source(i) &&
+                 external.target(i) == inMemory.target(i) &&
+                 external.weight(i) == inMemory.weight(i);
+        }
+        boolean matches = external.size() == reference.edgeCount() &&
+                          external.totalWeight() == reference.totalWeight();
+        String name = (order == EdgeOrder.ASCENDING) ? "Minimum" : "Maximum";
+        System.out.println(name + ":  " + grid.size() + " edges, " +
+                           (spilled[0] + 1) + " runs; forest of " +
+                           external.size() + " edges, weight " +
+                           external.totalWeight() +
+                           (matches ? " matches" : " DIFFERS from") +
+                           " StreamingMST" + (same ? " and matches"
+                                                   : " but DIFFERS from") +
+                           " in memory; " + dir.list().length +
+                           " run files left.");
+      }
+
+      // An edge out of range, after the runs before it were spilled.
+      EdgeList bad = new EdgeList();
+      for (int i = 0; i < grid.size(); i++) {
+        bad.add(grid.source(i), grid.target(i), grid.weight(i));
+      }
+      bad.add(0, n, 0);
+      final int[] spilled = new int[1];
+      try {
+        new ExternalKruskal(1, dir)
+          .minSpanForest(spillCounter(bad.stream(), dir, spilled), n);
+        System.out.println("An edge out of range was accepted.");
+      } catch (IllegalArgumentException e) {
+        System.out.println("Edge out of range:  \"" + e.getMessage() +
+                           "\" after " + spilled[0] + " runs; " +
+                           dir.list().length + " run files left.");
+      }
+    } finally {
+      for (File file : dir.listFiles()) {
+        file.delete();
+      }
+      dir.delete();
+    }
+  }
+
+  /**
+   * spillCounter() returns a stream of the edges of "edges" that records in
+   * spilled[0] the number of files in "dir", which is the number of runs
+   * spilled so far.  It counts every 4096 edges and when the input runs
+   * out; all but the last chunk's runs are on disk by then.
+   */
+  private static EdgeStream spillCounter(final EdgeStream edges,
+                                         final File dir,
+                                         final int[] spilled) {
+    return new EdgeStream() {
+      private int read;
+
+      public boolean next() throws IOException {
+        boolean more = edges.next();
+        if (!more || (++read & 4095) == 0) {
+          spilled[0] = dir.list().length;
+        }
+        return more;
+      }
+
+      public int source() {
+        return edges.source();
+      }
+
+      public int target() {
+        return edges.target();
+      }
+
+      public int weight() {
+        return edges.weight();
+      }
+    };
+  }
+
+}
@@ -0,0 +1,249 @@
+/* LinkCutForest.java */
+
+package mst;
+
+/**
+ * A LinkCutForest is a forest of rooted trees over the nodes 0...n-1 that
+ * supports linking two trees, cutting an edge, and finding the node of
+ * maximum value on the path between two nodes, each in O(log n) amortized
+ * time.  It is the standard Sleator-Tarjan link-cut tree, stored in arrays.
+ *
+ * Each node carries an int value.  To query edge weights, represent every
+ * edge (u, v) by a node of its own linked between u and v, give the edge
+ * node the edge's weight, and give vertex nodes the value Integer.MIN_VALUE.
+ *
+ * There is no error checking:  link() two nodes of the same tree, or cut()
+ * two nodes that are not adjacent, and the forest is corrupted.
+ */
+
+class LinkCutForest {
+
+  private static final int NIL = -1;
+
+  private int[] parent;
+  private int[] left;
+  private int[] right;
+  private boolean[] flip;
+  private int[] value;
+  private int[] maxNode;
+  private int[] stack;
+
+  /**
+   * LinkCutForest() constructs a forest with room for "capacity" nodes.
+   * Nodes must be initialized with reset() before they are used.
+   *
+   * @param capacity the initial number of nodes.
+   */
+  LinkCutForest(int capacity) {
+    parent = new int[0];
+    left = new int[0];
+    right = new int[0];
+    flip = new boolean[0];
+    value = new int[0];
+    maxNode = new int[0];
+    stack = new int[0];
+    ensureCapacity(capacity);
+  }
+
+  /**
+   * ensureCapacity() grows the forest so nodes 0...capacity-1 are usable.
+   *
+   * @param capacity the number of nodes required.
+   */
+  void ensureCapacity(int capacity) {
+    if (capacity <= parent.length) {
+      return;
+    }
+    int size = Math.max(capacity, 2 * parent.length);
+    parent = java.util.Arrays.copyOf(parent, size);
+    left = java.util.Arrays.copyOf(left, size);
+    right = java.util.Arrays.copyOf(right, size);
+    flip = java.util.Arrays.copyOf(flip, size);
+    value = java.util.Arrays.copyOf(value, size);
+    maxNode = java.util.Arrays.copyOf(maxNode, size);
+    stack = new int[size];
+  }
+
+  /**
+   * reset() makes x a single-node tree with the specified value.  x must
+   * not be linked to any other node.
+   *
+   * @param x the node.
+   * @param val the node's value.
+   */
+  void reset(int x, int val) {
+    parent[x] = NIL;
+    left[x] = NIL;
+    right[x] = NIL;
+    flip[x] = false;
+    value[x] = val;
+    maxNode[x] = x;
+  }
+
+  /**
+   * value() returns the value of node x.
+   */
+  int value(int x) {
+    return value[x];
+  }
+
+  /**
+   * setValue() changes the value of node x.
+   *
+   * @param x the node.
+   * @param val the node's new value.
+   */
+  void setValue(int x, int val) {
+    access(x);
+    value[x] = val;
+    pull(x);
+  }
+
+  /**
+   * connected() returns true if x and y are in the same tree.
+   */
+  boolean connected(int x, int y) {
+    return x == y || findRoot(x) == findRoot(y);
+  }
+
+  /**
+   * link() adds an edge between x and y, which must be in different trees.
+   */
+  void link(int x, int y) {
+    makeRoot(x);
+    parent[x] = y;
+  }
+
+  /**
+   * cut() removes the edge between x and y, which must be adjacent.
+   */
+  void cut(int x, int y) {
+    makeRoot(x);
+    access(y);
+    left[y] = NIL;
+    parent[x] = NIL;
+    pull(y);
+  }
+
+  /**
+   * pathMax() returns the node of maximum value on the path from x to y
+   * (inclusive).  x and y must be in the same tree.
+   */
+  int pathMax(int x, int y) {
+    makeRoot(x);
+    access(y);
+    return maxNode[y];
+  }
+
+  private boolean isRoot(int x) {
+    int p = parent[x];
+    return p == NIL || (left[p] != x && right[p] != x);
+  }
+
+  private void pull(int x) {
+    int best = x;
+    if (left[x] != NIL && value[maxNode[left[x]]] > value[best]) {
+      best = maxNode[left[x]];
+    }
+    if (right[x] != NIL && value[maxNode[right[x]]] > value[best]) {
+      best = maxNode[right[x]];
+    }
+    maxNode[x] = best;
+  }
+
+  private void push(int x) {
+    if (flip[x]) {
+      int tmp = left[x];
+      left[x] = right[x];
+      right[x] = tmp;
+      if (left[x] != NIL) {
+        flip[left[x]] = !flip[left[x]];
+      }
+      if (right[x] != NIL) {
+        flip[right[x]] = !flip[right[x]];
+      }
+      flip[x] = false;
+    }
+  }
+
+  private void rotate(int x) {
+    int p = parent[x];
+    int g = parent[p];
+    boolean pIsRoot = isRoot(p);
+    if (left[p] == x) {
+      left[p] = right[x];
+      if (right[x] != NIL) {
+        parent[right[x]] = p;
+      }
+      right[x] = p;
+    } else {
+      right[p] = left[x];
+      if (left[x] != NIL) {
+        parent[left[x]] = p;
+      }
+      left[x] = p;
+    }
+    parent[p] = x;
+    parent[x] = g;
+    if (!pIsRoot) {
+      if (left[g] == p) {
+        left[g] = x;
+      } else {
+        right[g] = x;
+      }
+    }
+    pull(p);
+    pull(x);
+  }
+
+  private void splay(int x) {
+    int top = 0;
+    stack[top++] = x;
+    for (int y = x; !isRoot(y); y = parent[y]) {
+      stack[top++] = parent[y];
+    }
+    while (top > 0) {
+      push(stack[--top]);
+    }
+    while (!isRoot(x)) {
+      int p = parent[x];
+      if (!isRoot(p)) {
+        int g = parent[p];
+        if ((left[g] == p) == (left[p] == x)) {
+          rotate(p);
+        } else {
+          rotate(x);
+        }
+      }
+      rotate(x);
+    }
+  }
+
+  private void access(int x) {
+    int last = NIL;
+    for (int y = x; y != NIL; y = parent[y]) {
+      splay(y);
+      right[y] = last;
+      pull(y);
+      last = y;
+    }
+    splay(x);
+  }
+
+  private void makeRoot(int x) {
+    access(x);
+    flip[x] = !flip[x];
+  }
+
+  private int findRoot(int x) {
+    access(x);
+    push(x);
+    while (left[x] != NIL) {
+      x = left[x];
+      push(x);
+    }
+    splay(x);
+    return x;
+  }
+
+}
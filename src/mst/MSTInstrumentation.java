@@ -0,0 +1,49 @@
+/* MSTInstrumentation.java */
+
+package mst;
+
+/**
+ * An MSTInstrumentation receives measurements from an instrumented minimum
+ * spanning tree run, such as Kruskal.minSpanTree(g, instrumentation).
+ * Engines report each measurement once, at the end of the phase it belongs
+ * to, so the hot loops themselves only maintain local counters.  Passing a
+ * null instrumentation disables measuring altogether.
+ *
+ * No hash table is measured:  the instrumented engines walk the graph by
+ * vertex id (see WUGraph.neighborsAt()) and make no hash lookups.
+ *
+ * MSTMetrics is the standard implementation.
+ */
+
+public interface MSTInstrumentation {
+
+  /** Phase in which the edges are collected from the graph. */
+  public static final int COLLECT = 0;
+  /** Phase in which the edges are sorted by weight. */
+  public static final int SORT = 1;
+  /** Phase in which the sorted edges are scanned with union-find. */
+  public static final int SCAN = 2;
+  /** The number of phases. */
+  public static final int PHASES = 3;
+
+  /**
+   * phaseCompleted() reports the wall-clock duration of one phase.
+   *
+   * @param phase COLLECT, SORT or SCAN.
+   * @param nanos the duration in nanoseconds.
+   */
+  public void phaseCompleted(int phase, long nanos);
+
+  /**
+   * edgesScanned() reports how many sorted edges the union-find scan
+   * examined and how many of them it accepted into the tree.
+   */
+  public void edgesScanned(long scanned, long accepted);
+
+  /**
+   * unionFind() reports the DisjointSets.find() calls made by the run and
+   * the total number of parent links they followed.
+   */
+  public void unionFind(long findCalls, long findSteps);
+
+}
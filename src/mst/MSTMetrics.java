@@ -0,0 +1,134 @@
+/* MSTMetrics.java */
+
+package mst;
+
+/**
+ * MSTMetrics is an MSTInstrumentation that accumulates the measurements of
+ * one or more runs.  snapshot() returns an immutable copy of the totals
+ * that can be logged or exported while the recorder keeps accumulating.
+ * A recorder should be used by one thread at a time.
+ */
+
+public class MSTMetrics implements MSTInstrumentation {
+
+  private static final String[] PHASE_NAMES = {"collect", "sort", "scan"};
+
+  private long[] phaseNanos = new long[PHASES];
+  private long runs;
+  private long edgesScanned;
+  private long edgesAccepted;
+  private long findCalls;
+  private long findSteps;
+
+  public void phaseCompleted(int phase, long nanos) {
+    phaseNanos[phase] += nanos;
+    if (phase == SCAN) {
+      runs++;
+    }
+  }
+
+  public void edgesScanned(long scanned, long accepted) {
+    edgesScanned += scanned;
+    edgesAccepted += accepted;
+  }
+
+  public void unionFind(long calls, long steps) {
+    findCalls += calls;
+    findSteps += steps;
+  }
+
+  /**
+   * reset() sets every total back to zero.
+   */
+  public void reset() {
+    phaseNanos = new long[PHASES];
+    runs = 0;
+    edgesScanned = 0;
+    edgesAccepted = 0;
+    findCalls = 0;
+    findSteps = 0;
+  }
+
+  /**
+   * snapshot() returns the current totals.
+   */
+  public Snapshot snapshot() {
+    return new Snapshot(this);
+  }
+
+  /**
+   * phaseName() returns a short lower-case name for a phase constant.
+   */
+  public static String phaseName(int phase) {
+    return PHASE_NAMES[phase];
+  }
+
+  /**
+   * A Snapshot is an immutable copy of an MSTMetrics recorder's totals.
+   */
+  public static class Snapshot {
+    private final long[] phaseNanos;
+    private final long runs;
+    private final long edgesScanned;
+    private final long edgesAccepted;
+    private final long findCalls;
+    private final long findSteps;
+
+    private Snapshot(MSTMetrics m) {
+      phaseNanos = m.phaseNanos.clone();
+      runs = m.runs;
+      edgesScanned = m.edgesScanned;
+      edgesAccepted = m.edgesAccepted;
+      findCalls = m.findCalls;
+      findSteps = m.findSteps;
+    }
+
+    /** Total nanoseconds spent in a phase (COLLECT, SORT or SCAN). */
+    public long phaseNanos(int phase) {
+      return phaseNanos[phase];
+    }
+
+    /** Number of completed runs. */
+    public long runs() {
+      return runs;
+    }
+
+    /** Number of sorted edges examined by the union-find scans. */
+    public long edgesScanned() {
+      return edgesScanned;
+    }
+
+    /** Number of edges accepted into trees. */
+    public long edgesAccepted() {
+      return edgesAccepted;
+    }
+
+    /** Number of DisjointSets.find() calls. */
+    public long findCalls() {
+      return findCalls;
+    }
+
+    /** Total parent links followed by DisjointSets.find() calls. */
+    public long findSteps() {
+      return findSteps;
+    }
+
+    /** Mean parent links followed per DisjointSets.find() call. */
+    public double meanFindPathLength() {
+      return findCalls == 0 ? 0 : (double) findSteps / findCalls;
+    }
+
+    /**
+     * toString() returns the snapshot as a single line of key=value pairs.
+     */
+    public String toString() {
+      StringBuilder result = new StringBuilder("runs=" + runs);
+      for (int phase = 0; phase < PHASES; phase++) {
+        result.append(" " + phaseName(phase) + "Nanos=" + phaseNanos[phase]);
+      }
+      return result + " edgesScanned=" + edgesScanned + " edgesAccepted=" +
+        edgesAccepted + " findCalls=" + findCalls + " findSteps=" + findSteps;
+    }
+  }
+
+}
@@ -0,0 +1,61 @@
+/* MSTPhaseEvent.java */
+
+package mst;
+
+import jdk.jfr.*;
+
+/**
+ * An MSTPhaseEvent is a Java Flight Recorder event covering one phase of a
+ * minimum spanning tree computation (for Kruskal:  collecting, sorting or
+ * scanning the edges).  Engines create one with start() when the phase
+ * begins and call finish() when it ends; when no recording is enabled for
+ * the event, finish() discards it at almost no cost.
+ */
+
+@Name("minspan.MSTPhase")
+@Label("MST Phase")
+@Category({"MinSpan", "MST"})
+@Description("One phase of a minimum spanning tree computation")
+public final class MSTPhaseEvent extends Event {
+
+  @Label("Engine")
+  String engine;
+
+  @Label("Phase")
+  String phase;
+
+  @Label("Edges")
+  @Description("The number of edges the phase processed")
+  long edges;
+
+  private MSTPhaseEvent() {
+  }
+
+  /**
+   * start() returns a new event whose duration begins now.
+   *
+   * @param engine the name of the engine, such as "Kruskal".
+   * @param phase the name of the phase, such as MSTMetrics.phaseName(SORT).
+   */
+  public static MSTPhaseEvent start(String engine, String phase) {
+    MSTPhaseEvent event = new MSTPhaseEvent();
+    event.begin();
+    event.engine = engine;
+    event.phase = phase;
+    return event;
+  }
+
+  /**
+   * finish() ends the event's duration and records it, if it is enabled.
+   *
+   * @param edges the number of edges the phase processed.
+   */
+  public void finish(long edges) {
+    end();
+    if (shouldCommit()) {
+      this.edges = edges;
+      commit();
+    }
+  }
+
+}
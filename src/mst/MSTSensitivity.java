@@ -0,0 +1,331 @@
+/* MSTSensitivity.java */
+
+package mst;
+
+import graph.*;
+import set.*;
+
+/**
+ * An MSTSensitivity finds a minimum spanning forest of a WUGraph and says,
+ * for every edge, how far its weight may move before the forest stops
+ * being minimal, so callers need not perturb a weight and run Kruskal's
+ * algorithm again to find out.
+ *
+ *   - A tree edge stays in a minimum spanning forest until it is heavier
+ *     than its cheapest replacement, the lightest non-tree edge whose tree
+ *     path uses it; its increase tolerance is the difference.  A tree edge
+ *     with no replacement is a bridge, and may grow without bound.
+ *   - A non-tree edge stays out until it is lighter than the heaviest tree
+ *     edge on the path between its endpoints; its decrease tolerance is
+ *     the difference.
+ *
+ * Lowering a tree edge or raising a non-tree edge never changes the forest,
+ * so those tolerances are UNBOUNDED.  If a weight moves by exactly its
+ * tolerance, the forest is still minimal but ties with another; one unit
+ * more and it is not.  Each tolerance holds with every other weight fixed.
+ *
+ * Everything comes from one Kruskal run.  The path maxima of all non-tree
+ * edges are found by one offline lowest-common-ancestor pass (see
+ * OfflinePathMax), and the replacements of all tree edges by one sweep of
+ * the non-tree edges in sorted order (see ReplacementEdges), so the whole
+ * analysis takes O(|E| log |E|) time for the sort and close to O(|V| + |E|)
+ * after it.  Edges are numbered 0...edgeCount()-1 in order of their
+ * endpoints' vertex ids (see WUGraph.indexOf()); self-edges are left out.
+ * The analysis is a snapshot:  later changes to the graph are not
+ * reflected.
+ */
+
+public class MSTSensitivity<V> {
+
+  /** The tolerance of a weight that may move without bound. */
+  public static final long UNBOUNDED = Long.MAX_VALUE;
+
+  private WUGraph<V> graph;
+  /* Edge i joins ends1[i] < ends2[i] with weight weights[i]; pairs[i] is
+   * the two ids packed into a long, in increasing order, for lookups.
+   * replacement[i] is the edge that replaces tree edge i, and pathMax[i]
+   * the heaviest tree weight on non-tree edge i's path.
+   */
+  private int[] ends1;
+  private int[] ends2;
+  private int[] weights;
+  private long[] pairs;
+  private boolean[] inTree;
+  private int[] replacement;
+  private int[] pathMax;
+  private SpanningForest<V> forest;
+
+  /**
+   * MSTSensitivity() finds a minimum spanning forest of "graph" and the
+   * weight tolerances of its edges.  The graph is not changed.
+   *
+   * Running time:  O(|V| + |E| log |E|).
+   */
+  public MSTSensitivity(WUGraph<V> graph) {
+    this.graph = graph;
+    int n = graph.vertexIdBound();
+    int maxDegree = 0;
+    for (int x = 0; x < n; x++) {
+      maxDegree = Math.max(maxDegree, graph.degreeAt(x));
+    }
+
+    // Collect each edge once, then number the edges by their endpoints.
+    pairs = new long[graph.edgeCount()];
+    int[] order = new int[pairs.length];
+    int[] collected = new int[pairs.length];
+    int[] neighborIds = new int[maxDegree];
+    int[] neighborWeights = new int[maxDegree];
+    int m = 0;
+    for (int x = 0; x < n; x++) {
+      int degree = graph.neighborsAt(x, neighborIds, neighborWeights);
+      for (int j = 0; j < degree; j++) {
+        if (neighborIds[j] > x) {
+          pairs[m] = ((long) x << 32) | neighborIds[j];
+          collected[m] = neighborWeights[j];
+          order[m] = m;
+          m++;
+        }
+      }
+    }
+    pairs = java.util.Arrays.copyOf(pairs, m);
+    EdgeSort.sortPairs(pairs, order, m);
+    ends1 = new int[m];
+    ends2 = new int[m];
+    weights = new int[m];
+    for (int i = 0; i < m; i++) {
+      ends1[i] = (int) (pairs[i] >>> 32);
+      ends2[i] = (int) pairs[i];
+      weights[i] = collected[order[i]];
+    }
+
+    // Kruskal's algorithm; the non-tree edges stay in sorted order.
+    long[] keys = new long[m];
+    for (int i = 0; i < m; i++) {
+      keys[i] = EdgeSort.pack(weights[i], i);
+    }
+    EdgeSort.sortKeys(keys, 0, m, new long[m]);
+    DisjointSets sets = new DisjointSets(n);
+    inTree = new boolean[m];
+    int[] treeEdges = new int[Math.max(graph.vertexCount() - 1, 0)];
+    int[] nonTreeEdges = new int[m];
+    int treeCount = 0;
+    int nonTreeCount = 0;
+    EdgeList treeList = new EdgeList(treeEdges.length);
+    for (int k = 0; k < m; k++) {
+      int i = EdgeSort.index(keys[k]);
+      int root1 = sets.find(ends1[i]);
+      int root2 = sets.find(ends2[i]);
+      if (root1 != root2) {
+        sets.union(root1, root2);
+        inTree[i] = true;
+        treeEdges[treeCount++] = i;
+        treeList.add(ends1[i], ends2[i], weights[i]);
+      } else {
+        nonTreeEdges[nonTreeCount++] = i;
+      }
+    }
+    forest = new SpanningForest<V>(graph, treeList, sets);
+
+    // Tree edges:  the cheapest replacement of each.
+    replacement = new int[m];
+    pathMax = new int[m];
+    int[] replacements = new ReplacementEdges(n).sweep(ends1, ends2,
+      treeEdges, treeCount, nonTreeEdges, nonTreeCount);
+    for (int t = 0; t < treeCount; t++) {
+      replacement[treeEdges[t]] = replacements[t];
+    }
+
+    // Non-tree edges:  the heaviest tree edge on each one's path.
+    int[] treeEnds1 = new int[treeCount];
+    int[] treeEnds2 = new int[treeCount];
+    int[] treeWeights = new int[treeCount];
+    for (int t = 0; t < treeCount; t++) {
+      treeEnds1[t] = ends1[treeEdges[t]];
+      treeEnds2[t] = ends2[treeEdges[t]];
+      treeWeights[t] = weights[treeEdges[t]];
+    }
+    int[] queryEnds1 = new int[nonTreeCount];
+    int[] queryEnds2 = new int[nonTreeCount];
+    for (int q = 0; q < nonTreeCount; q++) {
+      queryEnds1[q] = ends1[nonTreeEdges[q]];
+      queryEnds2[q] = ends2[nonTreeEdges[q]];
+    }
+    int[] maxima = new OfflinePathMax(n, treeEnds1, treeEnds2, treeWeights,
+      treeCount).maxWeights(queryEnds1, queryEnds2, nonTreeCount);
+    for (int q = 0; q < nonTreeCount; q++) {
+      pathMax[nonTreeEdges[q]] = maxima[q];
+    }
+  }
+
+  /**
+   * forest() returns the minimum spanning forest the tolerances refer to.
+   */
+  public SpanningForest<V> forest() {
+    return forest;
+  }
+
+  /**
+   * edgeCount() returns the number of edges analyzed, which is the graph's
+   * edge count less its self-edges.
+   */
+  public int edgeCount() {
+    return weights.length;
+  }
+
+  /**
+   * edgeIndex() returns the number of edge (u, v), or -1 if (u, v) is not
+   * an edge of the graph or is a self-edge.
+   *
+   * Running time:  O(log |E|).
+   */
+  public int edgeIndex(Object u, Object v) {
+    int a = graph.indexOf(u);
+    int b = graph.indexOf(v);
+    if (a < 0 || b < 0 || a == b) {
+      return -1;
+    }
+    long pair = ((long) Math.min(a, b) << 32) | Math.max(a, b);
+    int i = java.util.Arrays.binarySearch(pairs, pair);
+    return i < 0 ? -1 : i;
+  }
+
+  /**
+   * source() returns the smaller vertex id of edge i, and target() the
+   * larger.
+   */
+  public int source(int i) {
+    return ends1[i];
+  }
+
+  public int target(int i) {
+    return ends2[i];
+  }
+
+  /**
+   * weight() returns the weight of edge i.
+   */
+  public int weight(int i) {
+    return weights[i];
+  }
+
+  /**
+   * isTreeEdge() returns true if edge i is in forest().
+   */
+  public boolean isTreeEdge(int i) {
+    return inTree[i];
+  }
+
+  /**
+   * replacementOf() returns the number of the edge that would replace tree
+   * edge i if it grew past its tolerance, or -1 if edge i is a bridge or
+   * not a tree edge.
+   */
+  public int replacementOf(int i) {
+    return inTree[i] ? replacement[i] : -1;
+  }
+
+  /**
+   * increaseTolerance() returns how much the weight of edge i may increase
+   * with forest() still minimal:  the gap to its replacement for a tree
+   * edge, or UNBOUNDED for a bridge or a non-tree edge.
+   */
+  public long increaseTolerance(int i) {
+    if (!inTree[i] || replacement[i] < 0) {
+      return UNBOUNDED;
+    }
+    return (long) weights[replacement[i]] - weights[i];
+  }
+
+  /**
+   * decreaseTolerance() returns how much the weight of edge i may decrease
+   * with forest() still minimal:  the gap to the heaviest tree edge on its
+   * path for a non-tree edge, or UNBOUNDED for a tree edge.
+   */
+  public long decreaseTolerance(int i) {
+    if (inTree[i]) {
+      return UNBOUNDED;
+    }
+    return (long) weights[i] - pathMax[i];
+  }
+
+  /**
+   * main() checks every tolerance of small random graphs against
+   * MSTVerifier:  moving a weight by its tolerance must leave the forest
+   * minimal, and moving it one unit further must not.  Then it times the
+   * analysis of a large graph.
+   */
+  public static void main(String[] args) {
+    java.util.Random random = new java.util.Random(50);
+    int checked = 0;
+    for (int trial = 0; trial < 40; trial++) {
+      int n = 5 + random.nextInt(20);
+      WUGraph<Integer> g = new WUGraph<Integer>();
+      for (int x = 0; x < n; x++) {
+        g.addVertex(x);
+      }
+      for (int e = 0; e < 3 * n; e++) {
+        g.addEdge(random.nextInt(n), random.nextInt(n), random.nextInt(30));
+      }
+      MSTSensitivity<Integer> s = new MSTSensitivity<Integer>(g);
+      for (int i = 0; i < s.edgeCount(); i++) {
+        long tolerance = s.isTreeEdge(i) ? s.increaseTolerance(i)
+                                         : -s.decreaseTolerance(i);
+        if (Math.abs(tolerance) == UNBOUNDED) {
+          continue;
+        }
+        long beyond = tolerance + Long.signum(tolerance);
+        if (tolerance == 0) {
+          beyond = s.isTreeEdge(i) ? 1 : -1;
+        }
+        if (!minimalWith(s, g, i, tolerance) || minimalWith(s, g, i, beyond)) {
+          System.out.println("Trial " + trial + ":  edge (" + s.source(i) +
+                             ", " + s.target(i) + ") has the wrong " +
+                             "tolerance " + tolerance);
+          return;
+        }
+        checked++;
+      }
+    }
+    System.out.println("All " + checked + " finite tolerances were exact.");
+
+    int n = 200000;
+    WUGraph<Integer> g = new WUGraph<Integer>();
+    for (int x = 0; x < n; x++) {
+      g.addVertex(x);
+    }
+    for (int e = 0; e < 5 * n; e++) {
+      g.addEdge(random.nextInt(n), random.nextInt(n), random.nextInt(1000000));
+    }
+    long start = System.nanoTime();
+    MSTSensitivity<Integer> s = new MSTSensitivity<Integer>(g);
+    long millis = (System.nanoTime() - start) / 1000000;
+    int bridges = 0;
+    for (int i = 0; i < s.edgeCount(); i++) {
+      if (s.isTreeEdge(i) && s.increaseTolerance(i) == UNBOUNDED) {
+        bridges++;
+      }
+    }
+    System.out.println("Analyzed " + s.edgeCount() + " edges in " + millis +
+                       " ms; " + bridges + " tree edges are bridges.");
+  }
+
+  /**
+   * minimalWith() returns true if forest() is still a minimum spanning
+   * forest of g once edge i's weight moves by "delta".  g is restored.
+   */
+  private static boolean minimalWith(MSTSensitivity<Integer> s,
+                                     WUGraph<Integer> g, int i, long delta) {
+    Integer u = g.vertexAt(s.source(i));
+    Integer v = g.vertexAt(s.target(i));
+    int weight = s.weight(i);
+    g.addEdge(u, v, (int) (weight + delta));
+    WUGraph<Integer> tree = s.forest().toGraph();
+    if (tree.isEdge(u, v)) {
+      tree.addEdge(u, v, (int) (weight + delta));
+    }
+    boolean minimal = new MSTVerifier(g, tree).isMinimal();
+    g.addEdge(u, v, weight);
+    return minimal;
+  }
+
+}
@@ -0,0 +1,258 @@
+/* MSTVerifier.java */
+
+package mst;
+
+import graph.*;
+import set.*;
+
+/**
+ * An MSTVerifier checks that a candidate tree is a minimum spanning forest
+ * of a graph, in near-linear time and O(|V| + |E|) memory, so that the
+ * output of any MST engine can be validated on graphs with millions of
+ * vertices.  It checks that
+ *
+ *   - the tree has exactly the graph's vertices;
+ *   - every tree edge is a graph edge with the same weight;
+ *   - the tree has no cycles;
+ *   - the tree spans:  every graph edge joins two vertices of the same tree;
+ *   - the cycle property:  no graph edge is lighter than the heaviest tree
+ *     edge on the path between its endpoints.
+ *
+ * Together these hold exactly when the tree is a minimum spanning forest.
+ * The path maxima for all graph edges are found together by one offline
+ * lowest-common-ancestor pass (see OfflinePathMax).
+ */
+
+public class MSTVerifier {
+
+  private boolean spanning;
+  private long violations;
+  private String problem;
+
+  /**
+   * MSTVerifier() verifies "tree" against "graph".  Neither is changed.
+   *
+   * Running time:  O((|V| + |E|) log |V|), and close to O(|V| + |E|).
+   */
+  public MSTVerifier(WUGraph<?> graph, WUGraph<?> tree) {
+    spanning = checkSpanning(graph, tree);
+  }
+
+  /**
+   * checkSpanning() checks everything but the cycle property, recording the
+   * first problem found, and then checks the cycle property if the tree is
+   * a spanning forest.  It returns true if the tree is a spanning forest.
+   */
+  private boolean checkSpanning(WUGraph<?> graph, WUGraph<?> tree) {
+    if (tree.vertexCount() != graph.vertexCount()) {
+      return fail("the tree has " + tree.vertexCount() +
+                  " vertices, but the graph has " + graph.vertexCount());
+    }
+    // Number the tree's vertices by their ids in the graph.
+    int n = graph.vertexIdBound();
+    int treeBound = tree.vertexIdBound();
+    int[] graphId = new int[treeBound];
+    for (int t = 0; t < treeBound; t++) {
+      Object vertex = tree.vertexAt(t);
+      graphId[t] = (vertex == null) ? -1 : graph.indexOf(vertex);
+      if (vertex != null && graphId[t] < 0) {
+        return fail("tree vertex " + vertex + " is not in the graph");
+      }
+    }
+
+    int[] ends1 = new int[tree.edgeCount()];
+    int[] ends2 = new int[ends1.length];
+    int[] weights = new int[ends1.length];
+    int treeEdges = 0;
+    DisjointSets sets = new DisjointSets(n);
+    int[] neighborIds = new int[maxDegree(tree)];
+    int[] neighborWeights = new int[neighborIds.length];
+    for (int t = 0; t < treeBound; t++) {
+      int degree = tree.neighborsAt(t, neighborIds, neighborWeights);
+      for (int j = 0; j < degree; j++) {
+        if (neighborIds[j] < t) {
+          continue;
+        }
+        Object u = tree.vertexAt(t);
+        Object v = tree.vertexAt(neighborIds[j]);
+        if (neighborIds[j] == t) {
+          return fail("tree edge (" + u + ", " + u + ") is a self-edge");
+        }
+        if (!graph.isEdge(u, v)) {
+          return fail("tree edge (" + u + ", " + v + ") is not in the graph");
+        }
+        if (graph.weight(u, v) != neighborWeights[j]) {
+          return fail("tree edge (" + u + ", " + v + ") has weight " +
+                      neighborWeights[j] + ", but the graph edge has " +
+                      "weight " + graph.weight(u, v));
+        }
+        int a = graphId[t];
+        int b = graphId[neighborIds[j]];
+        int rootA = sets.find(a);
+        int rootB = sets.find(b);
+        if (rootA == rootB) {
+          return fail("tree edge (" + u + ", " + v + ") closes a cycle");
+        }
+        sets.union(rootA, rootB);
+        ends1[treeEdges] = a;
+        ends2[treeEdges] = b;
+        weights[treeEdges] = neighborWeights[j];
+        treeEdges++;
+      }
+    }
+
+    // Collect every graph edge once, then find all path maxima together.
+    OfflinePathMax paths = new OfflinePathMax(n, ends1, ends2, weights,
+                                              treeEdges);
+    int[] edgeEnds1 = new int[graph.edgeCount()];
+    int[] edgeEnds2 = new int[edgeEnds1.length];
+    int[] edgeWeights = new int[edgeEnds1.length];
+    int edges = 0;
+    neighborIds = new int[maxDegree(graph)];
+    neighborWeights = new int[neighborIds.length];
+    for (int x = 0; x < n; x++) {
+      int degree = graph.neighborsAt(x, neighborIds, neighborWeights);
+      for (int j = 0; j < degree; j++) {
+        int y = neighborIds[j];
+        if (y <= x) {
+          continue;
+        }
+        if (paths.component(x) != paths.component(y)) {
+          return fail("graph edge (" + graph.vertexAt(x) + ", " +
+                      graph.vertexAt(y) + ") joins two different trees");
+        }
+        edgeEnds1[edges] = x;
+        edgeEnds2[edges] = y;
+        edgeWeights[edges] = neighborWeights[j];
+        edges++;
+      }
+    }
+
+    int[] maxima = paths.maxWeights(edgeEnds1, edgeEnds2, edges);
+    for (int i = 0; i < edges; i++) {
+      if (edgeWeights[i] < maxima[i]) {
+        violations++;
+        if (problem == null) {
+          problem = "graph edge (" + graph.vertexAt(edgeEnds1[i]) + ", " +
+            graph.vertexAt(edgeEnds2[i]) + ") has weight " + edgeWeights[i] +
+            ", less than the heaviest tree edge between its endpoints (" +
+            maxima[i] + ")";
+        }
+      }
+    }
+    return true;
+  }
+
+  private boolean fail(String message) {
+    problem = message;
+    return false;
+  }
+
+  private static int maxDegree(WUGraph<?> g) {
+    int max = 0;
+    for (int x = 0; x < g.vertexIdBound(); x++) {
+      max = Math.max(max, g.degreeAt(x));
+    }
+    return max;
+  }
+
+  /**
+   * isSpanning() returns true if the tree is a spanning forest of the graph:
+   * it has the graph's vertices, a subset of its edges, no cycles, and one
+   * tree per connected component of the graph.
+   */
+  public boolean isSpanning() {
+    return spanning;
+  }
+
+  /**
+   * isMinimal() returns true if the tree is a spanning forest and satisfies
+   * the cycle property, that is, if it is a minimum spanning forest.
+   */
+  public boolean isMinimal() {
+    return spanning && violations == 0;
+  }
+
+  /**
+   * violationCount() returns the number of graph edges that are lighter
+   * than the heaviest tree edge between their endpoints.  Each is an edge
+   * that should have replaced a tree edge.  It is zero if the tree is not
+   * a spanning forest, since the check is then skipped.
+   */
+  public long violationCount() {
+    return violations;
+  }
+
+  /**
+   * problem() returns a description of the first problem found, or null if
+   * the tree is a minimum spanning forest.
+   */
+  public String problem() {
+    return problem;
+  }
+
+  /**
+   * main() verifies the minimum spanning forest of a random graph, then
+   * the same forest with one tree edge swapped for a heavier graph edge.
+   */
+  public static void main(String[] args) {
+    int n = 100000;
+    java.util.Random random = new java.util.Random(42);
+    Integer[] vertices = new Integer[n];
+    WUGraph<Integer> g = new WUGraph<Integer>();
+    for (int i = 0; i < n; i++) {
+      vertices[i] = Integer.valueOf(i);
+      g.addVertex(vertices[i]);
+    }
+    for (int i = 0; i < 4 * n; i++) {
+      g.addEdge(vertices[random.nextInt(n)], vertices[random.nextInt(n)],
+                random.nextInt(1000000));
+    }
+    // The vertices were added in order, so vertex i has id i.
+    StreamingMST forest = new StreamingMST(n);
+    int[] ids = new int[n];
+    int[] weights = new int[n];
+    for (int x = 0; x < n; x++) {
+      int degree = g.neighborsAt(x, ids, weights);
+      for (int j = 0; j < degree; j++) {
+        forest.insert(x, ids[j], weights[j]);
+      }
+    }
+    WUGraph<Integer> t = forest.toGraph(vertices);
+
+    long start = System.nanoTime();
+    MSTVerifier verifier = new MSTVerifier(g, t);
+    long millis = (System.nanoTime() - start) / 1000000;
+    System.out.println("Minimum spanning forest of " + n + " vertices and " +
+                       g.edgeCount() + " edges verified in " + millis +
+                       " ms; isMinimal() should be true: " +
+                       verifier.isMinimal());
+
+    // Replace a tree edge with a heavier non-tree edge between its sides.
+    EdgeList treeEdges = forest.edges();
+    int k = random.nextInt(treeEdges.size());
+    int a = treeEdges.source(k);
+    int b = treeEdges.target(k);
+    t.removeEdge(vertices[a], vertices[b]);
+    BottleneckIndex sides = new BottleneckIndex(t);
+    for (int x = 0; x < n; x++) {
+      int degree = g.neighborsAt(x, ids, weights);
+      for (int j = 0; j < degree; j++) {
+        Integer u = g.vertexAt(x);
+        Integer v = g.vertexAt(ids[j]);
+        if (sides.connected(u, vertices[a]) && sides.connected(v, vertices[b])
+            && weights[j] > treeEdges.weight(k)) {
+          t.addEdge(u, v, weights[j]);
+          verifier = new MSTVerifier(g, t);
+          System.out.println("After swapping in a heavier edge, isMinimal() " +
+                             "should be false: " + verifier.isMinimal() +
+                             " (" + verifier.violationCount() +
+                             " violation(s): " + verifier.problem() + ")");
+          return;
+        }
+      }
+    }
+    System.out.println("No heavier replacement edge found.");
+  }
+
+}
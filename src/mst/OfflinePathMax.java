@@ -0,0 +1,247 @@
+/* OfflinePathMax.java */
+
+package mst;
+
+/**
+ * An OfflinePathMax answers a batch of "heaviest edge on the path between
+ * a and b" queries on a fixed forest, all at once, with Tarjan's offline
+ * lowest-common-ancestor algorithm.  Vertices are the ints 0...n-1.
+ *
+ * One depth-first pass visits the forest.  When it finishes a vertex, the
+ * vertex's disjoint set is merged into its parent's, remembering the
+ * weight of the edge between them; path compression then keeps, for every
+ * vertex, the heaviest edge between it and its set's representative, which
+ * is the deepest unfinished ancestor.  A query is attached to its lowest
+ * common ancestor when its second endpoint is reached, and answered when
+ * that ancestor finishes.  A batch of q queries takes O((n + q) log n)
+ * time in the worst case, and close to O(n + q) in practice.
+ *
+ * The depth-first search is iterative, so deep trees (long paths) do not
+ * overflow the call stack.
+ */
+
+class OfflinePathMax {
+
+  /** The answer for a path with no edges.  Smaller than every weight. */
+  static final int NO_EDGE = Integer.MIN_VALUE;
+
+  private int n;
+  /* The forest as adjacency arrays:  vertex x's edges are positions
+   * adjStart[x]...adjStart[x+1]-1 of adjTarget and adjWeight.
+   * component[x] is the smallest vertex in x's tree, which is its root.
+   */
+  private int[] adjStart;
+  private int[] adjTarget;
+  private int[] adjWeight;
+  private int[] component;
+
+  /* State of one maxWeights() pass.  set[x] is x's parent in the disjoint
+   * set forest and setMax[x] the heaviest edge between x and set[x].
+   * Queries waiting at their lowest common ancestor x form a linked list
+   * starting at waitingHead[x] and continuing through waitingNext.
+   */
+  private int[] ends1;
+  private int[] ends2;
+  private int[] queryStart;
+  private int[] queries;
+  private int[] waitingHead;
+  private int[] waitingNext;
+  private int[] set;
+  private int[] setMax;
+  private int[] cursor;
+  private boolean[] entered;
+  private int[] path;
+
+  /**
+   * OfflinePathMax() stores a forest on vertices 0...n-1.  Edge i joins
+   * ends1[i] and ends2[i] with weight weights[i], for 0 <= i < edgeCount.
+   * The edges must form a forest; self-edges are ignored.
+   *
+   * Running time:  O(n + edgeCount).
+   */
+  OfflinePathMax(int n, int[] ends1, int[] ends2, int[] weights,
+                 int edgeCount) {
+    this.n = n;
+    adjStart = new int[n + 1];
+    for (int i = 0; i < edgeCount; i++) {
+      adjStart[ends1[i] + 1]++;
+      adjStart[ends2[i] + 1]++;
+    }
+    for (int x = 0; x < n; x++) {
+      adjStart[x + 1] += adjStart[x];
+    }
+    int[] fill = java.util.Arrays.copyOf(adjStart, n);
+    adjTarget = new int[2 * edgeCount];
+    adjWeight = new int[2 * edgeCount];
+    for (int i = 0; i < edgeCount; i++) {
+      adjTarget[fill[ends1[i]]] = ends2[i];
+      adjWeight[fill[ends1[i]]++] = weights[i];
+      adjTarget[fill[ends2[i]]] = ends1[i];
+      adjWeight[fill[ends2[i]]++] = weights[i];
+    }
+
+    component = new int[n];
+    java.util.Arrays.fill(component, -1);
+    int[] stack = new int[n];
+    for (int root = 0; root < n; root++) {
+      if (component[root] >= 0) {
+        continue;
+      }
+      component[root] = root;
+      int top = 0;
+      stack[top++] = root;
+      while (top > 0) {
+        int x = stack[--top];
+        for (int p = adjStart[x]; p < adjStart[x + 1]; p++) {
+          int y = adjTarget[p];
+          if (component[y] < 0) {
+            component[y] = root;
+            stack[top++] = y;
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * component() returns an identifier of the tree containing vertex x:  two
+   * vertices are connected exactly when their components are equal.
+   */
+  int component(int x) {
+    return component[x];
+  }
+
+  /**
+   * maxWeights() returns, for each query i in 0...count-1, the weight of
+   * the heaviest edge on the path between ends1[i] and ends2[i].  Queries
+   * whose endpoints are equal, or in different trees, get NO_EDGE; check
+   * component() to tell the two apart.
+   *
+   * Running time:  O((n + count) log n), and close to O(n + count).
+   */
+  int[] maxWeights(int[] ends1, int[] ends2, int count) {
+    this.ends1 = ends1;
+    this.ends2 = ends2;
+    int[] answers = new int[count];
+    java.util.Arrays.fill(answers, NO_EDGE);
+
+    // Each vertex's queries, as adjacency arrays of query numbers.
+    queryStart = new int[n + 1];
+    for (int i = 0; i < count; i++) {
+      queryStart[ends1[i] + 1]++;
+      queryStart[ends2[i] + 1]++;
+    }
+    for (int x = 0; x < n; x++) {
+      queryStart[x + 1] += queryStart[x];
+    }
+    int[] fill = java.util.Arrays.copyOf(queryStart, n);
+    queries = new int[2 * count];
+    for (int i = 0; i < count; i++) {
+      queries[fill[ends1[i]]++] = i;
+      queries[fill[ends2[i]]++] = i;
+    }
+
+    waitingHead = new int[n];
+    waitingNext = new int[count];
+    java.util.Arrays.fill(waitingHead, -1);
+    set = new int[n];
+    setMax = new int[n];
+    cursor = new int[n];
+    entered = new boolean[n];
+    path = new int[n];
+    int[] parent = new int[n];
+    int[] parentWeight = new int[n];
+    int[] stack = new int[n];
+
+    for (int root = 0; root < n; root++) {
+      if (entered[root]) {
+        continue;
+      }
+      parent[root] = -1;
+      int top = 0;
+      stack[top++] = root;
+      enter(root);
+      while (top > 0) {
+        int x = stack[top - 1];
+        if (cursor[x] < adjStart[x + 1]) {
+          int p = cursor[x]++;
+          int y = adjTarget[p];
+          if (!entered[y]) {
+            parent[y] = x;
+            parentWeight[y] = adjWeight[p];
+            stack[top++] = y;
+            enter(y);
+          }
+          continue;
+        }
+        top--;
+        for (int i = waitingHead[x]; i >= 0; i = waitingNext[i]) {
+          answers[i] = Math.max(maxToRoot(ends1[i]), maxToRoot(ends2[i]));
+        }
+        if (parent[x] >= 0) {
+          set[x] = parent[x];
+          setMax[x] = parentWeight[x];
+        }
+      }
+    }
+    this.ends1 = null;
+    this.ends2 = null;
+    queryStart = queries = waitingHead = waitingNext = null;
+    set = setMax = cursor = path = null;
+    entered = null;
+    return answers;
+  }
+
+  /**
+   * enter() starts the visit of vertex x:  x becomes a singleton set, and
+   * each query between x and an already-entered vertex y of the same tree
+   * is attached to their lowest common ancestor, the representative of y's
+   * set.
+   */
+  private void enter(int x) {
+    entered[x] = true;
+    set[x] = x;
+    setMax[x] = NO_EDGE;
+    cursor[x] = adjStart[x];
+    for (int p = queryStart[x]; p < queryStart[x + 1]; p++) {
+      int i = queries[p];
+      int y = (ends1[i] == x) ? ends2[i] : ends1[i];
+      if (y != x && entered[y] && component[y] == component[x]) {
+        int ancestor = find(y);
+        waitingNext[i] = waitingHead[ancestor];
+        waitingHead[ancestor] = i;
+      }
+    }
+  }
+
+  /**
+   * maxToRoot() returns the heaviest edge between x and its set's
+   * representative, or NO_EDGE if x is the representative.
+   */
+  private int maxToRoot(int x) {
+    find(x);
+    return set[x] == x ? NO_EDGE : setMax[x];
+  }
+
+  /**
+   * find() returns the representative of x's set, compressing the path so
+   * every vertex on it points at the representative, with setMax updated
+   * to the heaviest edge between the vertex and the representative.
+   */
+  private int find(int x) {
+    int length = 0;
+    while (set[x] != x) {
+      path[length++] = x;
+      x = set[x];
+    }
+    int root = x;
+    // path[length - 1] already points at the root.
+    for (int i = length - 2; i >= 0; i--) {
+      int y = path[i];
+      setMax[y] = Math.max(setMax[y], setMax[path[i + 1]]);
+      set[y] = root;
+    }
+    return root;
+  }
+
+}
@@ -0,0 +1,173 @@
+/* ReplacementEdges.java */
+
+package mst;
+
+/**
+ * A ReplacementEdges finds, for every edge of a spanning forest, the first
+ * of a list of other edges that could replace it:  the first whose own
+ * path through the forest uses that edge, so that removing the forest edge
+ * and adding the replacement leaves a spanning forest.  When the forest is
+ * a minimum spanning forest and the list is the other edges in sorted
+ * order, the replacement is the cheapest one, which is what both the next
+ * lightest tree and the weight tolerance of a tree edge depend on.
+ *
+ * The forest is rooted, and the candidates are swept in order.  Each
+ * candidate climbs from both of its endpoints toward their common
+ * ancestor, claiming every forest edge on the way that has no replacement
+ * yet.  A claimed edge is never climbed again:  a disjoint set forest
+ * whose links always point to an ancestor jumps each climb straight to the
+ * lowest unclaimed edge above it.  One sweep of c candidates over a forest
+ * of n vertices therefore takes O(n + c alpha(n)) time.
+ *
+ * The arrays are allocated once, so one ReplacementEdges can sweep many
+ * forests on the same vertices.
+ */
+
+class ReplacementEdges {
+
+  private int n;
+  /* The forest of the current sweep as adjacency arrays:  vertex x's
+   * forest edges are positions adjStart[x]...adjStart[x+1]-1 of adjTarget
+   * and adjEdge (the edge's position in the forest's list).
+   */
+  private int[] adjStart;
+  private int[] adjTarget;
+  private int[] adjEdge;
+  /* parent[x] is x's parent in the rooted forest (-1 for a root), reached
+   * by forest edge number parentEdge[x], and tree[x] is the root of x's
+   * tree.  jump[x] links x toward the lowest ancestor whose parent edge has
+   * no replacement yet.
+   */
+  private int[] parent;
+  private int[] tree;
+  private int[] parentEdge;
+  private int[] depth;
+  private int[] jump;
+  private int[] queue;
+
+  /**
+   * ReplacementEdges() prepares to sweep forests on vertices 0...n-1.
+   */
+  ReplacementEdges(int n) {
+    this.n = n;
+    adjStart = new int[n + 1];
+    adjTarget = new int[2 * Math.max(n - 1, 0)];
+    adjEdge = new int[adjTarget.length];
+    parent = new int[n];
+    tree = new int[n];
+    parentEdge = new int[n];
+    depth = new int[n];
+    jump = new int[n];
+    queue = new int[n];
+  }
+
+  /**
+   * sweep() returns an array whose element i is the first of the
+   * candidates that can replace forest edge number forest[i], or -1 if
+   * none can.  Edge e joins ends1[e] and ends2[e]; the forest's edges are
+   * forest[0...forestCount-1] and the candidates, in order of preference,
+   * are candidates[0...candidateCount-1].  A candidate that joins two trees
+   * of the forest replaces nothing.
+   *
+   * Running time:  O(n + candidateCount alpha(n)).
+   */
+  int[] sweep(int[] ends1, int[] ends2, int[] forest, int forestCount,
+              int[] candidates, int candidateCount) {
+    root(ends1, ends2, forest, forestCount);
+    int[] replacement = new int[forestCount];
+    java.util.Arrays.fill(replacement, -1);
+    int unclaimed = forestCount;
+    for (int i = 0; i < candidateCount && unclaimed > 0; i++) {
+      int c = candidates[i];
+      if (tree[ends1[c]] != tree[ends2[c]]) {
+        continue;                           // the candidate joins two trees
+      }
+      // Both ends share a root, so neither climb passes the lowest common
+      // ancestor, and no root is ever reached with u != v.
+      int u = find(ends1[c]);
+      int v = find(ends2[c]);
+      while (u != v) {
+        if (depth[u] < depth[v]) {
+          int swap = u;
+          u = v;
+          v = swap;
+        }
+        replacement[parentEdge[u]] = c;
+        unclaimed--;
+        jump[u] = parent[u];
+        u = find(parent[u]);
+      }
+    }
+    return replacement;
+  }
+
+  /**
+   * root() builds the adjacency arrays of the forest, roots each of its
+   * trees at its smallest vertex, labels every vertex with that root, and
+   * makes every vertex its own jump target.
+   */
+  private void root(int[] ends1, int[] ends2, int[] forest, int forestCount) {
+    java.util.Arrays.fill(adjStart, 0);
+    for (int i = 0; i < forestCount; i++) {
+      adjStart[ends1[forest[i]] + 1]++;
+      adjStart[ends2[forest[i]] + 1]++;
+    }
+    for (int x = 0; x < n; x++) {
+      adjStart[x + 1] += adjStart[x];
+    }
+    // Fill each vertex's edges from its end back, using adjStart[x+1] as
+    // the cursor; that leaves x's start in adjStart[x+1], so shift back.
+    for (int i = 0; i < forestCount; i++) {
+      int a = ends1[forest[i]];
+      int b = ends2[forest[i]];
+      adjTarget[--adjStart[a + 1]] = b;
+      adjEdge[adjStart[a + 1]] = i;
+      adjTarget[--adjStart[b + 1]] = a;
+      adjEdge[adjStart[b + 1]] = i;
+    }
+    for (int x = 0; x < n; x++) {
+      adjStart[x] = adjStart[x + 1];
+    }
+    adjStart[n] = 2 * forestCount;
+
+    java.util.Arrays.fill(depth, -1);
+    for (int x = 0; x < n; x++) {
+      jump[x] = x;
+      if (depth[x] >= 0) {
+        continue;
+      }
+      depth[x] = 0;
+      parent[x] = -1;
+      tree[x] = x;
+      int head = 0;
+      int tail = 0;
+      queue[tail++] = x;
+      while (head < tail) {
+        int y = queue[head++];
+        for (int p = adjStart[y]; p < adjStart[y + 1]; p++) {
+          int z = adjTarget[p];
+          if (depth[z] < 0) {
+            depth[z] = depth[y] + 1;
+            parent[z] = y;
+            parentEdge[z] = adjEdge[p];
+            tree[z] = x;
+            queue[tail++] = z;
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * find() returns the lowest ancestor of x (or x itself) whose parent
+   * edge has no replacement yet, or the root above x, halving the path.
+   */
+  private int find(int x) {
+    while (jump[x] != x) {
+      jump[x] = jump[jump[x]];
+      x = jump[x];
+    }
+    return x;
+  }
+
+}
@@ -0,0 +1,328 @@
+/* SpanningForest.java */
+
+package mst;
+
+import graph.*;
+import set.*;
+
+/**
+ * A SpanningForest is a spanning forest of a WUGraph, one tree per
+ * connected component, such as the one returned by Kruskal.minSpanForest().
+ * Besides the edges it records which component every vertex is in, how
+ * many vertices each component has, and the total weight of each tree, so
+ * callers need no separate connectivity search over the graph.
+ * Kruskal.cluster() returns a SpanningForest with fewer edges, whose
+ * components are single-linkage clusters rather than connected components.
+ *
+ * Components are numbered 0...componentCount()-1 in order of their
+ * smallest vertex id; a vertex with no edges is a component by itself.
+ * Vertex ids are those of the graph (see WUGraph.indexOf()).  The forest
+ * is a snapshot:  later changes to the graph are not reflected.
+ */
+
+public class SpanningForest<V> {
+
+  private WUGraph<V> graph;
+  private EdgeList edges;
+  /* component[x] is the component of the vertex with id x, or -1 if x is
+   * not a vertex id.  Component c's vertex ids are vertexIds[vertexStart[c]]
+   * ...vertexIds[vertexStart[c+1]-1], and its edges are those of "edges"
+   * numbered edgeNumbers[edgeStart[c]]...edgeNumbers[edgeStart[c+1]-1].
+   */
+  private int[] component;
+  private int componentCount;
+  private int[] vertexStart;
+  private int[] vertexIds;
+  private int[] edgeStart;
+  private int[] edgeNumbers;
+  private long[] weights;
+  private long totalWeight;
+
+  /**
+   * SpanningForest() records a spanning forest of "graph".
+   *
+   * @param graph the graph the forest spans.
+   * @param edges the forest's edges, between the graph's vertex ids.
+   * @param sets a DisjointSets over the graph's vertex ids whose sets are
+   *        the forest's trees, as left behind by Kruskal's algorithm; or
+   *        null to compute them from "edges".
+   *
+   * Running time:  O(|V| + edges.size()).
+   */
+  public SpanningForest(WUGraph<V> graph, EdgeList edges, DisjointSets sets) {
+    this.graph = graph;
+    this.edges = edges;
+    int bound = graph.vertexIdBound();
+    if (sets == null) {
+      sets = new DisjointSets(bound);
+      for (int i = 0; i < edges.size(); i++) {
+        sets.union(sets.find(edges.source(i)), sets.find(edges.target(i)));
+      }
+    }
+
+    // Number the components by their smallest vertex id, indexed by root.
+    component = new int[bound];
+    int[] rootComponent = new int[bound];
+    java.util.Arrays.fill(rootComponent, -1);
+    for (int x = 0; x < bound; x++) {
+      if (graph.vertexAt(x) == null) {
+        component[x] = -1;
+        continue;
+      }
+      int root = sets.find(x);
+      if (rootComponent[root] < 0) {
+        rootComponent[root] = componentCount++;
+      }
+      component[x] = rootComponent[root];
+    }
+
+    vertexStart = new int[componentCount + 1];
+    edgeStart = new int[componentCount + 1];
+    weights = new long[componentCount];
+    for (int x = 0; x < bound; x++) {
+      if (component[x] >= 0) {
+        vertexStart[component[x] + 1]++;
+      }
+    }
+    for (int i = 0; i < edges.size(); i++) {
+      int c = component[edges.source(i)];
+      edgeStart[c + 1]++;
+      weights[c] += edges.weight(i);
+      totalWeight += edges.weight(i);
+    }
+    for (int c = 0; c < componentCount; c++) {
+      vertexStart[c + 1] += vertexStart[c];
+      edgeStart[c + 1] += edgeStart[c];
+    }
+    vertexIds = new int[vertexStart[componentCount]];
+    edgeNumbers = new int[edges.size()];
+    int[] fill = java.util.Arrays.copyOf(vertexStart, componentCount);
+    for (int x = 0; x < bound; x++) {
+      if (component[x] >= 0) {
+        vertexIds[fill[component[x]]++] = x;
+      }
+    }
+    fill = java.util.Arrays.copyOf(edgeStart, componentCount);
+    for (int i = 0; i < edges.size(); i++) {
+      edgeNumbers[fill[component[edges.source(i)]]++] = i;
+    }
+  }
+
+  /**
+   * componentCount() returns the number of connected components, which is
+   * also the number of trees.
+   */
+  public int componentCount() {
+    return componentCount;
+  }
+
+  /**
+   * componentOf() returns the component of vertex v, or -1 if v is not a
+   * vertex of the graph.
+   *
+   * Running time:  O(1).
+   */
+  public int componentOf(Object v) {
+    int id = graph.indexOf(v);
+    return id < 0 ? -1 : component[id];
+  }
+
+  /**
+   * componentAt() returns the component of the vertex with id x, or -1 if
+   * x is not a vertex id.
+   *
+   * Running time:  O(1).
+   */
+  public int componentAt(int x) {
+    return (x < 0 || x >= component.length) ? -1 : component[x];
+  }
+
+  /**
+   * componentIds() returns a new array holding componentAt(x) at index x,
+   * for every x below the graph's vertexIdBound().
+   *
+   * Running time:  O(|V|).
+   */
+  public int[] componentIds() {
+    return component.clone();
+  }
+
+  /**
+   * componentSize() returns the number of vertices in component c.
+   */
+  public int componentSize(int c) {
+    return vertexStart[c + 1] - vertexStart[c];
+  }
+
+  /**
+   * componentWeight() returns the total weight of component c's tree.
+   */
+  public long componentWeight(int c) {
+    return weights[c];
+  }
+
+  /**
+   * totalWeight() returns the total weight of the whole forest.
+   */
+  public long totalWeight() {
+    return totalWeight;
+  }
+
+  /**
+   * edgeCount() returns the number of edges in the forest, which is the
+   * number of vertices minus componentCount().
+   */
+  public int edgeCount() {
+    return edges.size();
+  }
+
+  /**
+   * edges() returns the forest's edges, between the graph's vertex ids.
+   * The list belongs to the forest and must not be modified.
+   */
+  public EdgeList edges() {
+    return edges;
+  }
+
+  /**
+   * tree() returns a new WUGraph holding component c's vertices and tree.
+   *
+   * Running time:  O(size of component c).
+   */
+  public WUGraph<V> tree(int c) {
+    WUGraph<V> t = new WUGraph<V>();
+    for (int p = vertexStart[c]; p < vertexStart[c + 1]; p++) {
+      t.addVertex(graph.vertexAt(vertexIds[p]));
+    }
+    for (int p = edgeStart[c]; p < edgeStart[c + 1]; p++) {
+      addEdge(t, edgeNumbers[p]);
+    }
+    return t;
+  }
+
+  /**
+   * toGraph() returns a new WUGraph holding every vertex of the graph and
+   * every edge of the forest.
+   *
+   * Running time:  O(|V|).
+   */
+  public WUGraph<V> toGraph() {
+    WUGraph<V> t = new WUGraph<V>();
+    for (int x = 0; x < component.length; x++) {
+      if (component[x] >= 0) {
+        t.addVertex(graph.vertexAt(x));
+      }
+    }
+    for (int i = 0; i < edges.size(); i++) {
+      addEdge(t, i);
+    }
+    return t;
+  }
+
+  private void addEdge(WUGraph<V> t, int i) {
+    t.addEdge(graph.vertexAt(edges.source(i)), graph.vertexAt(edges.target(i)),
+              edges.weight(i));
+  }
+
+  /**
+   * main() checks componentOf(), componentSize(), componentWeight() and
+   * tree() against a breadth-first search of the forest, on sparse random
+   * graphs with some vertices removed (so some ids are unused), for both a
+   * forest built with Kruskal's sets and one that computes its own.
+   */
+  public static void main(String[] args) {
+    java.util.Random random = new java.util.Random(43);
+    int failures = 0;
+    int checked = 0;
+    for (int trial = 0; trial < 50; trial++) {
+      int n = 1 + random.nextInt(200);
+      WUGraph<Integer> g = new WUGraph<Integer>();
+      for (int x = 0; x < n; x++) {
+        g.addVertex(x);
+      }
+      for (int e = random.nextInt(n + 1); e > 0; e--) {
+        g.addEdge(random.nextInt(n), random.nextInt(n), random.nextInt(100));
+      }
+      for (int r = random.nextInt(n / 10 + 1); r > 0; r--) {
+        g.removeVertex(random.nextInt(n));
+      }
+      SpanningForest<Integer> built = new MSTSensitivity<Integer>(g).forest();
+      SpanningForest<Integer> computed =
+        new SpanningForest<Integer>(g, built.edges(), null);
+      failures += checkComponents(built, g) + checkComponents(computed, g);
+      checked += 2 * built.componentCount();
+    }
+    System.out.println(checked + " components checked; " + failures +
+                       " disagreed with breadth-first search.");
+  }
+
+  /**
+   * checkComponents() labels the components of "forest" by a breadth-first
+   * search of its edges, started from each unlabeled vertex in increasing
+   * id order, and returns the number of vertices and components on which
+   * the forest's answers differ.
+   */
+  private static int checkComponents(SpanningForest<Integer> forest,
+                                     WUGraph<Integer> g) {
+    WUGraph<Integer> t = forest.toGraph();
+    int bound = g.vertexIdBound();
+    int[] label = new int[bound];
+    java.util.Arrays.fill(label, -1);
+    java.util.ArrayList<Integer> sizes = new java.util.ArrayList<Integer>();
+    java.util.ArrayList<Long> weights = new java.util.ArrayList<Long>();
+    int[] queue = new int[bound];
+    for (int x = 0; x < bound; x++) {
+      if (g.vertexAt(x) == null || label[x] >= 0) {
+        continue;
+      }
+      int c = sizes.size();
+      long weight = 0;
+      int head = 0;
+      int tail = 0;
+      label[x] = c;
+      queue[tail++] = x;
+      while (head < tail) {
+        Integer y = g.vertexAt(queue[head++]);
+        Neighbors neighbors = t.getNeighbors(y);
+        for (int j = 0; neighbors != null &&
+                        j < neighbors.neighborList.length; j++) {
+          int z = g.indexOf(neighbors.neighborList[j]);
+          if (label[z] < 0) {
+            label[z] = c;
+            weight += neighbors.weightList[j];
+            queue[tail++] = z;
+          }
+        }
+      }
+      sizes.add(tail);
+      weights.add(weight);
+    }
+
+    int failures = (forest.componentCount() == sizes.size()) ? 0 : 1;
+    for (int x = 0; x < bound; x++) {
+      Integer v = g.vertexAt(x);
+      if (forest.componentAt(x) != label[x] ||
+          (v != null && forest.componentOf(v) != label[x])) {
+        failures++;
+      }
+    }
+    for (int c = 0; c < Math.min(sizes.size(), forest.componentCount());
+         c++) {
+      WUGraph<Integer> tree = forest.tree(c);
+      if (forest.componentSize(c) != sizes.get(c) ||
+          forest.componentWeight(c) != weights.get(c) ||
+          tree.vertexCount() != sizes.get(c) ||
+          tree.edgeCount() != sizes.get(c) - 1) {
+        failures++;
+        continue;
+      }
+      for (Object v : tree.getVertices()) {
+        if (label[g.indexOf(v)] != c) {
+          failures++;
+        }
+      }
+    }
+    return failures;
+  }
+
+}
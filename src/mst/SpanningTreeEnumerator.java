@@ -0,0 +1,408 @@
+/* SpanningTreeEnumerator.java */
+
+package mst;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+import graph.*;
+import set.*;
+
+/**
+ * A SpanningTreeEnumerator lists the spanning trees of a WUGraph in order
+ * of total weight, lightest first, each as a SpanningForest:  the first is
+ * a minimum spanning tree, the second the lightest tree that differs from
+ * it, and so on.  Trees are found lazily, so taking only the first k costs
+ * O(k (|V| log |V| + |E| alpha(|V|))) time however many trees the graph
+ * has.  If the graph is not connected, its spanning forests are listed.
+ *
+ * It uses Lawler's partitioning, with the exchange step of Gabow and of
+ * Katoh, Ibaraki and Mine.  Every subproblem asks for the lightest tree
+ * that contains some edges and avoids others.  When the lightest tree T
+ * of a subproblem is returned, the rest of the subproblem is split into
+ * one part per tree edge f_j that it left free:  part j keeps f_1...f_j-1
+ * and avoids f_j.  The lightest tree of part j is T with f_j exchanged for
+ * its cheapest allowed replacement edge, so one replacement-edge sweep
+ * over the sorted edges (see ReplacementEdges) prices every part at once.
+ * The parts wait in a priority queue ordered by those prices.
+ *
+ * The edges are collected and sorted once, and every sweep reuses the
+ * same sorted arrays and the same ReplacementEdges, so no subproblem sorts
+ * edges or runs Kruskal's algorithm again.  A waiting part records only
+ * its price and the exchange that makes its tree from its parent's, so the
+ * queue needs O(1) memory per entry.
+ *
+ * Equally heavy trees are returned in the order their parts were made, so
+ * the sequence is reproducible.  The graph must not change while it is
+ * being enumerated.
+ */
+
+public class SpanningTreeEnumerator<V> implements Iterator<SpanningForest<V>> {
+
+  private static final String ENGINE = "SpanningTreeEnumerator";
+
+  private static final byte FREE = 0;
+  private static final byte INCLUDED = 1;
+  private static final byte EXCLUDED = 2;
+  private static final byte TREE = 3;
+
+  private WUGraph<V> graph;
+
+  /* The graph's edges in sorted order:  edge r joins ends1[r] and ends2[r]
+   * and has sort key keys[r] and weight weights[r].  status[r] is FREE
+   * except while one subproblem's edges are being marked.
+   */
+  private int[] ends1;
+  private int[] ends2;
+  private int[] keys;
+  private int[] weights;
+  private byte[] status;
+  private int[] candidates;
+  private ReplacementEdges replacements;
+
+  private PriorityQueue<Subproblem> queue = new PriorityQueue<Subproblem>();
+  private long subproblems;
+  /* The subproblem whose tree next() returned last; it is split on the
+   * following call of hasNext() or next().
+   */
+  private Subproblem returned;
+
+  /**
+   * A Subproblem asks for the lightest tree that contains the edges
+   * "included" and none of the edges "excluded" (both lists of edge
+   * numbers); "tree" is that tree, in increasing order of edge number, and
+   * "cost" its total sort key.  Until it is returned, a part keeps only
+   * "parent", the subproblem it was split from, "split", the number of
+   * its parent's free tree edges it includes (it excludes the next one,
+   * "removed"), and "added", the edge that replaces "removed".
+   */
+  private static class Subproblem implements Comparable<Subproblem> {
+    long cost;
+    long sequence;
+    Subproblem parent;
+    int split;
+    int removed;
+    int added;
+    int[] included;
+    int[] excluded;
+    int[] tree;
+
+    public int compareTo(Subproblem other) {
+      if (cost != other.cost) {
+        return cost < other.cost ? -1 : 1;
+      }
+      return Long.compare(sequence, other.sequence);
+    }
+  }
+
+  /**
+   * SpanningTreeEnumerator() prepares to list the spanning trees of g,
+   * lightest first.
+   *
+   * Running time:  O(|V| + |E| log |E|).
+   */
+  public SpanningTreeEnumerator(WUGraph<V> g) {
+    this(g, EdgeOrder.ASCENDING);
+  }
+
+  /**
+   * SpanningTreeEnumerator() prepares to list the spanning trees of g in
+   * order of the total of their sort keys under "order":  with
+   * EdgeOrder.DESCENDING they come heaviest first.
+   *
+   * @exception IllegalArgumentException if "order" is a comparator order,
+   *            which ranks weights but cannot add them.
+   */
+  public SpanningTreeEnumerator(WUGraph<V> g, EdgeOrder order) {
+    order.requireKeyed(ENGINE);
+    this.graph = g;
+    int idBound = g.vertexIdBound();
+    int maxDegree = 0;
+    for (int id = 0; id < idBound; id++) {
+      maxDegree = Math.max(maxDegree, g.degreeAt(id));
+    }
+
+    // Collect each edge once, without self-edges, and sort the edges.
+    long[] packed = new long[g.edgeCount()];
+    int[] from = new int[packed.length];
+    int[] to = new int[packed.length];
+    int[] neighborIds = new int[maxDegree];
+    int[] neighborWeights = new int[maxDegree];
+    int edgeCount = 0;
+    for (int id = 0; id < idBound; id++) {
+      int degree = g.neighborsAt(id, neighborIds, neighborWeights);
+      for (int j = 0; j < degree; j++) {
+        if (neighborIds[j] > id) {
+          packed[edgeCount] = EdgeSort.pack(order.key(neighborWeights[j]),
+                                            edgeCount);
+          from[edgeCount] = id;
+          to[edgeCount] = neighborIds[j];
+          edgeCount++;
+        }
+      }
+    }
+    EdgeSort.sortKeys(packed, 0, edgeCount, new long[edgeCount]);
+    ends1 = new int[edgeCount];
+    ends2 = new int[edgeCount];
+    keys = new int[edgeCount];
+    weights = new int[edgeCount];
+    status = new byte[edgeCount];
+    candidates = new int[edgeCount];
+    for (int r = 0; r < edgeCount; r++) {
+      int edge = EdgeSort.index(packed[r]);
+      ends1[r] = from[edge];
+      ends2[r] = to[edge];
+      keys[r] = EdgeSort.weight(packed[r]);
+      weights[r] = order.weight(keys[r]);
+    }
+    replacements = new ReplacementEdges(idBound);
+
+    // The whole problem's tree is the one Kruskal's algorithm finds.
+    DisjointSets sets = new DisjointSets(idBound);
+    int[] tree = new int[Math.max(g.vertexCount() - 1, 0)];
+    int treeSize = 0;
+    for (int r = 0; r < edgeCount && treeSize < tree.length; r++) {
+      int root1 = sets.find(ends1[r]);
+      int root2 = sets.find(ends2[r]);
+      if (root1 != root2) {
+        sets.union(root1, root2);
+        tree[treeSize++] = r;
+      }
+    }
+    Subproblem all = new Subproblem();
+    all.included = new int[0];
+    all.excluded = new int[0];
+    all.tree = java.util.Arrays.copyOf(tree, treeSize);
+    for (int i = 0; i < treeSize; i++) {
+      all.cost += keys[tree[i]];
+    }
+    all.sequence = subproblems++;
+    queue.add(all);
+  }
+
+  /**
+   * freeEdges() returns the edges of p's tree that p does not include, in
+   * increasing order.
+   */
+  private int[] freeEdges(Subproblem p) {
+    mark(p.included, INCLUDED);
+    int[] free = new int[p.tree.length - p.included.length];
+    int count = 0;
+    for (int i = 0; i < p.tree.length; i++) {
+      if (status[p.tree[i]] == FREE) {
+        free[count++] = p.tree[i];
+      }
+    }
+    mark(p.included, FREE);
+    return free;
+  }
+
+  /**
+   * mark() sets the status of the edges numbered in "edges".
+   */
+  private void mark(int[] edges, byte mark) {
+    for (int i = 0; i < edges.length; i++) {
+      status[edges[i]] = mark;
+    }
+  }
+
+  /**
+   * split() queues the parts of subproblem p other than its own tree, each
+   * priced by exchanging the tree edge it excludes for that edge's
+   * cheapest replacement.  A tree edge with no allowed replacement is a
+   * bridge of what p allows, and its part has no tree.
+   *
+   * Running time:  O(|V| + |E| alpha(|V|)), plus O(log q) per part for
+   * the queue of q waiting parts.
+   */
+  private void split(Subproblem p) {
+    // The candidates are the edges p allows that are not in its tree.
+    mark(p.tree, TREE);
+    mark(p.excluded, EXCLUDED);
+    int candidateCount = 0;
+    for (int r = 0; r < status.length; r++) {
+      if (status[r] == FREE) {
+        candidates[candidateCount++] = r;
+      }
+    }
+    mark(p.tree, FREE);
+    mark(p.excluded, FREE);
+    int[] replacement = replacements.sweep(ends1, ends2, p.tree,
+                                           p.tree.length, candidates,
+                                           candidateCount);
+
+    mark(p.included, INCLUDED);
+    int j = 0;
+    for (int i = 0; i < p.tree.length; i++) {
+      int f = p.tree[i];
+      if (status[f] != FREE) {
+        continue;
+      }
+      if (replacement[i] >= 0) {
+        Subproblem part = new Subproblem();
+        part.parent = p;
+        part.split = j;
+        part.removed = f;
+        part.added = replacement[i];
+        part.cost = p.cost - keys[f] + keys[part.added];
+        part.sequence = subproblems++;
+        queue.add(part);
+      }
+      j++;
+    }
+    mark(p.included, FREE);
+  }
+
+  /**
+   * build() fills in the edge lists and the tree of part p from its
+   * parent's, and drops the reference to the parent.
+   */
+  private void build(Subproblem p) {
+    Subproblem parent = p.parent;
+    int[] free = freeEdges(parent);
+    p.included = java.util.Arrays.copyOf(parent.included,
+                                         parent.included.length + p.split);
+    System.arraycopy(free, 0, p.included, parent.included.length, p.split);
+    p.excluded = java.util.Arrays.copyOf(parent.excluded,
+                                         parent.excluded.length + 1);
+    p.excluded[parent.excluded.length] = p.removed;
+    p.tree = parent.tree.clone();
+    int i = java.util.Arrays.binarySearch(p.tree, p.removed);
+    p.tree[i] = p.added;
+    java.util.Arrays.sort(p.tree);
+    p.parent = null;
+  }
+
+  /**
+   * hasNext() returns true if there is another spanning tree.
+   */
+  public boolean hasNext() {
+    if (returned != null) {
+      split(returned);
+      returned = null;
+    }
+    return !queue.isEmpty();
+  }
+
+  /**
+   * next() returns the next lightest spanning tree (or forest).
+   *
+   * Running time:  O(|V| log |V| + |E| alpha(|V|)), mostly for splitting
+   * the tree returned before.
+   *
+   * @exception NoSuchElementException if every tree has been returned.
+   */
+  public SpanningForest<V> next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException("no more spanning trees");
+    }
+    Subproblem p = queue.poll();
+    if (p.tree == null) {
+      build(p);
+    }
+    returned = p;
+    EdgeList edges = new EdgeList(p.tree.length);
+    for (int i = 0; i < p.tree.length; i++) {
+      int r = p.tree[i];
+      edges.add(ends1[r], ends2[r], weights[r]);
+    }
+    return new SpanningForest<V>(graph, edges, null);
+  }
+
+  /**
+   * main() checks the enumeration against brute force on small random
+   * graphs:  every spanning tree must appear exactly once, in order of
+   * weight.  Then it times the first 1000 trees of a larger graph.
+   */
+  public static void main(String[] args) {
+    java.util.Random random = new java.util.Random(49);
+    int checked = 0;
+    for (int trial = 0; trial < 50; trial++) {
+      int n = 2 + random.nextInt(5);
+      WUGraph<Integer> g = new WUGraph<Integer>();
+      for (int x = 0; x < n; x++) {
+        g.addVertex(x);
+      }
+      int[][] pairs = new int[n * (n - 1) / 2][];
+      int m = 0;
+      for (int u = 0; u < n; u++) {
+        for (int v = u + 1; v < n; v++) {
+          if (random.nextInt(4) > 0) {
+            g.addEdge(u, v, random.nextInt(5));
+            pairs[m++] = new int[] {u, v};
+          }
+        }
+      }
+
+      // Brute force:  the weight of every maximal acyclic subset of edges.
+      java.util.List<Long> expected = new java.util.ArrayList<Long>();
+      int size = new SpanningTreeEnumerator<Integer>(g).next().edgeCount();
+      for (int subset = 0; subset < (1 << m); subset++) {
+        if (Integer.bitCount(subset) != size) {
+          continue;
+        }
+        DisjointSets s = new DisjointSets(n);
+        long weight = 0;
+        boolean acyclic = true;
+        for (int i = 0; i < m && acyclic; i++) {
+          if ((subset & (1 << i)) != 0) {
+            int root1 = s.find(pairs[i][0]);
+            int root2 = s.find(pairs[i][1]);
+            acyclic = root1 != root2;
+            s.union(root1, root2);
+            weight += g.weight(pairs[i][0], pairs[i][1]);
+          }
+        }
+        if (acyclic) {
+          expected.add(weight);
+        }
+      }
+      java.util.Collections.sort(expected);
+
+      java.util.List<Long> found = new java.util.ArrayList<Long>();
+      java.util.Set<String> distinct = new java.util.HashSet<String>();
+      Iterator<SpanningForest<Integer>> trees =
+        new SpanningTreeEnumerator<Integer>(g);
+      while (trees.hasNext()) {
+        SpanningForest<Integer> tree = trees.next();
+        found.add(tree.totalWeight());
+        java.util.List<String> edges = new java.util.ArrayList<String>();
+        for (int i = 0; i < tree.edgeCount(); i++) {
+          edges.add(tree.edges().source(i) + "-" + tree.edges().target(i));
+        }
+        java.util.Collections.sort(edges);
+        distinct.add(edges.toString());
+      }
+      if (!found.equals(expected) || distinct.size() != found.size()) {
+        System.out.println("Trial " + trial + ":  expected " + expected +
+                           ", found " + found);
+        return;
+      }
+      checked += found.size();
+    }
+    System.out.println("All " + checked + " trees of 50 small graphs were " +
+                       "listed once each, in order.");
+
+    WUGraph<Integer> g = new WUGraph<Integer>();
+    int n = 2000;
+    for (int x = 0; x < n; x++) {
+      g.addVertex(x);
+    }
+    for (int i = 0; i < 5 * n; i++) {
+      g.addEdge(random.nextInt(n), random.nextInt(n), random.nextInt(1000));
+    }
+    long start = System.nanoTime();
+    SpanningTreeEnumerator<Integer> trees =
+      new SpanningTreeEnumerator<Integer>(g);
+    long first = trees.next().totalWeight();
+    long last = first;
+    for (int k = 1; k < 1000 && trees.hasNext(); k++) {
+      last = trees.next().totalWeight();
+    }
+    System.out.println("1000 lightest trees of a " + n + "-vertex graph " +
+                       "weigh " + first + "..." + last + "; " +
+                       (System.nanoTime() - start) / 1000000 + " ms.");
+  }
+
+}
@@ -0,0 +1,357 @@
+/* StreamingMST.java */
+
+package mst;
+
+import graph.*;
+import set.*;
+import java.io.IOException;
+
+/**
+ * A StreamingMST computes a minimum spanning forest of a graph whose edges
+ * arrive one at a time and are never stored:  only the vertex set has to
+ * fit in memory.  It keeps the current forest (at most |V| - 1 edges) in a
+ * link-cut tree.  Each arriving edge either joins two trees, or closes a
+ * cycle, in which case the heaviest edge on that cycle is evicted (possibly
+ * the arriving edge itself).  After the last edge, the forest is a minimum
+ * spanning forest of every edge seen.
+ *
+ * Memory use is O(|V|) regardless of the number of edges; each edge costs
+ * O(log |V|) amortized time.  Vertices are the ints 0...|V|-1.  Self-edges
+ * are ignored, and an arriving edge that ties the heaviest edge on its
+ * cycle is dropped, so the forest's edges stay.
+ * Given a keyed EdgeOrder, such as EdgeOrder.DESCENDING, it keeps the
+ * forest that is minimal under that order instead; the link-cut tree holds
+ * the edges' sort keys, so this costs nothing extra.
+ */
+
+public class StreamingMST {
+
+  private static final int VERTEX_VALUE = Integer.MIN_VALUE;
+
+  private int vertexCount;
+  private EdgeOrder order;
+  private LinkCutForest trees;
+
+  /* Tree edge k is node vertexCount + k of "trees". */
+  private int[] edgeSource;
+  private int[] edgeTarget;
+  private int[] freeEdges;
+  private int freeCount;
+  private int edgeCount;
+  private long totalWeight;
+
+  /**
+   * StreamingMST() constructs an empty forest on "vertexCount" vertices.
+   *
+   * @param vertexCount the number of vertices; edges name vertices
+   *        0...vertexCount-1.
+   */
+  public StreamingMST(int vertexCount) {
+    this(vertexCount, EdgeOrder.ASCENDING);
+  }
+
+  /**
+   * StreamingMST() constructs an empty forest on "vertexCount" vertices
+   * that keeps the forest minimal under "order".
+   *
+   * @param vertexCount the number of vertices; edges name vertices
+   *        0...vertexCount-1.
+   * @param order a keyed order (see EdgeOrder.isKeyed()).
+   * @exception IllegalArgumentException if "order" is a comparator order.
+   */
+  public StreamingMST(int vertexCount, EdgeOrder order) {
+    order.requireKeyed("StreamingMST");
+    this.vertexCount = vertexCount;
+    this.order = order;
+    int maxEdges = Math.max(vertexCount - 1, 0);
+    trees = new LinkCutForest(vertexCount + maxEdges);
+    for (int i = 0; i < vertexCount; i++) {
+      trees.reset(i, VERTEX_VALUE);
+    }
+    edgeSource = new int[maxEdges];
+    edgeTarget = new int[maxEdges];
+    freeEdges = new int[maxEdges];
+    for (int k = 0; k < maxEdges; k++) {
+      freeEdges[k] = maxEdges - 1 - k;
+    }
+    freeCount = maxEdges;
+  }
+
+  /**
+   * minSpanForest() consumes an edge stream in one pass and returns the
+   * edges of its minimum spanning forest.
+   *
+   * @param in the edges of the graph.
+   * @param vertexCount the number of vertices.
+   * @return the edges of a minimum spanning forest.
+   * @exception IOException if the stream cannot be read.
+   */
+  public static EdgeList minSpanForest(EdgeStream in, int vertexCount)
+    throws IOException {
+    StreamingMST forest = new StreamingMST(vertexCount);
+    forest.consume(in);
+    return forest.edges();
+  }
+
+  /**
+   * consume() inserts every remaining edge of a stream.
+   *
+   * @param in the edges to insert.
+   * @exception IOException if the stream cannot be read.
+   */
+  public void consume(EdgeStream in) throws IOException {
+    while (in.next()) {
+      insert(in.source(), in.target(), in.weight());
+    }
+  }
+
+  /**
+   * insert() offers one edge to the forest.
+   *
+   * @param u one endpoint, between 0 and vertexCount-1.
+   * @param v the other endpoint, between 0 and vertexCount-1.
+   * @param weight the edge's weight.
+   * @exception IllegalArgumentException if u or v is out of range.
+   *
+   * Running time:  O(log |V|) amortized.
+   */
+  public void insert(int u, int v, int weight) {
+    if (u < 0 || u >= vertexCount || v < 0 || v >= vertexCount) {
+      throw new IllegalArgumentException("edge (" + u + ", " + v +
+                                         ") names a vertex out of range");
+    }
+    if (u == v) {
+      return;
+    }
+    int key = order.key(weight);
+    if (trees.connected(u, v)) {
+      int heaviest = trees.pathMax(u, v);
+      if (trees.value(heaviest) <= key) {
+        return;
+      }
+      evict(heaviest - vertexCount);
+    }
+    int k = freeEdges[--freeCount];
+    int e = vertexCount + k;
+    edgeSource[k] = u;
+    edgeTarget[k] = v;
+    trees.reset(e, key);
+    trees.link(u, e);
+    trees.link(e, v);
+    edgeCount++;
+    totalWeight += weight;
+  }
+
+  private void evict(int k) {
+    int e = vertexCount + k;
+    trees.cut(edgeSource[k], e);
+    trees.cut(e, edgeTarget[k]);
+    freeEdges[freeCount++] = k;
+    edgeCount--;
+    totalWeight -= order.weight(trees.value(e));
+  }
+
+  /**
+   * edgeCount() returns the number of edges currently in the forest.
+   */
+  public int edgeCount() {
+    return edgeCount;
+  }
+
+  /**
+   * totalWeight() returns the sum of the weights of the forest's edges.
+   */
+  public long totalWeight() {
+    return totalWeight;
+  }
+
+  /**
+   * edges() returns a new EdgeList holding the forest's current edges.
+   *
+   * Running time:  O(|V|).
+   */
+  public EdgeList edges() {
+    EdgeList list = new EdgeList(edgeCount);
+    boolean[] free = new boolean[edgeSource.length];
+    for (int i = 0; i < freeCount; i++) {
+      free[freeEdges[i]] = true;
+    }
+    for (int k = 0; k < edgeSource.length; k++) {
+      if (!free[k]) {
+        list.add(edgeSource[k], edgeTarget[k],
+                 order.weight(trees.value(vertexCount + k)));
+      }
+    }
+    return list;
+  }
+
+  /**
+   * toGraph() returns a new WUGraph holding the forest, using vertices[i]
+   * as the application's object for vertex i.
+   *
+   * @param vertices an array of length vertexCount.
+   */
+  public <V> WUGraph<V> toGraph(V[] vertices) {
+    WUGraph<V> t = new WUGraph<V>();
+    for (int i = 0; i < vertexCount; i++) {
+      t.addVertex(vertices[i]);
+    }
+    EdgeList list = edges();
+    for (int i = 0; i < list.size(); i++) {
+      t.addEdge(vertices[list.source(i)], vertices[list.target(i)],
+                list.weight(i));
+    }
+    return t;
+  }
+
+  /**
+   * main() checks StreamingMST against a sort-and-union-find Kruskal on
+   * random streams that repeat vertex pairs with new weights and include
+   * self-edges.  Weights tie often, so the two may choose different
+   * forests; each forest must be a forest of stream edges with as many
+   * edges and the same weight as Kruskal's.  Then it writes a stream to a
+   * file with EdgeFileWriter, reads it back with EdgeFileStream, and
+   * checks that every edge survives the round trip and that the file
+   * gives a minimum spanning forest too.
+   */
+  public static void main(String[] args) throws IOException {
+    java.util.Random random = new java.util.Random(27);
+    int failures = 0;
+    for (int trial = 0; trial < 100; trial++) {
+      int n = 2 + random.nextInt(60);
+      EdgeList stream = randomStream(random, n, 1 + random.nextInt(8 * n));
+      EdgeList streamed = minSpanForest(stream.stream(), n);
+      if (!equivalent(streamed, referenceForest(stream, n), stream, n)) {
+        failures++;
+      }
+    }
+    System.out.println("Random streams:  " + failures +
+                       " of 100 forests differ from Kruskal's.");
+
+    int n = 5000;
+    EdgeList stream = randomStream(random, n, 40000);
+    java.io.File file = java.io.File.createTempFile("edges", ".bin");
+    try {
+      EdgeFileWriter writer = new EdgeFileWriter(file, n);
+      for (int i = 0; i < stream.size(); i++) {
+        writer.write(stream.source(i), stream.target(i), stream.weight(i));
+      }
+      writer.close();
+      EdgeFileStream in = new EdgeFileStream(file);
+      int read = 0;
+      boolean same = in.vertexCount() == n &&
+                     writer.edgeCount() == stream.size();
+      while (in.next()) {
+        same = same && read < stream.size() &&
+               in.source() == stream.source(read) &&
+               in.target() == stream.target(read) &&
+               in.weight() == stream.weight(read);
+        read++;
+      }
+      in.close();
+      in = new EdgeFileStream(file);
+      EdgeList fromFile = minSpanForest(in, in.vertexCount());
+      in.close();
+      System.out.println("File round trip:  " + read + " edges read back " +
+                         (same && read == stream.size() ? "intact"
+                                                        : "CHANGED") +
+                         "; forest from file " +
+                         (equivalent(fromFile, referenceForest(stream, n),
+                                     stream, n) ? "matches"
+                                                : "DIFFERS from") +
+                         " Kruskal's.");
+    } finally {
+      file.delete();
+    }
+  }
+
+  /**
+   * randomStream() returns m random edges on n vertices, about a quarter of
+   * them repeating an earlier pair (in either direction) with a new weight
+   * and a few of them self-edges.
+   */
+  private static EdgeList randomStream(java.util.Random random, int n,
+                                       int m) {
+    EdgeList stream = new EdgeList(m);
+    for (int i = 0; i < m; i++) {
+      int weight = random.nextInt(50);
+      if (i > 0 && random.nextInt(4) == 0) {
+        int j = random.nextInt(i);
+        stream.add(stream.target(j), stream.source(j), weight);
+      } else if (random.nextInt(50) == 0) {
+        int u = random.nextInt(n);
+        stream.add(u, u, weight);
+      } else {
+        stream.add(random.nextInt(n), random.nextInt(n), weight);
+      }
+    }
+    return stream;
+  }
+
+  /**
+   * referenceForest() returns the minimum spanning forest of a stream found
+   * by sorting it by weight (stably, so ties go to the earlier edge) and
+   * scanning it with a DisjointSets.
+   */
+  private static EdgeList referenceForest(EdgeList stream, int n) {
+    long[] keys = new long[stream.size()];
+    for (int i = 0; i < keys.length; i++) {
+      keys[i] = EdgeSort.pack(stream.weight(i), i);
+    }
+    java.util.Arrays.sort(keys);
+    DisjointSets sets = new DisjointSets(n);
+    EdgeList forest = new EdgeList();
+    for (int k = 0; k < keys.length; k++) {
+      int i = EdgeSort.index(keys[k]);
+      int root1 = sets.find(stream.source(i));
+      int root2 = sets.find(stream.target(i));
+      if (root1 != root2) {
+        sets.union(root1, root2);
+        forest.add(stream.source(i), stream.target(i), stream.weight(i));
+      }
+    }
+    return forest;
+  }
+
+  /**
+   * equivalent() returns true if "forest" is a minimum spanning forest of
+   * "stream" as good as "reference":  its edges are edges of the stream,
+   * they close no cycle, and there are as many of them with the same total
+   * weight as in the reference.
+   */
+  private static boolean equivalent(EdgeList forest, EdgeList reference,
+                                    EdgeList stream, int n) {
+    if (forest.size() != reference.size() ||
+        forest.totalWeight() != reference.totalWeight()) {
+      return false;
+    }
+    long[] streamEdges = new long[stream.size()];
+    for (int i = 0; i < streamEdges.length; i++) {
+      streamEdges[i] = edgeCode(stream, i);
+    }
+    java.util.Arrays.sort(streamEdges);
+    DisjointSets sets = new DisjointSets(n);
+    for (int i = 0; i < forest.size(); i++) {
+      int root1 = sets.find(forest.source(i));
+      int root2 = sets.find(forest.target(i));
+      if (root1 == root2 ||
+          java.util.Arrays.binarySearch(streamEdges, edgeCode(forest, i)) < 0) {
+        return false;
+      }
+      sets.union(root1, root2);
+    }
+    return true;
+  }
+
+  /**
+   * edgeCode() packs edge i of a list into a long, independent of the
+   * edge's orientation.  Vertices and weights here are small, so 24 bits
+   * each suffice.
+   */
+  private static long edgeCode(EdgeList list, int i) {
+    int u = Math.min(list.source(i), list.target(i));
+    int v = Math.max(list.source(i), list.target(i));
+    return ((long) u << 40) | ((long) v << 16) | list.weight(i);
+  }
+
+}
@@ -0,0 +1,167 @@
+/* WideKruskal.java */
+
+package mst;
+
+import graph.*;
+import set.*;
+
+/**
+ * The WideKruskal class runs Kruskal's algorithm on graphs with 64-bit
+ * weights, LongWUGraphs and DoubleWUGraphs.  Both kinds of graph give every
+ * weight a long sort key (see WideWUGraph), so one engine serves both:  it
+ * reads each edge's key once, sorts the keys with a radix sort that carries
+ * the edge numbers along, and scans them with a DisjointSets, exactly as
+ * Kruskal.minSpanForest() does with its packed int keys.  A WideWUGraph is
+ * not a WUGraph, so this is the only engine that accepts one.
+ *
+ * The result is a graph of the same kind as the input, so its total weight
+ * comes from LongWUGraph.totalWeight(), which cannot overflow, or
+ * DoubleWUGraph.totalWeight(), which is compensated.  Equal weights are
+ * taken in order of vertex id, so the tree is reproducible.
+ */
+
+public class WideKruskal {
+
+  private static final String ENGINE = "WideKruskal";
+
+  /**
+   * minSpanTree() returns a new graph of the same kind as g holding all of
+   * g's vertices and a minimum spanning forest of g.  The original graph g
+   * is NOT changed.
+   *
+   * Running time:  O(|V| + |E| alpha(|V|)).
+   */
+  public static <V, G extends WideWUGraph<V>> G minSpanTree(G g) {
+    return minSpanTree(g, EdgeOrder.ASCENDING);
+  }
+
+  /**
+   * maxSpanTree() returns a new graph of the same kind as g holding all of
+   * g's vertices and a maximum spanning forest of g.
+   */
+  public static <V, G extends WideWUGraph<V>> G maxSpanTree(G g) {
+    return minSpanTree(g, EdgeOrder.DESCENDING);
+  }
+
+  /**
+   * minSpanTree() returns a new graph of the same kind as g holding all of
+   * g's vertices and the spanning forest of g that is minimal under
+   * "order".
+   *
+   * @exception IllegalArgumentException if "order" is a comparator order;
+   *            wide weights have no Comparator<Integer>.
+   */
+  @SuppressWarnings("unchecked")
+  public static <V, G extends WideWUGraph<V>> G minSpanTree(G g,
+                                                            EdgeOrder order) {
+    order.requireKeyed(ENGINE);
+    int bound = g.vertexIdBound();
+
+    // Collect each edge once, from its endpoint with the smaller id.
+    int edgeCapacity = Math.max(g.edgeCount(), 1);
+    long[] keys = new long[edgeCapacity];
+    int[] indices = new int[edgeCapacity];
+    int[] ends1 = new int[edgeCapacity];
+    int[] ends2 = new int[edgeCapacity];
+    int maxDegree = 0;
+    for (int x = 0; x < bound; x++) {
+      maxDegree = Math.max(maxDegree, g.degreeAt(x));
+    }
+    int[] ids = new int[maxDegree];
+    long[] edgeKeys = new long[maxDegree];
+    int count = 0;
+    for (int x = 0; x < bound; x++) {
+      int degree = g.keysAt(x, ids, edgeKeys);
+      for (int i = 0; i < degree; i++) {
+        if (ids[i] > x) {
+          keys[count] = order.wideKey(edgeKeys[i]);
+          indices[count] = count;
+          ends1[count] = x;
+          ends2[count] = ids[i];
+          count++;
+        }
+      }
+    }
+
+    EdgeSort.sortPairs(keys, indices, count);
+
+    G t = (G) g.emptyGraph();
+    for (int x = 0; x < bound; x++) {
+      V v = g.vertexAt(x);
+      if (v != null) {
+        t.addVertex(v);
+      }
+    }
+    DisjointSets sets = new DisjointSets(bound);
+    int unions = g.vertexCount() - 1;
+    for (int i = 0; i < count && unions > 0; i++) {
+      int edge = indices[i];
+      int root1 = sets.find(ends1[edge]);
+      int root2 = sets.find(ends2[edge]);
+      if (root1 != root2) {
+        sets.union(root1, root2);
+        t.addEdgeByKey(g.vertexAt(ends1[edge]), g.vertexAt(ends2[edge]),
+                       order.wideKey(keys[i]));
+        unions--;
+      }
+    }
+    return t;
+  }
+
+  /**
+   * main() checks WideKruskal against StreamingMST on a graph whose long
+   * weights are int weights shifted past the int range, and on a graph
+   * whose double weights are int weights scaled down, and sums a tree
+   * whose weight overflows a long.
+   */
+  public static void main(String[] args) {
+    java.util.Random random = new java.util.Random(48);
+    int n = 20000;
+    StreamingMST minimum = new StreamingMST(n);
+    StreamingMST maximum = new StreamingMST(n, EdgeOrder.DESCENDING);
+    LongWUGraph<Integer> longs = new LongWUGraph<Integer>();
+    DoubleWUGraph<Integer> doubles = new DoubleWUGraph<Integer>();
+    for (int x = 0; x < n; x++) {
+      longs.addVertex(x);
+      doubles.addVertex(x);
+    }
+    for (int i = 0; i < 5 * n; i++) {
+      int u = random.nextInt(n);
+      int v = random.nextInt(n);
+      int w = random.nextInt(2000001) - 1000000;
+      if (u == v || longs.isEdge(u, v)) {
+        continue;
+      }
+      minimum.insert(u, v, w);
+      maximum.insert(u, v, w);
+      longs.addEdge(u, v, (long) w << 32);
+      doubles.addEdge(u, v, w / 1024.0);
+    }
+
+    java.math.BigInteger longTotal = minSpanTree(longs).totalWeight();
+    double doubleTotal = minSpanTree(doubles).totalWeight();
+    System.out.println("Minimum:  streaming " + minimum.totalWeight() +
+                       "; long " + longTotal.shiftRight(32) +
+                       "; double " + doubleTotal * 1024);
+    longTotal = maxSpanTree(longs).totalWeight();
+    doubleTotal = maxSpanTree(doubles).totalWeight();
+    System.out.println("Maximum:  streaming " + maximum.totalWeight() +
+                       "; long " + longTotal.shiftRight(32) +
+                       "; double " + doubleTotal * 1024);
+
+    // A path of near-maximal weights whose total needs more than 64 bits.
+    LongWUGraph<Integer> path = new LongWUGraph<Integer>();
+    for (int x = 0; x < 4; x++) {
+      path.addVertex(x);
+    }
+    for (int x = 0; x < 3; x++) {
+      path.addEdge(x, x + 1, Long.MAX_VALUE - x);
+    }
+    System.out.println("Overflowing path:  " +
+                       minSpanTree(path).totalWeight() + " (expected " +
+                       java.math.BigInteger.valueOf(Long.MAX_VALUE)
+                       .multiply(java.math.BigInteger.valueOf(3))
+                       .subtract(java.math.BigInteger.valueOf(3)) + ")");
+  }
+
+}
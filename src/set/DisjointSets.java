@@ -17,6 +17,9 @@ package set;
 public class DisjointSets {
 
   private int[] array;
+  private boolean counting;
+  private long findCalls;
+  private long findSteps;
 
   /**
    *  Construct a disjoint sets object.
@@ -61,15 +64,50 @@ public class DisjointSets {
    *  @return the set containing x.
    **/
   public int find(int x) {
+    if (counting) {
+      findCalls++;
+    }
+    return findRoot(x);
+  }
+
+  private int findRoot(int x) {
     if (array[x] < 0) {
       return x;                         // x is the root of the tree; return it
     } else {
+      if (counting) {
+        findSteps++;
+      }
       // Find out who the root is; compress path by making the root x's parent.
-      array[x] = find(array[x]);
+      array[x] = findRoot(array[x]);
       return array[x];                                       // Return the root
     }
   }
 
+  /**
+   *  setCounting() turns the find() counters on or off.  Counting is off by
+   *  default; while it is off, the counters are left unchanged.
+   *
+   *  @param counting true to count find() calls and steps.
+   **/
+  public void setCounting(boolean counting) {
+    this.counting = counting;
+  }
+
+  /**
+   *  findCalls() returns the number of find() calls counted so far.
+   **/
+  public long findCalls() {
+    return findCalls;
+  }
+
+  /**
+   *  findSteps() returns the total length of the paths (in parent links)
+   *  that the counted find() calls followed before compressing them.
+   **/
+  public long findSteps() {
+    return findSteps;
+  }
+
   /**
    *  main() is test code.  All the find()s on the same output line should be
    *  identical.